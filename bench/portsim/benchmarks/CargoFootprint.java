@@ -0,0 +1,105 @@
+package portsim.benchmarks;
+
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.port.ShipQueue;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the heap retained per piece of cargo with the cargo registry on or off the heap,
+ * either for cargo that is only registered or for cargo also held in a port's warehouse and on
+ * board the ships docked there.
+ * <p>
+ * Retained heap is not something JMH measures, so this is run directly, once per
+ * configuration so that nothing grown by an earlier run is left over:
+ * {@code java portsim.benchmarks.CargoFootprint <cargo> <on-heap|off-heap>
+ * <registered|held>}. Give it a heap large enough for the cargo and, for the off-heap
+ * registry, enough direct memory. The figure includes the cargo table's columns, which stay on
+ * the heap either way.
+ */
+public class CargoFootprint {
+
+    /**
+     * Containers carried by each ship
+     */
+    private static final int SHIP_CAPACITY = 10_000;
+
+    /**
+     * Prints the heap retained per piece of cargo in the configuration given.
+     *
+     * @param args number of pieces of cargo; {@code on-heap} or {@code off-heap} registry;
+     *             {@code registered} or {@code held} in a port and ships
+     * @throws InterruptedException     if interrupted while waiting for garbage collection
+     * @throws IllegalArgumentException if the arguments are not as above
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 3 || !args[1].matches("on-heap|off-heap")
+                || !args[2].matches("registered|held")) {
+            throw new IllegalArgumentException("Usage: CargoFootprint <cargo> "
+                    + "<on-heap|off-heap> <registered|held>");
+        }
+        int cargo = Integer.parseInt(args[0]);
+        System.out.printf("%s registry, %s: %.1f bytes/cargo%n", args[1], args[2],
+                measure(args[1].equals("off-heap"), cargo, args[2].equals("held")));
+    }
+
+    /*
+     * Creates the given number of containers, keeping half in a port's warehouse and half on
+     * board ships docked at it if held, and returns the heap retained per container
+     */
+    private static double measure(boolean offHeap, int count, boolean held)
+            throws InterruptedException {
+        Cargo.setOffHeapRegistry(offHeap);
+        Ship.resetShipRegistry();
+        long before = usedHeap();
+
+        List<Cargo> stored = new ArrayList<>();
+        List<Quay> quays = new ArrayList<>();
+        ContainerShip ship = null;
+        for (int id = 0; id < count; id++) {
+            Container container = new Container(id, "Brisbane", ContainerType.STANDARD);
+            if (!held) {
+                continue;
+            }
+            if (id % 2 == 0) {
+                stored.add(container);
+            } else {
+                if (ship == null || !ship.canLoad(container)) {
+                    ship = new ContainerShip(1000000 + quays.size(), "Ship " + quays.size(),
+                            "Brisbane", NauticalFlag.NOVEMBER, SHIP_CAPACITY);
+                    quays.add(new ContainerQuay(quays.size(), SHIP_CAPACITY));
+                    quays.get(quays.size() - 1).shipArrives(ship);
+                }
+                ship.loadCargo(container);
+            }
+        }
+        Port port = held ? new Port("Brisbane", 0, new ShipQueue(), quays, stored) : null;
+        stored = null;
+        quays = null;
+        ship = null;
+
+        long retained = usedHeap() - before;
+        Reference.reachabilityFence(port);
+        return (double) retained / count;
+    }
+
+    /* Returns the heap in use once garbage collection has settled */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,97 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares totalling bulk tonnage by destination over the cargo registry with the same report
+ * over the column-oriented {@link portsim.cargo.CargoTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CargoScanBenchmark {
+
+    /**
+     * Number of pieces of cargo in the registry
+     */
+    @Param({"100000", "1000000"})
+    public int cargo;
+
+    /**
+     * Number of distinct destinations
+     */
+    @Param({"50"})
+    public int destinations;
+
+    /**
+     * Fills the registry, and so the table, for the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Random random = new Random(2021);
+        ContainerType[] containerTypes = ContainerType.values();
+        BulkCargoType[] bulkTypes = BulkCargoType.values();
+        for (int i = 0; i < cargo; i++) {
+            String destination = "Port " + random.nextInt(destinations);
+            if (random.nextBoolean()) {
+                new Container(i, destination,
+                        containerTypes[random.nextInt(containerTypes.length)]);
+            } else {
+                new BulkCargo(i, destination, 1 + random.nextInt(500),
+                        bulkTypes[random.nextInt(bulkTypes.length)]);
+            }
+        }
+    }
+
+    /**
+     * Totals tonnage by walking the cargo objects in the registry.
+     *
+     * @return tonnage by destination
+     */
+    @Benchmark
+    public Map<String, Long> tonnageFromRegistry() {
+        Map<String, Long> totals = new HashMap<>();
+        for (Cargo piece : Cargo.getCargoRegistry().values()) {
+            if (piece instanceof BulkCargo) {
+                totals.merge(piece.getDestination(), (long) ((BulkCargo) piece).getTonnage(),
+                        Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Totals tonnage over the columns of the cargo table.
+     *
+     * @return tonnage by destination
+     */
+    @Benchmark
+    public Map<String, Long> tonnageFromTable() {
+        return Cargo.getCargoTable().tonnageByDestination();
+    }
+}
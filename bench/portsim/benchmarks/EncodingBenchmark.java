@@ -0,0 +1,78 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.port.Port;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving a port with {@link Port#encode()}.
+ * <p>
+ * Loading is not measured: {@link Port#initialisePort(java.io.Reader)} cannot yet decode what
+ * {@link Port#encode()} writes, so timing it would only time a failed load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EncodingBenchmark {
+
+    /**
+     * Number of quays at the port
+     */
+    @Param({"8", "200"})
+    public int quays;
+
+    /**
+     * Number of ships waiting in the queue
+     */
+    @Param({"10", "1000"})
+    public int queueDepth;
+
+    /**
+     * Number of pieces of cargo stored at the port
+     */
+    @Param({"1000", "100000"})
+    public int warehouseSize;
+
+    /**
+     * Number of movements scheduled at the port
+     */
+    @Param({"1000", "100000"})
+    public int movementBacklog;
+
+    /**
+     * Port being saved
+     */
+    private Port port;
+
+    /**
+     * Builds the port.
+     */
+    @Setup
+    public void setUp() {
+        port = new PortFixture(quays, queueDepth, warehouseSize, movementBacklog).getPort();
+    }
+
+    /**
+     * Encodes the port.
+     *
+     * @return encoded port
+     */
+    @Benchmark
+    public String encode() {
+        return port.encode();
+    }
+}
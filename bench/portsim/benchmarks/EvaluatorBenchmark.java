@@ -0,0 +1,124 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.evaluators.CargoDecompositionEvaluator;
+import portsim.evaluators.QuayOccupancyEvaluator;
+import portsim.evaluators.ShipFlagEvaluator;
+import portsim.evaluators.ShipThroughputEvaluator;
+import portsim.evaluators.StatisticsEvaluator;
+import portsim.movement.Movement;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each {@link StatisticsEvaluator} reading a movement and elapsing a minute, the two
+ * calls the port makes on its evaluators.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    /**
+     * Number of distinct movements fed to the evaluators, a power of two
+     */
+    private static final int MOVEMENTS = 1024;
+
+    /**
+     * Number of quays at the port watched by the quay occupancy evaluator
+     */
+    @Param({"8", "200"})
+    public int quays;
+
+    /**
+     * Movements fed to the evaluators in turn
+     */
+    private Movement[] movements;
+
+    /**
+     * Index of the next movement to feed
+     */
+    private int next;
+
+    private CargoDecompositionEvaluator cargoDecomposition;
+    private QuayOccupancyEvaluator quayOccupancy;
+    private ShipFlagEvaluator shipFlag;
+    private ShipThroughputEvaluator shipThroughput;
+
+    /**
+     * Builds the evaluators and the movements they read.
+     */
+    @Setup
+    public void setUp() {
+        PortFixture fixture = new PortFixture(quays, 0, 0, 0);
+        movements = new Movement[MOVEMENTS];
+        for (int i = 0; i < MOVEMENTS; i++) {
+            movements[i] = fixture.newMovement(i);
+        }
+        cargoDecomposition = new CargoDecompositionEvaluator();
+        quayOccupancy = new QuayOccupancyEvaluator(fixture.getPort());
+        shipFlag = new ShipFlagEvaluator();
+        shipThroughput = new ShipThroughputEvaluator();
+    }
+
+    /* Feeds the next movement to the evaluator and elapses a minute */
+    private StatisticsEvaluator step(StatisticsEvaluator evaluator) {
+        evaluator.onProcessMovement(movements[next++ & (MOVEMENTS - 1)]);
+        evaluator.elapseOneMinute();
+        return evaluator;
+    }
+
+    /**
+     * Steps the cargo decomposition evaluator.
+     *
+     * @return evaluator
+     */
+    @Benchmark
+    public StatisticsEvaluator cargoDecomposition() {
+        return step(cargoDecomposition);
+    }
+
+    /**
+     * Steps the quay occupancy evaluator and reads the number of occupied quays.
+     *
+     * @return number of occupied quays
+     */
+    @Benchmark
+    public int quayOccupancy() {
+        return step(quayOccupancy) == quayOccupancy ? quayOccupancy.getQuaysOccupied() : 0;
+    }
+
+    /**
+     * Steps the ship flag evaluator.
+     *
+     * @return evaluator
+     */
+    @Benchmark
+    public StatisticsEvaluator shipFlag() {
+        return step(shipFlag);
+    }
+
+    /**
+     * Steps the ship throughput evaluator and reads the throughput.
+     *
+     * @return ships through the port in the last hour
+     */
+    @Benchmark
+    public int shipThroughput() {
+        step(shipThroughput);
+        return shipThroughput.getThroughputPerHour();
+    }
+}
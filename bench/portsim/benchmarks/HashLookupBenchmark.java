@@ -0,0 +1,139 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.cargo.Cargo;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.port.ShipQueue;
+import portsim.ship.Ship;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hash map lookups that evaluators and ports make with ships, cargo and quays as
+ * keys, and hashing a whole ship queue.
+ * <p>
+ * Run with {@code -prof gc}: every benchmark here should report a normalised allocation rate
+ * ({@code gc.alloc.rate.norm}) of about 0 bytes per operation, since hashing no longer builds
+ * strings or lists.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashLookupBenchmark {
+
+    /**
+     * Number of keys of each kind, a power of two
+     */
+    private static final int KEYS = 1024;
+
+    /**
+     * Ships, keyed as the ship throughput evaluator keys them
+     */
+    private final Map<Ship, Long> shipTimes = new HashMap<>();
+
+    /**
+     * Cargo, as a set
+     */
+    private final Set<Cargo> cargoSet = new HashSet<>();
+
+    /**
+     * Quays, as a set
+     */
+    private final Set<Quay> quaySet = new HashSet<>();
+
+    /**
+     * Keys looked up, in order
+     */
+    private Ship[] ships;
+    private Cargo[] cargo;
+    private Quay[] quays;
+
+    /**
+     * Queue hashed as a whole
+     */
+    private ShipQueue shipQueue;
+
+    /**
+     * Index of the next key to look up
+     */
+    private int next;
+
+    /**
+     * Builds the keys and fills the maps.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        PortFixture fixture = new PortFixture(KEYS, 100, KEYS, 0);
+        Port port = fixture.getPort();
+        ships = new Ship[KEYS];
+        cargo = new Cargo[KEYS];
+        quays = new Quay[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            ships[i] = i % 2 == 0 ? fixture.newContainerShip() : fixture.newBulkCarrier();
+            shipTimes.put(ships[i], (long) i);
+            cargo[i] = port.getCargo().get(i);
+            cargoSet.add(cargo[i]);
+            quays[i] = port.getQuay(i);
+            quaySet.add(quays[i]);
+        }
+        shipQueue = port.getShipQueue();
+    }
+
+    /**
+     * Looks up a ship in a map.
+     *
+     * @return time stored for the ship
+     */
+    @Benchmark
+    public Long shipLookup() {
+        return shipTimes.get(ships[next++ & (KEYS - 1)]);
+    }
+
+    /**
+     * Looks up a piece of cargo in a set.
+     *
+     * @return true
+     */
+    @Benchmark
+    public boolean cargoLookup() {
+        return cargoSet.contains(cargo[next++ & (KEYS - 1)]);
+    }
+
+    /**
+     * Looks up a quay in a set.
+     *
+     * @return true
+     */
+    @Benchmark
+    public boolean quayLookup() {
+        return quaySet.contains(quays[next++ & (KEYS - 1)]);
+    }
+
+    /**
+     * Hashes the whole ship queue.
+     *
+     * @return hash code of the queue
+     */
+    @Benchmark
+    public int shipQueueHash() {
+        return shipQueue.hashCode();
+    }
+}
@@ -0,0 +1,107 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.movement.Movement;
+import portsim.port.Port;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a day's schedule of movements into an empty port, one movement at a time
+ * with {@link Port#addMovement(Movement)}, all at once with
+ * {@link Port#addMovements(java.util.Collection)} and streamed with
+ * {@link Port#addMovements(java.util.stream.Stream)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MovementIngestBenchmark {
+
+    /**
+     * Number of movements in the schedule
+     */
+    @Param({"100000"})
+    public int movements;
+
+    /**
+     * Whether the schedule is given in time order
+     */
+    @Param({"false", "true"})
+    public boolean sorted;
+
+    /**
+     * Schedule loaded into the port
+     */
+    private List<Movement> schedule;
+
+    /**
+     * Builds the schedule for the trial.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        PortFixture fixture = new PortFixture(0, 0, 0, 0);
+        Random random = new Random(2021);
+        schedule = new ArrayList<>(movements);
+        for (int i = 0; i < movements; i++) {
+            schedule.add(fixture.newMovement(1 + random.nextInt(24 * 60)));
+        }
+        if (sorted) {
+            schedule.sort((a, b) -> Long.compare(a.getTime(), b.getTime()));
+        }
+    }
+
+    /**
+     * Adds the schedule one movement at a time.
+     *
+     * @return the loaded port
+     */
+    @Benchmark
+    public Port addOneAtATime() {
+        Port port = new Port("Benchmark");
+        for (Movement movement : schedule) {
+            port.addMovement(movement);
+        }
+        return port;
+    }
+
+    /**
+     * Adds the schedule in one batch.
+     *
+     * @return the loaded port
+     */
+    @Benchmark
+    public Port addBatch() {
+        Port port = new Port("Benchmark");
+        port.addMovements(schedule);
+        return port;
+    }
+
+    /**
+     * Streams the schedule into the port.
+     *
+     * @return the loaded port
+     */
+    @Benchmark
+    public Port addStream() {
+        Port port = new Port("Benchmark");
+        port.addMovements(schedule.stream());
+        return port;
+    }
+}
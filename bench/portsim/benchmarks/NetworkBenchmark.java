@@ -0,0 +1,161 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.CargoMovement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.network.PortNetwork;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares conservative and optimistic execution of a {@link PortNetwork} running for a day.
+ * <p>
+ * Every port starts with a full set of docked container ships, each leaving for a random
+ * other port at a random time, and a warehouse of cargo for the other ports. Most routes take
+ * an hour, but a few take only {@code shortTransit} minutes, which sets the lookahead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NetworkBenchmark {
+
+    /**
+     * Length of the simulated run, in minutes
+     */
+    private static final long DAY = 24 * 60;
+
+    /**
+     * Transit time of most routes, in minutes
+     */
+    private static final long TRANSIT = 60;
+
+    /**
+     * Quays, and so ships starting, at each port
+     */
+    private static final int QUAYS = 8;
+
+    /**
+     * Containers stored at each port at the start
+     */
+    private static final int WAREHOUSE = 50;
+
+    /**
+     * Number of ports in the network
+     */
+    @Param({"50", "200", "500"})
+    public int ports;
+
+    /**
+     * Transit time of the shortest routes, in minutes
+     */
+    @Param({"5", "30"})
+    public long shortTransit;
+
+    /**
+     * How far ports may run ahead optimistically, or 0 to run conservatively
+     */
+    @Param({"0", "120"})
+    public long optimisticWindow;
+
+    /**
+     * Network being run
+     */
+    private PortNetwork network;
+
+    /**
+     * Builds a fresh network for the run.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        Random random = new Random(2021);
+        network = new PortNetwork(TRANSIT);
+        network.setOptimisticWindow(optimisticWindow);
+
+        List<String> names = new ArrayList<>(ports);
+        for (int p = 0; p < ports; p++) {
+            names.add("Port " + p);
+            Port port = new Port(names.get(p));
+            for (int q = 0; q < QUAYS; q++) {
+                port.addQuay(new ContainerQuay(q, 100));
+            }
+            network.addPort(port);
+        }
+        for (int p = 0; p < ports; p++) {
+            network.setTransitTime(names.get(p), names.get((p + 1) % ports), shortTransit);
+        }
+
+        int cargoId = 0;
+        long imoNumber = 1000000;
+        for (int p = 0; p < ports; p++) {
+            Port port = network.getPort(names.get(p));
+            List<Cargo> stored = new ArrayList<>(WAREHOUSE);
+            for (int c = 0; c < WAREHOUSE; c++) {
+                stored.add(new Container(cargoId++, otherPort(names, p, random),
+                        ContainerType.STANDARD));
+            }
+            port.processMovement(new CargoMovement(0, MovementDirection.INBOUND, stored));
+            for (int s = 0; s < QUAYS; s++) {
+                Ship ship = new ContainerShip(imoNumber++, "Ship " + imoNumber,
+                        otherPort(names, p, random), NauticalFlag.NOVEMBER, 20);
+                // ships dock one every ten minutes, so all have docked before any leaves
+                port.addMovement(new ShipMovement(1, MovementDirection.INBOUND, ship));
+                long departure = QUAYS * 10 + 1 + random.nextInt((int) (DAY - QUAYS * 10));
+                port.addMovement(new ShipMovement(departure, MovementDirection.OUTBOUND, ship));
+            }
+        }
+    }
+
+    /* Picks a port other than the one at the given index */
+    private static String otherPort(List<String> names, int index, Random random) {
+        int other = random.nextInt(names.size() - 1);
+        return names.get(other >= index ? other + 1 : other);
+    }
+
+    /**
+     * Stops the network's threads.
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        network.shutdown();
+    }
+
+    /**
+     * Runs the network for a day.
+     *
+     * @return the network after the run
+     */
+    @Benchmark
+    public PortNetwork runDay() {
+        network.runUntil(DAY);
+        return network;
+    }
+}
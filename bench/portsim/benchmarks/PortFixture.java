@@ -0,0 +1,204 @@
+package portsim.benchmarks;
+
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.BulkQuay;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.port.ShipQueue;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds ports of a given size for use by the benchmarks.
+ * <p>
+ * Every fixture resets the global ship and cargo registries, so only one fixture should be
+ * alive per benchmark trial. All randomness is seeded so that repeated runs measure the same
+ * state.
+ */
+public class PortFixture {
+
+    /**
+     * Smallest valid IMO number, ship numbers are allocated upwards from here
+     */
+    private static final long FIRST_IMO = 1000000;
+
+    /**
+     * Destination shared by all cargo and ships so that departing ships always load
+     */
+    public static final String DESTINATION = "Australia";
+
+    /**
+     * Number of containers carried by each container ship
+     */
+    private static final int CONTAINERS_PER_SHIP = 20;
+
+    /**
+     * Port built by this fixture
+     */
+    private final Port port;
+
+    /**
+     * Random number generator used to build the fixture
+     */
+    private final Random random = new Random(2021);
+
+    /**
+     * Next IMO number to allocate
+     */
+    private long nextImo = FIRST_IMO;
+
+    /**
+     * Next cargo ID to allocate
+     */
+    private int nextCargoId = 0;
+
+    /**
+     * Creates a port with the given number of quays, ships waiting in the queue, cargo stored
+     * in the warehouses and movements scheduled for the future.
+     * <p>
+     * Half of the quays are container quays and half are bulk quays. Every second quay has a
+     * loaded ship docked at it.
+     *
+     * @param quays           number of quays
+     * @param queueDepth      number of ships in the ship queue
+     * @param warehouseSize   number of pieces of cargo stored at the port
+     * @param movementBacklog number of movements scheduled over the following day
+     */
+    public PortFixture(int quays, int queueDepth, int warehouseSize, int movementBacklog) {
+        Ship.resetShipRegistry();
+        Cargo.resetCargoRegistry();
+
+        List<Quay> quayList = new ArrayList<>();
+        for (int i = 0; i < quays; i++) {
+            Quay quay = i % 2 == 0 ? new ContainerQuay(i, 1000) : new BulkQuay(i, 1000);
+            if (i % 4 < 2) {
+                quay.shipArrives(i % 2 == 0 ? newContainerShip() : newBulkCarrier());
+            }
+            quayList.add(quay);
+        }
+
+        ShipQueue shipQueue = new ShipQueue();
+        for (int i = 0; i < queueDepth; i++) {
+            shipQueue.add(i % 2 == 0 ? newContainerShip() : newBulkCarrier());
+        }
+
+        List<Cargo> stored = new ArrayList<>();
+        for (int i = 0; i < warehouseSize; i++) {
+            stored.add(i % 2 == 0 ? newContainer() : newBulkCargo());
+        }
+
+        this.port = new Port("Benchmark", 0, shipQueue, quayList, stored);
+        for (int i = 0; i < movementBacklog; i++) {
+            port.addMovement(newMovement(1 + random.nextInt(24 * 60)));
+        }
+    }
+
+    /**
+     * Returns the port built by this fixture.
+     *
+     * @return port
+     */
+    public Port getPort() {
+        return port;
+    }
+
+    /**
+     * Creates a new container.
+     *
+     * @return container
+     */
+    public Container newContainer() {
+        ContainerType[] types = ContainerType.values();
+        return new Container(nextCargoId++, DESTINATION, types[random.nextInt(types.length)]);
+    }
+
+    /**
+     * Creates a new piece of bulk cargo.
+     *
+     * @return bulk cargo
+     */
+    public BulkCargo newBulkCargo() {
+        BulkCargoType[] types = BulkCargoType.values();
+        return new BulkCargo(nextCargoId++, DESTINATION, 1 + random.nextInt(500),
+                types[random.nextInt(types.length)]);
+    }
+
+    /**
+     * Creates a new container ship carrying containers.
+     *
+     * @return container ship
+     */
+    public ContainerShip newContainerShip() {
+        ContainerShip ship = new ContainerShip(nextImo++, "Container" + nextImo, DESTINATION,
+                randomFlag(), CONTAINERS_PER_SHIP * 2);
+        for (int i = 0; i < CONTAINERS_PER_SHIP; i++) {
+            ship.loadCargo(newContainer());
+        }
+        return ship;
+    }
+
+    /**
+     * Creates a new bulk carrier carrying bulk cargo.
+     *
+     * @return bulk carrier
+     */
+    public BulkCarrier newBulkCarrier() {
+        BulkCarrier ship = new BulkCarrier(nextImo++, "Bulk" + nextImo, DESTINATION,
+                randomFlag(), 1000);
+        ship.loadCargo(newBulkCargo());
+        return ship;
+    }
+
+    /**
+     * Creates a new movement of a random type and direction at the given time.
+     *
+     * @param time time of the movement
+     * @return movement
+     */
+    public Movement newMovement(long time) {
+        MovementDirection direction = random.nextBoolean()
+                ? MovementDirection.INBOUND : MovementDirection.OUTBOUND;
+        if (random.nextBoolean()) {
+            Ship ship = random.nextBoolean() ? newContainerShip() : newBulkCarrier();
+            return new ShipMovement(time, direction, ship);
+        }
+        return newCargoMovement(time, direction, 1 + random.nextInt(10));
+    }
+
+    /**
+     * Creates a new cargo movement of newly created containers.
+     *
+     * @param time      time of the movement
+     * @param direction direction of the movement
+     * @param size      number of containers moved
+     * @return cargo movement
+     */
+    public CargoMovement newCargoMovement(long time, MovementDirection direction, int size) {
+        List<Cargo> cargo = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cargo.add(newContainer());
+        }
+        return new CargoMovement(time, direction, cargo);
+    }
+
+    /* Returns a random nautical flag */
+    private NauticalFlag randomFlag() {
+        NauticalFlag[] flags = NauticalFlag.values();
+        return flags[random.nextInt(flags.length)];
+    }
+}
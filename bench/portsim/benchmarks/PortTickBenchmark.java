@@ -0,0 +1,80 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.port.Port;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Port#elapseOneMinute()} as the port grows.
+ * <p>
+ * The port is rebuilt before every iteration, so each iteration starts at minute 0 with a
+ * full queue, a full warehouse and a day of scheduled movements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PortTickBenchmark {
+
+    /**
+     * Number of quays at the port
+     */
+    @Param({"8", "200"})
+    public int quays;
+
+    /**
+     * Number of ships waiting in the queue
+     */
+    @Param({"10", "1000"})
+    public int queueDepth;
+
+    /**
+     * Number of pieces of cargo stored at the port
+     */
+    @Param({"1000", "100000"})
+    public int warehouseSize;
+
+    /**
+     * Number of movements scheduled over the day
+     */
+    @Param({"1000", "100000"})
+    public int movementBacklog;
+
+    /**
+     * Port being ticked
+     */
+    private Port port;
+
+    /**
+     * Builds a fresh port for the iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        port = new PortFixture(quays, queueDepth, warehouseSize, movementBacklog).getPort();
+    }
+
+    /**
+     * Elapses one minute at the port.
+     *
+     * @return the ticked port
+     */
+    @Benchmark
+    public Port elapseOneMinute() {
+        port.elapseOneMinute();
+        return port;
+    }
+}
@@ -0,0 +1,165 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.cargo.Cargo;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.Port;
+import portsim.port.Quay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Port#processMovement(Movement)} for every combination of movement type and
+ * direction.
+ * <p>
+ * Processing a movement changes the port, so each iteration runs a fixed batch of movements
+ * against a freshly built port and reports the time per batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = ProcessMovementBenchmark.BATCH)
+@Measurement(iterations = 10, batchSize = ProcessMovementBenchmark.BATCH)
+@Fork(1)
+public class ProcessMovementBenchmark {
+
+    /**
+     * Number of movements processed per iteration
+     */
+    static final int BATCH = 500;
+
+    /**
+     * Number of quays at the port
+     */
+    @Param({"8", "200"})
+    public int quays;
+
+    /**
+     * Number of pieces of cargo stored at the port
+     */
+    @Param({"1000", "100000"})
+    public int warehouseSize;
+
+    /**
+     * Port processing the movements
+     */
+    private Port port;
+
+    /**
+     * Inbound ship movements of ships not yet at the port
+     */
+    private Movement[] shipsInbound;
+
+    /**
+     * Outbound ship movements of ships docked at the port
+     */
+    private Movement[] shipsOutbound;
+
+    /**
+     * Inbound cargo movements of cargo not yet at the port
+     */
+    private Movement[] cargoInbound;
+
+    /**
+     * Outbound cargo movements of cargo stored at the port
+     */
+    private Movement[] cargoOutbound;
+
+    /**
+     * Index of the next movement to process
+     */
+    private int next;
+
+    /**
+     * Builds a fresh port and batch of movements for the iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        PortFixture fixture = new PortFixture(quays, 0, warehouseSize, 0);
+        port = fixture.getPort();
+        next = 0;
+
+        List<Quay> docked = new ArrayList<>();
+        for (Quay quay : port.getQuays()) {
+            if (!quay.isEmpty()) {
+                docked.add(quay);
+            }
+        }
+        List<Cargo> stored = port.getCargo();
+
+        shipsInbound = new Movement[BATCH];
+        shipsOutbound = new Movement[BATCH];
+        cargoInbound = new Movement[BATCH];
+        cargoOutbound = new Movement[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            shipsInbound[i] = new ShipMovement(1, MovementDirection.INBOUND,
+                    i % 2 == 0 ? fixture.newContainerShip() : fixture.newBulkCarrier());
+            shipsOutbound[i] = new ShipMovement(1, MovementDirection.OUTBOUND,
+                    docked.get(i % docked.size()).getShip());
+            cargoInbound[i] = fixture.newCargoMovement(1, MovementDirection.INBOUND, 10);
+            List<Cargo> leaving = new ArrayList<>();
+            leaving.add(stored.get((i * 7) % stored.size()));
+            cargoOutbound[i] = new CargoMovement(1, MovementDirection.OUTBOUND, leaving);
+        }
+    }
+
+    /**
+     * Processes an inbound ship movement.
+     *
+     * @return port
+     */
+    @Benchmark
+    public Port shipInbound() {
+        port.processMovement(shipsInbound[next++]);
+        return port;
+    }
+
+    /**
+     * Processes an outbound ship movement.
+     *
+     * @return port
+     */
+    @Benchmark
+    public Port shipOutbound() {
+        port.processMovement(shipsOutbound[next++]);
+        return port;
+    }
+
+    /**
+     * Processes an inbound cargo movement.
+     *
+     * @return port
+     */
+    @Benchmark
+    public Port cargoInbound() {
+        port.processMovement(cargoInbound[next++]);
+        return port;
+    }
+
+    /**
+     * Processes an outbound cargo movement.
+     *
+     * @return port
+     */
+    @Benchmark
+    public Port cargoOutbound() {
+        port.processMovement(cargoOutbound[next++]);
+        return port;
+    }
+}
@@ -0,0 +1,59 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.evaluators.QueueingEstimator;
+import portsim.port.Port;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures estimating a port's queue and berth statistics from its quays and schedule, which
+ * should take microseconds where simulating the same schedule takes seconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueueingEstimatorBenchmark {
+
+    /**
+     * Number of movements scheduled at the port
+     */
+    @Param({"100", "1000", "10000"})
+    public int movements;
+
+    /**
+     * Port to estimate
+     */
+    private Port port;
+
+    /**
+     * Builds the port and its schedule.
+     */
+    @Setup
+    public void setUp() {
+        port = new PortFixture(20, 0, 0, movements).getPort();
+    }
+
+    /**
+     * Estimates the port's statistics.
+     *
+     * @return estimator holding the estimates
+     */
+    @Benchmark
+    public QueueingEstimator estimate() {
+        return new QueueingEstimator(port);
+    }
+}
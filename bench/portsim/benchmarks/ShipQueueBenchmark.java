@@ -0,0 +1,88 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.port.ShipQueue;
+import portsim.ship.Ship;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations of {@link ShipQueue} at different queue depths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShipQueueBenchmark {
+
+    /**
+     * Number of ships in the queue
+     */
+    @Param({"10", "1000", "100000"})
+    public int queueDepth;
+
+    /**
+     * Queue being measured
+     */
+    private ShipQueue queue;
+
+    /**
+     * Ship added to the queue by {@link #addThenPoll()}
+     */
+    private Ship arriving;
+
+    /**
+     * Fills the queue to the requested depth.
+     */
+    @Setup
+    public void setUp() {
+        PortFixture fixture = new PortFixture(0, queueDepth, 0, 0);
+        queue = fixture.getPort().getShipQueue();
+        arriving = fixture.newBulkCarrier();
+    }
+
+    /**
+     * Adds a ship to the queue and takes the next ship off it, keeping the depth constant.
+     *
+     * @return ship taken off the queue
+     */
+    @Benchmark
+    public Ship addThenPoll() {
+        queue.add(arriving);
+        arriving = queue.poll();
+        return arriving;
+    }
+
+    /**
+     * Looks at the next ship in the queue.
+     *
+     * @return next ship
+     */
+    @Benchmark
+    public Ship peek() {
+        return queue.peek();
+    }
+
+    /**
+     * Lists every ship in the queue.
+     *
+     * @return ships in the queue
+     */
+    @Benchmark
+    public List<Ship> getShipQueue() {
+        return queue.getShipQueue();
+    }
+}
@@ -0,0 +1,82 @@
+package portsim.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import portsim.port.Port;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the tick at which a large port unloads its docked ships, as the number of unload
+ * threads grows.
+ * <p>
+ * The port is rebuilt before every invocation and run up to the minute before unloading, so
+ * each measured tick unloads every docked ship.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(1)
+public class UnloadBenchmark {
+
+    /**
+     * Number of quays at the port
+     */
+    @Param({"1000"})
+    public int quays;
+
+    /**
+     * Number of threads the quays are unloaded on
+     */
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    /**
+     * Port being unloaded
+     */
+    private Port port;
+
+    /**
+     * Builds a fresh port whose next tick unloads every docked ship.
+     */
+    @Setup(Level.Invocation)
+    public void setUp() {
+        port = new PortFixture(quays, 0, 0, 0).getPort();
+        port.setUnloadThreads(threads);
+        while ((port.getTime() + 1) % 5 != 0) {
+            port.elapseOneMinute();
+        }
+    }
+
+    /**
+     * Releases the port's unload threads.
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        port.setUnloadThreads(1);
+    }
+
+    /**
+     * Elapses the minute at which the port unloads its quays.
+     *
+     * @return the ticked port
+     */
+    @Benchmark
+    public Port unloadTick() {
+        port.elapseOneMinute();
+        return port;
+    }
+}
@@ -38,6 +38,23 @@ public class BulkCargo extends Cargo implements Encodable {
         }
         this.tonnage = tonnage;
         this.type = type;
+        registered(this);
+    }
+
+    /**
+     * Creates a new Bulk Cargo that is not added to the cargo registry, read back from an
+     * off-heap registry.
+     *
+     * @param id          cargo ID
+     * @param destination destination port
+     * @param tonnage     the weight of the cargo
+     * @param type        the type of cargo
+     * @param register    false, to skip the registry
+     */
+    BulkCargo(int id, String destination, int tonnage, BulkCargoType type, boolean register) {
+        super(id, destination, register);
+        this.tonnage = tonnage;
+        this.type = type;
     }
 
     /**
@@ -108,17 +125,6 @@ public class BulkCargo extends Cargo implements Encodable {
                 this.getType().equals(((BulkCargo) o).getType()) && this.getTonnage() == ((BulkCargo) o).getTonnage();
     }
 
-    /**
-     * Returns the hash code of this BulkCargo.
-     * Two BulkCargo are equal according to equals(Object) method should have the same hash code.
-     * @return hash code of this BulkCargo.
-     */
-    @Override
-    public int hashCode(){
-        String hashCode = getId() + getDestination() + getType().toString() + getTonnage();
-        return hashCode.hashCode();
-    }
-
     /**
      * Returns the machine-readable string representation of this BulkCargo.
      * The format of the string to return is
@@ -1,6 +1,7 @@
 package portsim.cargo;
 
 import portsim.util.BadEncodingException;
+import portsim.util.Country;
 import portsim.util.Encodable;
 import portsim.util.NoSuchCargoException;
 
@@ -26,11 +27,27 @@ public abstract class Cargo implements Encodable {
      */
     private String destination;
 
+    /**
+     * {@link Country} code of the destination, compared instead of the name
+     */
+    private int destinationCode;
+
     /**
      * Database of all cargo currently active in the simulation
      */
     private static Map<Integer, Cargo> cargoRegistry = new HashMap<>();
 
+    /**
+     * Column-oriented copy of the registry, filled in as containers and bulk cargo are created
+     */
+    private static final CargoTable cargoTable = new CargoTable();
+
+    /**
+     * Off-heap store used as the registry instead of {@link #cargoRegistry}, or null to keep
+     * the registry on the heap
+     */
+    private static CargoArena cargoArena;
+
     /**
      * Creates a new Cargo with the given ID and destination port.
      * <p>
@@ -42,16 +59,44 @@ public abstract class Cargo implements Encodable {
      * @ass1_partial
      */
     public Cargo(int id, String destination) throws IllegalArgumentException {
-        if (cargoRegistry.containsKey(id)|| id < 0) {
+        this(id, destination, true);
+    }
+
+    /**
+     * Creates a new Cargo with the given ID and destination port, which is only checked
+     * against and added to the cargo registry if asked. Unregistered cargo is used for the
+     * cargo read back from an off-heap registry.
+     *
+     * @param id          cargo ID
+     * @param destination destination port
+     * @param register    whether to check and add the cargo to the registry
+     * @throws IllegalArgumentException if registering and a cargo already exists with the
+     *                                  given ID or ID &lt; 0
+     */
+    Cargo(int id, String destination, boolean register) throws IllegalArgumentException {
+        if (register && (cargoExists(id) || id < 0)) {
             throw new IllegalArgumentException("Cargo ID must be greater than"
                 + " or equal to 0: " + id);
-        }else{
-            this.id = id;
-            this.destination = destination;
-            cargoRegistry.put(id,this);
         }
+        this.id = id;
+        this.destinationCode = Country.code(destination);
+        this.destination = Country.name(destinationCode);
+        if (register && cargoArena == null) {
+            cargoRegistry.put(id, this);
+        }
+    }
 
-
+    /**
+     * Adds a newly created piece of cargo, whose fields are now all set, to the cargo table
+     * and, if the registry is off-heap, to the off-heap registry.
+     *
+     * @param cargo cargo that has just been created
+     */
+    static void registered(Cargo cargo) {
+        cargoTable.add(cargo);
+        if (cargoArena != null) {
+            cargoArena.add(cargo);
+        }
     }
 
     /**
@@ -74,6 +119,15 @@ public abstract class Cargo implements Encodable {
         return destination;
     }
 
+    /**
+     * Returns the {@link Country} code of the destination of this piece of cargo.
+     *
+     * @return the cargo's destination code
+     */
+    public int getDestinationCode() {
+        return destinationCode;
+    }
+
     /**
      * Returns the human-readable string representation of this cargo.
      * <p>
@@ -106,15 +160,32 @@ public abstract class Cargo implements Encodable {
      * @return cargo registry
      */
     public static Map<Integer, Cargo> getCargoRegistry(){
+        if (cargoArena != null) {
+            Map<Integer, Cargo> registry = new HashMap<>();
+            cargoArena.forEach(cargo -> registry.put(cargo.getId(), cargo));
+            return registry;
+        }
         return new HashMap<>(cargoRegistry);
     }
 
+    /**
+     * Returns the number of pieces of cargo in the registry, without copying it.
+     *
+     * @return number of registered pieces of cargo
+     */
+    public static int getCargoCount() {
+        return cargoArena != null ? cargoArena.size() : cargoRegistry.size();
+    }
+
     /**
      * Checks if a cargo exists in the simulation using its ID.
      * @param id- unique key to identify cargo
      * @return true if there is a cargo stored in the registry with key id; false otherwise
      */
     public static boolean cargoExists​(int id){
+        if (cargoArena != null) {
+            return cargoArena.contains(id);
+        }
         return cargoRegistry.containsKey(id);
     }
 
@@ -125,10 +196,11 @@ public abstract class Cargo implements Encodable {
      * @throws NoSuchCargoException-if the cargo does not exist in the registry
      */
     public static Cargo getCargoById​(int id) throws NoSuchCargoException {
-        if(cargoRegistry.get(id) == null){
-            throw new NoSuchCargoException();
+        Cargo cargo = cargoArena != null ? cargoArena.get(id) : cargoRegistry.get(id);
+        if(cargo == null){
+            throw NoSuchCargoException.stackless("No cargo with ID " + id);
         }else{
-            return cargoRegistry.get(id);
+            return cargo;
         }
     }
 
@@ -146,7 +218,8 @@ public abstract class Cargo implements Encodable {
         if(o == null || this.getClass() != o.getClass()){
             return false;
         }
-        return this.getId() == ((Cargo) o).getId() && this.getDestination().equals(((Cargo) o).getDestination());
+        return this.getId() == ((Cargo) o).getId()
+                && this.destinationCode == ((Cargo) o).destinationCode;
     }
 
     /**
@@ -156,8 +229,8 @@ public abstract class Cargo implements Encodable {
      */
     @Override
     public int hashCode(){
-        String hashCode = getId() + getDestination();
-        return hashCode.hashCode();
+        // the ID is unique, so equal cargo always has equal IDs
+        return getId();
     }
 
     /**
@@ -246,5 +319,52 @@ public abstract class Cargo implements Encodable {
      */
     public static void resetCargoRegistry() {
         Cargo.cargoRegistry = new HashMap<>();
+        cargoTable.clear();
+        if (cargoArena != null) {
+            cargoArena.clear();
+        }
+    }
+
+    /**
+     * Chooses whether the cargo registry is kept off the heap, emptying the registry.
+     * <p>
+     * An off-heap registry keeps each piece of cargo as a fixed-width record in a direct
+     * buffer rather than as an object in a map, so the registry itself takes no heap space
+     * and is not scanned by the garbage collector. Cargo looked up by ID is then a new object
+     * read from the record each time, which is equal to, but not the same object as, the cargo
+     * originally created. The off-heap registry is limited by the JVM's maximum direct memory
+     * ({@code -XX:MaxDirectMemorySize}) instead of its heap size.
+     * <p>
+     * Only the registry moves off the heap. Cargo held in a port's warehouse, on board a ship
+     * or by anything else is still a full object on the heap, and each lookup by ID allocates
+     * a new one. The saving is therefore largest for cargo that is registered but mostly
+     * referred to by ID, as cargo movements do. {@code portsim.benchmarks.CargoFootprint}
+     * measures the heap retained per piece of cargo either way.
+     *
+     * @param offHeap true to keep the registry off the heap, false to keep it on the heap
+     */
+    public static void setOffHeapRegistry(boolean offHeap) {
+        cargoArena = offHeap ? new CargoArena() : null;
+        resetCargoRegistry();
+    }
+
+    /**
+     * Returns true if the cargo registry is kept off the heap.
+     *
+     * @return true if the registry is off-heap
+     * @see #setOffHeapRegistry(boolean)
+     */
+    public static boolean isOffHeapRegistry() {
+        return cargoArena != null;
+    }
+
+    /**
+     * Returns the column-oriented table of all cargo in the registry, for reports that scan
+     * every piece of cargo.
+     *
+     * @return cargo table
+     */
+    public static CargoTable getCargoTable() {
+        return cargoTable;
     }
 }
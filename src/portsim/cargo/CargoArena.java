@@ -0,0 +1,231 @@
+package portsim.cargo;
+
+import portsim.util.Country;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Off-heap store of cargo records, used as the cargo registry when very large numbers of
+ * cargo are simulated (see {@link Cargo#setOffHeapRegistry(boolean)}).
+ * <p>
+ * Each piece of cargo is a fixed-width record in a direct buffer, found through an open
+ * addressing hash index held in a second direct buffer. Neither buffer is scanned by the
+ * garbage collector. Looking up a piece of cargo returns a new {@link Container} or
+ * {@link BulkCargo} that reads its fields from the record but is not itself registered; it
+ * is equal to the cargo originally created with that ID. Only the registry is kept here;
+ * cargo held by ports and ships stays on the heap.
+ */
+class CargoArena {
+
+    /**
+     * Bytes in each record: ID, {@link Country} code of the destination, tonnage, kind and type
+     * ordinal
+     */
+    private static final int RECORD_BYTES = 16;
+
+    /**
+     * Offset of the destination code within a record
+     */
+    private static final int DESTINATION = 4;
+
+    /**
+     * Offset of the tonnage within a record
+     */
+    private static final int TONNAGE = 8;
+
+    /**
+     * Offset of the kind within a record
+     */
+    private static final int KIND = 12;
+
+    /**
+     * Offset of the type ordinal within a record
+     */
+    private static final int TYPE = 13;
+
+    /**
+     * Kind of a record holding a container
+     */
+    private static final byte CONTAINER = 0;
+
+    /**
+     * Kind of a record holding bulk cargo
+     */
+    private static final byte BULK = 1;
+
+    /**
+     * Records the arena can hold before it first grows
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Records, in the order the cargo was created
+     */
+    private ByteBuffer records;
+
+    /**
+     * Hash index from cargo ID to record, holding record + 1 in each int slot so 0 is empty
+     */
+    private ByteBuffer index;
+
+    /**
+     * Number of slots in the index, a power of two
+     */
+    private int slots;
+
+    /**
+     * Number of records in the arena
+     */
+    private int size;
+
+    /**
+     * Creates a new, empty arena.
+     */
+    CargoArena() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the number of pieces of cargo in the arena.
+     *
+     * @return number of records
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the arena holds a piece of cargo with the given ID.
+     *
+     * @param id cargo ID
+     * @return true if the cargo exists
+     */
+    boolean contains(int id) {
+        return recordOf(id) >= 0;
+    }
+
+    /**
+     * Adds a record for the given piece of cargo, which must not already be in the arena.
+     *
+     * @param cargo cargo to add
+     */
+    void add(Cargo cargo) {
+        if (size == records.capacity() / RECORD_BYTES) {
+            grow();
+        }
+        int base = size * RECORD_BYTES;
+        records.putInt(base, cargo.getId());
+        records.putInt(base + DESTINATION, cargo.getDestinationCode());
+        if (cargo instanceof BulkCargo) {
+            records.putInt(base + TONNAGE, ((BulkCargo) cargo).getTonnage());
+            records.put(base + KIND, BULK);
+            records.put(base + TYPE, (byte) ((BulkCargo) cargo).getType().ordinal());
+        } else {
+            records.putInt(base + TONNAGE, 0);
+            records.put(base + KIND, CONTAINER);
+            records.put(base + TYPE, (byte) ((Container) cargo).getType().ordinal());
+        }
+        insert(cargo.getId(), size++);
+    }
+
+    /**
+     * Returns a new, unregistered piece of cargo read from the record with the given ID.
+     *
+     * @param id cargo ID
+     * @return cargo with the ID, or null if there is none
+     */
+    Cargo get(int id) {
+        int record = recordOf(id);
+        return record < 0 ? null : read(record);
+    }
+
+    /**
+     * Passes a new, unregistered piece of cargo for every record to the given action, in the
+     * order the cargo was created.
+     *
+     * @param action action to perform on each piece of cargo
+     */
+    void forEach(Consumer<Cargo> action) {
+        for (int record = 0; record < size; record++) {
+            action.accept(read(record));
+        }
+    }
+
+    /**
+     * Removes every record from the arena. The buffers are kept for reuse.
+     */
+    void clear() {
+        size = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            index.putInt(slot * 4, 0);
+        }
+    }
+
+    /* Builds an unregistered piece of cargo from the given record */
+    private Cargo read(int record) {
+        int base = record * RECORD_BYTES;
+        int id = records.getInt(base);
+        String destination = Country.name(records.getInt(base + DESTINATION));
+        int type = records.get(base + TYPE);
+        if (records.get(base + KIND) == BULK) {
+            return new BulkCargo(id, destination, records.getInt(base + TONNAGE),
+                    BulkCargoType.values()[type], false);
+        }
+        return new Container(id, destination, ContainerType.values()[type], false);
+    }
+
+    /* Returns the record holding the cargo with the given ID, or -1 if there is none */
+    private int recordOf(int id) {
+        int mask = slots - 1;
+        for (int slot = mix(id) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index.getInt(slot * 4);
+            if (entry == 0) {
+                return -1;
+            }
+            if (records.getInt((entry - 1) * RECORD_BYTES) == id) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /* Records the given record in the index, which has room for it */
+    private void insert(int id, int record) {
+        int mask = slots - 1;
+        int slot = mix(id) & mask;
+        while (index.getInt(slot * 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.putInt(slot * 4, record + 1);
+    }
+
+    /* Doubles the capacity of the arena, copying the records and rebuilding the index */
+    private void grow() {
+        ByteBuffer old = records;
+        allocate(records.capacity() / RECORD_BYTES * 2);
+        old.clear();
+        old.limit(size * RECORD_BYTES);
+        records.put(old);
+        records.clear();
+        for (int record = 0; record < size; record++) {
+            insert(records.getInt(record * RECORD_BYTES), record);
+        }
+    }
+
+    /* Allocates empty buffers for the given number of records */
+    private void allocate(int capacity) {
+        if ((long) capacity * RECORD_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cargo arena cannot hold " + capacity + " records");
+        }
+        records = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+        // half full at most, so probes stay short
+        slots = Integer.highestOneBit(capacity) * 2;
+        index = ByteBuffer.allocateDirect(slots * 4);
+    }
+
+    /* Spreads sequential IDs across the index */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
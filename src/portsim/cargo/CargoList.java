@@ -0,0 +1,283 @@
+package portsim.cargo;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Array-backed list of cargo that can hand all of its cargo to another list in one step.
+ * <p>
+ * It behaves like an {@link java.util.ArrayList}, but {@link #transferTo(CargoList)} moves
+ * every element into another cargo list and leaves this one empty. When the other list is
+ * empty the two lists simply swap backing arrays, so nothing is copied. Otherwise the
+ * elements are appended with a single array copy. Ships use it for their manifests and ports
+ * for their warehouses, so unloading a ship does not copy its cargo element by element.
+ * <p>
+ * A list can also be {@linkplain #share() shared}: the new list uses the same backing array
+ * until either list is changed, at which point the list being changed copies it.
+ * <p>
+ * Like {@link java.util.ArrayList}, a cargo list is not thread safe, although lists sharing an
+ * array may be used from different threads.
+ *
+ * @param <T> type of cargo in the list
+ */
+public class CargoList<T extends Cargo> extends AbstractList<T> implements RandomAccess {
+
+    /**
+     * Capacity of a list when its first element is added
+     */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Shared backing array of lists that have never held any cargo
+     */
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * Elements of the list, followed by unused slots that are always null
+     */
+    private Object[] elements;
+
+    /**
+     * Number of elements in the list
+     */
+    private int size;
+
+    /**
+     * Whether the backing array may also be used by another list, and must be copied before
+     * this list changes it
+     */
+    private boolean shared;
+
+    /**
+     * Creates a new, empty cargo list.
+     */
+    public CargoList() {
+        this.elements = EMPTY;
+    }
+
+    /**
+     * Creates a new cargo list holding the given cargo, in the order the collection returns
+     * it.
+     *
+     * @param cargo cargo to copy into the list
+     */
+    public CargoList(Collection<? extends T> cargo) {
+        Object[] copy = cargo.toArray();
+        // some collections return a more specific array type, which could not hold all cargo
+        this.elements = copy.length == 0 ? EMPTY : Arrays.copyOf(copy, copy.length, Object[].class);
+        this.size = copy.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index, size);
+        return (T) elements[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T cargo) {
+        checkIndex(index, size);
+        own();
+        T old = (T) elements[index];
+        elements[index] = cargo;
+        return old;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(T cargo) {
+        own();
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = cargo;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, T cargo) {
+        checkIndex(index, size + 1);
+        own();
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = cargo;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove(int index) {
+        checkIndex(index, size);
+        own();
+        T old = (T) elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return old;
+    }
+
+    /**
+     * Appends all of the given cargo to the end of this list. Cargo from another cargo list is
+     * appended with a single array copy.
+     *
+     * @param cargo cargo to add
+     * @return true if this list changed
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> cargo) {
+        Object[] added;
+        int count;
+        if (cargo instanceof CargoList) {
+            added = ((CargoList<?>) cargo).elements;
+            count = cargo.size();
+        } else {
+            added = cargo.toArray();
+            count = added.length;
+        }
+        if (count == 0) {
+            return false;
+        }
+        own();
+        if (size + count > elements.length) {
+            grow(size + count);
+        }
+        System.arraycopy(added, 0, elements, size, count);
+        size += count;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        if (shared) {
+            elements = EMPTY;
+            shared = false;
+        } else {
+            Arrays.fill(elements, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Moves every element of this list to the end of the given list, in order, leaving this
+     * list empty.
+     * <p>
+     * If the given list is empty the two lists swap backing arrays and no cargo is copied.
+     * Otherwise the cargo is appended with a single array copy and this list keeps its array
+     * for reuse.
+     *
+     * @param target list to move the cargo to
+     * @return number of pieces of cargo moved
+     * @throws IllegalArgumentException if the target is this list
+     */
+    public int transferTo(CargoList<? super T> target) throws IllegalArgumentException {
+        if (target == this) {
+            throw new IllegalArgumentException("Cannot transfer cargo to the same list");
+        }
+        int moved = size;
+        if (moved == 0) {
+            return 0;
+        }
+        if (target.size == 0) {
+            // the target's unused slots are all null, so its array is a valid empty list
+            Object[] spare = target.elements;
+            boolean spareShared = target.shared;
+            target.elements = elements;
+            target.shared = shared;
+            elements = spare;
+            shared = spareShared;
+        } else {
+            target.own();
+            if (target.size + moved > target.elements.length) {
+                target.grow(target.size + moved);
+            }
+            System.arraycopy(elements, 0, target.elements, target.size, moved);
+            if (shared) {
+                elements = EMPTY;
+                shared = false;
+            } else {
+                Arrays.fill(elements, 0, moved, null);
+            }
+        }
+        target.size += moved;
+        size = 0;
+        target.modCount++;
+        modCount++;
+        return moved;
+    }
+
+    /**
+     * Returns a new list holding the same cargo as this one, in the same order, without
+     * copying it. The two lists share a backing array until either is changed, so sharing
+     * takes constant time and memory grows only as the lists diverge.
+     *
+     * @return list sharing this list's cargo
+     */
+    public CargoList<T> share() {
+        CargoList<T> copy = new CargoList<>();
+        if (size > 0) {
+            copy.elements = elements;
+            copy.size = size;
+            copy.shared = true;
+            shared = true;
+        }
+        return copy;
+    }
+
+    /* Copies the backing array if it is shared, so this list can change it */
+    private void own() {
+        if (shared) {
+            elements = elements.clone();
+            shared = false;
+        }
+    }
+
+    /* Grows the backing array to hold at least the given number of elements */
+    private void grow(int capacity) {
+        int grown = Math.max(Math.max(capacity, DEFAULT_CAPACITY),
+                elements.length + (elements.length >> 1));
+        elements = Arrays.copyOf(elements, grown);
+    }
+
+    /* Throws an IndexOutOfBoundsException unless 0 <= index < bound */
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size "
+                    + size);
+        }
+    }
+}
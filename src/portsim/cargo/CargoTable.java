@@ -0,0 +1,315 @@
+package portsim.cargo;
+
+import portsim.util.Country;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented copy of the cargo registry, for reports that scan every piece of cargo.
+ * <p>
+ * Each piece of cargo is one row, held across primitive arrays: its ID, its destination as a
+ * {@link Country} code, its kind and type ordinal, its tonnage and its current location.
+ * Aggregations run as plain loops over these arrays rather than walking the cargo objects in
+ * {@link Cargo#getCargoRegistry()}.
+ * <p>
+ * Rows are added when cargo is created and the table is cleared with the registry. Locations
+ * are kept up to date by the ports and ships that move the cargo. Like the registry, the table
+ * is not thread safe, except that the locations of different pieces of cargo may be set from
+ * different threads at once.
+ */
+public class CargoTable {
+
+    /**
+     * Location of cargo that is neither in a warehouse nor on board a ship, such as cargo that
+     * has just been created or has left a port by land
+     */
+    public static final long IN_TRANSIT = -1;
+
+    /**
+     * Location of cargo stored in a port's warehouse. Cargo on board a ship is located by the
+     * ship's IMO number instead.
+     */
+    public static final long WAREHOUSE = 0;
+
+    /**
+     * Kind code for a row holding a {@link Container}
+     */
+    private static final byte CONTAINER = 0;
+
+    /**
+     * Kind code for a row holding {@link BulkCargo}
+     */
+    private static final byte BULK = 1;
+
+    /**
+     * Rows the table can hold before its columns first grow
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Number of rows in the table
+     */
+    private int size;
+
+    /**
+     * ID of the cargo in each row
+     */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    /**
+     * {@link Country} code of the destination of the cargo in each row
+     */
+    private int[] destinations = new int[INITIAL_CAPACITY];
+
+    /**
+     * Kind of the cargo in each row, either {@link #CONTAINER} or {@link #BULK}
+     */
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Ordinal of the {@link ContainerType} or {@link BulkCargoType} of the cargo in each row
+     */
+    private byte[] types = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Tonnage of the cargo in each row, 0 for containers
+     */
+    private int[] tonnages = new int[INITIAL_CAPACITY];
+
+    /**
+     * Location of the cargo in each row: {@link #IN_TRANSIT}, {@link #WAREHOUSE} or the IMO
+     * number of the ship carrying it
+     */
+    private long[] locations = new long[INITIAL_CAPACITY];
+
+    /**
+     * Open addressing hash table from cargo ID to row, holding row + 1 so that 0 is empty
+     */
+    private int[] rowSlots = new int[INITIAL_CAPACITY * 2];
+
+    /**
+     * Creates a new, empty cargo table. The table kept in sync with the registry is returned
+     * by {@link Cargo#getCargoTable()}.
+     */
+    CargoTable() {
+    }
+
+    /**
+     * Adds a row for a newly created piece of cargo, located in transit.
+     *
+     * @param cargo cargo to add
+     */
+    void add(Cargo cargo) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            tonnages = Arrays.copyOf(tonnages, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+            rehash(capacity * 2);
+        }
+        int row = size++;
+        ids[row] = cargo.getId();
+        destinations[row] = cargo.getDestinationCode();
+        if (cargo instanceof BulkCargo) {
+            kinds[row] = BULK;
+            types[row] = (byte) ((BulkCargo) cargo).getType().ordinal();
+            tonnages[row] = ((BulkCargo) cargo).getTonnage();
+        } else {
+            kinds[row] = CONTAINER;
+            types[row] = (byte) ((Container) cargo).getType().ordinal();
+            tonnages[row] = 0;
+        }
+        locations[row] = IN_TRANSIT;
+        insertRow(cargo.getId(), row);
+    }
+
+    /**
+     * Removes every row from the table.
+     */
+    void clear() {
+        size = 0;
+        Arrays.fill(rowSlots, 0);
+    }
+
+    /**
+     * Returns the number of rows in the table.
+     *
+     * @return number of pieces of cargo
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records the location of the piece of cargo with the given ID. Cargo not in the table is
+     * ignored.
+     *
+     * @param id       ID of the cargo
+     * @param location {@link #IN_TRANSIT}, {@link #WAREHOUSE} or the IMO number of the ship
+     *                 carrying the cargo
+     */
+    public void setLocation(int id, long location) {
+        int row = rowOf(id);
+        if (row >= 0) {
+            locations[row] = location;
+        }
+    }
+
+    /**
+     * Returns the recorded location of the piece of cargo with the given ID.
+     *
+     * @param id ID of the cargo
+     * @return {@link #IN_TRANSIT}, {@link #WAREHOUSE} or the IMO number of the ship carrying
+     * the cargo
+     * @throws IllegalArgumentException if there is no cargo with the ID in the table
+     */
+    public long getLocation(int id) throws IllegalArgumentException {
+        int row = rowOf(id);
+        if (row < 0) {
+            throw new IllegalArgumentException("No cargo with ID " + id);
+        }
+        return locations[row];
+    }
+
+    /**
+     * Returns the number of pieces of cargo at the given location.
+     *
+     * @param location {@link #IN_TRANSIT}, {@link #WAREHOUSE} or the IMO number of a ship
+     * @return number of pieces of cargo at the location
+     */
+    public int countAt(long location) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (locations[row] == location) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of pieces of cargo headed for each destination.
+     *
+     * @return number of pieces of cargo, by destination
+     */
+    public Map<String, Integer> countByDestination() {
+        int[] counts = new int[Country.count()];
+        for (int row = 0; row < size; row++) {
+            if (destinations[row] != Country.NONE) {
+                counts[destinations[row]]++;
+            }
+        }
+        Map<String, Integer> result = new HashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(Country.name(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the total tonnage of bulk cargo headed for each destination.
+     *
+     * @return total tonnage, by destination
+     */
+    public Map<String, Long> tonnageByDestination() {
+        // cargo with no destination is totalled in the first slot, which is then skipped
+        long[] totals = new long[Country.count() + 1];
+        for (int row = 0; row < size; row++) {
+            // containers have a tonnage of 0, so they can be summed without a branch
+            totals[destinations[row] + 1] += tonnages[row];
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < totals.length - 1; code++) {
+            if (totals[code + 1] > 0) {
+                result.put(Country.name(code), totals[code + 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of containers of each type.
+     *
+     * @return number of containers, by type
+     */
+    public Map<ContainerType, Integer> countByContainerType() {
+        int[] counts = countTypes(CONTAINER, ContainerType.values().length);
+        Map<ContainerType, Integer> result = new EnumMap<>(ContainerType.class);
+        for (ContainerType type : ContainerType.values()) {
+            if (counts[type.ordinal()] > 0) {
+                result.put(type, counts[type.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of pieces of bulk cargo of each type.
+     *
+     * @return number of pieces of bulk cargo, by type
+     */
+    public Map<BulkCargoType, Integer> countByBulkCargoType() {
+        int[] counts = countTypes(BULK, BulkCargoType.values().length);
+        Map<BulkCargoType, Integer> result = new EnumMap<>(BulkCargoType.class);
+        for (BulkCargoType type : BulkCargoType.values()) {
+            if (counts[type.ordinal()] > 0) {
+                result.put(type, counts[type.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    /* Counts the rows of the given kind by type ordinal */
+    private int[] countTypes(byte kind, int typeCount) {
+        int[] counts = new int[typeCount];
+        for (int row = 0; row < size; row++) {
+            if (kinds[row] == kind) {
+                counts[types[row]]++;
+            }
+        }
+        return counts;
+    }
+
+    /* Returns the row holding the cargo with the given ID, or -1 if there is none */
+    private int rowOf(int id) {
+        int mask = rowSlots.length - 1;
+        for (int slot = mix(id) & mask; rowSlots[slot] != 0; slot = (slot + 1) & mask) {
+            if (ids[rowSlots[slot] - 1] == id) {
+                return rowSlots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /* Records the row of the given ID in the hash table, which has room for it */
+    private void insertRow(int id, int row) {
+        int mask = rowSlots.length - 1;
+        int slot = mix(id) & mask;
+        while (rowSlots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        rowSlots[slot] = row + 1;
+    }
+
+    /* Rebuilds the hash table with the given number of slots, a power of two */
+    private void rehash(int slots) {
+        rowSlots = new int[slots];
+        for (int row = 0; row < size; row++) {
+            insertRow(ids[row], row);
+        }
+    }
+
+    /* Spreads sequential IDs across the hash table */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
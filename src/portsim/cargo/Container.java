@@ -28,6 +28,21 @@ public class Container extends Cargo implements Encodable {
         throws IllegalArgumentException {
         super(id, destination);
         this.type = type;
+        registered(this);
+    }
+
+    /**
+     * Creates a new Container that is not added to the cargo registry, read back from an
+     * off-heap registry.
+     *
+     * @param id          cargo ID
+     * @param destination destination port
+     * @param type        type of container
+     * @param register    false, to skip the registry
+     */
+    Container(int id, String destination, ContainerType type, boolean register) {
+        super(id, destination, register);
+        this.type = type;
     }
 
     /**
@@ -82,19 +97,6 @@ public class Container extends Cargo implements Encodable {
                 this.getType().equals(((Container) o).getType());
     }
 
-    /**
-     * Returns the hash code of this Container.
-     * Two Containers that are equal according to the equals(Object) method should have the same
-     * hash code.
-     * @return hash code of this Container.
-     */
-
-    @Override
-    public int hashCode(){
-        String hashCode = getId() + getDestination() + getType().toString();
-        return hashCode.hashCode();
-    }
-
     /**
      * Returns the machine-readable string representation of this Container.
      * The format of the string to return is
@@ -1,15 +1,19 @@
 package portsim.display;
 
 import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.TextAlignment;
+import javafx.scene.transform.Transform;
 import portsim.cargo.BulkCargo;
+import portsim.port.Port;
 import portsim.port.Quay;
 import portsim.port.ShipQueue;
 import portsim.ship.BulkCarrier;
@@ -38,6 +42,11 @@ public class PortCanvas extends Canvas {
      */
     private final Map<ClickableRegion, Ship> drawnShip;
 
+    /**
+     * Spatial index of the clickable regions in drawnShip, used to resolve clicks
+     */
+    private HitGrid hitGrid = new HitGrid(0, 0);
+
     /**
      * Width of an aircraft when drawn on the canvas, in pixels
      */
@@ -58,11 +67,79 @@ public class PortCanvas extends Canvas {
      */
     private static final double CONTAINER_WIDTH = CONTAINER_HEIGHT * 5 / 2;
 
+    /**
+     * Vertical distance between consecutive positions in the ship queue, in pixels
+     */
+    private static final double QUEUE_SLOT_HEIGHT = SHIP_HEIGHT + 12;
+
+    /**
+     * Padding above the first position in the ship queue, in pixels
+     */
+    private static final double QUEUE_PAD = 10;
+
     /**
      * Random number generator (Utility)
      */
     private Random random = new Random();
 
+    /**
+     * Static scenery pre-rendered at the size and output scale it was last drawn at
+     */
+    private Image background;
+    private double backgroundWidth;
+    private double backgroundHeight;
+    private double backgroundScale;
+
+    /**
+     * Width and height of a cargo depot when drawn on the canvas, in pixels
+     */
+    private static final double DEPOT_WIDTH = 150;
+    private static final double DEPOT_HEIGHT = 200;
+
+    /**
+     * Number of positions in the ship queue that are drawn
+     */
+    private static final int QUEUE_CAPACITY = 7;
+
+    /**
+     * Width of a quay when drawn on the canvas, and the margin left of the first quay
+     */
+    private static final double QUAY_WIDTH = SHIP_WIDTH * 5 / 3;
+    private static final double QUAY_MARGIN = 5;
+
+    /**
+     * Number of stored cargo at which the warehouse heat bar is full
+     */
+    private static final double WAREHOUSE_HEAT_SCALE = 1_000_000;
+
+    /**
+     * Colour of each flag's bar in the ship queue histogram, indexed by ordinal
+     */
+    private static final Color[] FLAG_COLOURS = {Color.RED, Color.GOLD, Color.WHITE,
+        Color.LIGHTSTEELBLUE};
+
+    /**
+     * Region state marking a queue position or quay that shows a summary instead of a ship
+     */
+    private static final int SUMMARY_STATE = -2;
+
+    /*
+     * What was last drawn in each region of the canvas, so that regions are only repainted
+     * when their contents change. A state of -1 forces a region to be repainted.
+     */
+    private Image drawnBackground;
+    private Port drawnPort;
+    private int drawnCargo = -1;
+    private Ship[] drawnQuayShips = new Ship[0];
+    private int[] drawnQuayStates = new int[0];
+    private ClickableRegion[] quayRegions = new ClickableRegion[0];
+    private final Ship[] drawnQueueShips = new Ship[QUEUE_CAPACITY];
+    private final int[] drawnQueueStates = new int[QUEUE_CAPACITY];
+    private final ClickableRegion[] queueRegions = new ClickableRegion[QUEUE_CAPACITY];
+    private int drawnQuayCount = -1;
+    private int drawnQueueSize = -1;
+    private int[] drawnFlagCounts = new int[0];
+
     /**
      * A class to represent a rectangular region on the canvas that responds to click events
      */
@@ -109,6 +186,95 @@ public class PortCanvas extends Canvas {
         }
     }
 
+    /**
+     * A uniform grid over the canvas that finds the clickable region under a point without
+     * checking every region. Each cell lists the regions overlapping it, so a lookup only
+     * tests the few regions in one cell. Regions are added and removed as they are repainted.
+     */
+    private static class HitGrid {
+
+        /**
+         * Width and height of a grid cell, in pixels
+         */
+        private static final double CELL_SIZE = 64;
+
+        /**
+         * Number of columns and rows of cells
+         */
+        private final int columns;
+        private final int rows;
+
+        /**
+         * Regions overlapping each cell, in row-major order, created when first needed
+         */
+        private final List<ClickableRegion>[] cells;
+
+        /**
+         * Creates an empty grid covering a canvas of the given dimensions
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public HitGrid(double width, double height) {
+            this.columns = Math.max(1, (int) Math.ceil(width / CELL_SIZE));
+            this.rows = Math.max(1, (int) Math.ceil(height / CELL_SIZE));
+            this.cells = new List[columns * rows];
+        }
+
+        /* Returns the column or row containing the given coordinate, clamped to the grid */
+        private static int cellOf(double coordinate, int limit) {
+            return Math.max(0, Math.min(limit - 1, (int) Math.floor(coordinate / CELL_SIZE)));
+        }
+
+        /**
+         * Adds a region to every cell it overlaps
+         */
+        public void add(ClickableRegion region) {
+            for (int row = cellOf(region.ycoord, rows);
+                 row <= cellOf(region.ycoord + region.height, rows); row++) {
+                for (int column = cellOf(region.xcoord, columns);
+                     column <= cellOf(region.xcoord + region.width, columns); column++) {
+                    int cell = row * columns + column;
+                    if (cells[cell] == null) {
+                        cells[cell] = new ArrayList<>(2);
+                    }
+                    cells[cell].add(region);
+                }
+            }
+        }
+
+        /**
+         * Removes a region from every cell it overlaps
+         */
+        public void remove(ClickableRegion region) {
+            for (int row = cellOf(region.ycoord, rows);
+                 row <= cellOf(region.ycoord + region.height, rows); row++) {
+                for (int column = cellOf(region.xcoord, columns);
+                     column <= cellOf(region.xcoord + region.width, columns); column++) {
+                    List<ClickableRegion> cell = cells[row * columns + column];
+                    if (cell != null) {
+                        cell.remove(region);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the most recently added region containing the given point, or null if
+         * there is none
+         */
+        public ClickableRegion find(double x, double y) {
+            List<ClickableRegion> cell = cells[cellOf(y, rows) * columns + cellOf(x, columns)];
+            if (cell == null) {
+                return null;
+            }
+            for (int i = cell.size() - 1; i >= 0; i--) {
+                if (cell.get(i).wasClicked(x, y)) {
+                    return cell.get(i);
+                }
+            }
+            return null;
+        }
+    }
+
     /**
      * Creates a new PortCanvas with the given dimensions.
      *
@@ -130,12 +296,8 @@ public class PortCanvas extends Canvas {
             }
             double x = event.getX();
             double y = event.getY();
-            Ship clickedShip = null;
-            for (Map.Entry<ClickableRegion, Ship> entry : drawnShip.entrySet()) {
-                if (entry.getKey().wasClicked(x, y)) {
-                    clickedShip = entry.getValue();
-                }
-            }
+            ClickableRegion clicked = hitGrid.find(x, y);
+            Ship clickedShip = clicked == null ? null : drawnShip.get(clicked);
             viewModel.getSelectedShip().set(clickedShip);
             viewModel.registerChange();
 
@@ -147,38 +309,143 @@ public class PortCanvas extends Canvas {
 
     /**
      * Draws all the relevant elements of the port onto the canvas.
+     * <p>
+     * The static scenery is rendered once into an offscreen image and copied onto the canvas
+     * each frame; only the parts that depend on the state of the port are redrawn.
      *
      * @given
      */
     public void draw() {
-        this.drawnShip.clear();
+        Image scenery = getBackground();
+        Port port = this.viewModel.getPort();
+        int quayCount = port.getQuayCount();
+        int visibleQuays = Math.min(quayCount, 4 + getBottomQuaySlots());
+        if (scenery != drawnBackground || port != drawnPort || drawnQuayCount != quayCount
+                || drawnQuayShips.length != visibleQuays) {
+            // everything on the canvas is stale, start again from the bare scenery
+            getGraphicsContext2D().drawImage(scenery, 0, 0, getWidth(), getHeight());
+            this.drawnShip.clear();
+            this.hitGrid = new HitGrid(getWidth(), getHeight());
+            drawnBackground = scenery;
+            drawnPort = port;
+            drawnCargo = -1;
+            drawnQuayCount = quayCount;
+            drawnQuayShips = new Ship[visibleQuays];
+            drawnQuayStates = new int[visibleQuays];
+            quayRegions = new ClickableRegion[visibleQuays];
+            Arrays.fill(drawnQuayStates, -1);
+            Arrays.fill(drawnQueueStates, -1);
+            Arrays.fill(queueRegions, null);
+        }
 
+        Ship selected = this.viewModel.getSelectedShip().get();
+        drawWarehouse(port.getCargoCount());
+        drawShipQueue(port.getShipQueue(), selected);
+        drawQuays(port, visibleQuays, selected);
+    }
+
+    /*
+     * Returns a number summarising how the given ship is drawn, so that a region is only
+     * repainted when the ship in it looks different.
+     */
+    private static int getShipState(Ship ship, Ship selected) {
+        if (ship == null) {
+            return 0;
+        }
+        int state = Objects.equals(ship, selected) ? 2 : 1;
+        if (ship instanceof BulkCarrier && ((BulkCarrier) ship).getCargo() != null) {
+            state += 4 * (((BulkCarrier) ship).getCargo().getType().ordinal() + 1);
+        }
+        return state;
+    }
+
+    /*
+     * Restores the scenery inside the given region and clips further drawing to it, so the
+     * region can be repainted without touching the rest of the canvas. Must be paired with
+     * a call to endRegion().
+     */
+    private void beginRegion(double x, double y, double width, double height) {
         GraphicsContext gc = getGraphicsContext2D();
+        gc.save();
+        gc.beginPath();
+        gc.rect(x, y, width, height);
+        gc.clip();
+        gc.drawImage(drawnBackground, x * backgroundScale, y * backgroundScale,
+                width * backgroundScale, height * backgroundScale, x, y, width, height);
+    }
 
-        gc.setFill(Color.DODGERBLUE);
-        gc.fillRect(0, 0, getWidth(), getHeight());
+    /* Finishes repainting a region started with beginRegion() */
+    private void endRegion() {
+        getGraphicsContext2D().restore();
+    }
 
-        drawPort();
-        drawShipQueue(this.viewModel.getPort().getShipQueue());
-        drawQuays();
+    /* Replaces the clickable region registered for a slot of the canvas */
+    private ClickableRegion replaceRegion(ClickableRegion old, Ship ship, double x, double y) {
+        if (old != null) {
+            this.drawnShip.remove(old);
+            this.hitGrid.remove(old);
+        }
+        if (ship == null) {
+            return null;
+        }
+        ClickableRegion region = new ClickableRegion(x + 10, y, SHIP_WIDTH * 4 / 3,
+                SHIP_HEIGHT);
+        this.drawnShip.put(region, ship);
+        this.hitGrid.add(region);
+        return region;
     }
 
-    /* Draws the port */
-    private void drawPort() {
-        GraphicsContext gc = getGraphicsContext2D();
+    /*
+     * Returns the pre-rendered static scenery, rendering it again if the canvas has been
+     * resized since it was last rendered.
+     */
+    private Image getBackground() {
+        double scale = getOutputScale();
+        if (background == null || backgroundWidth != getWidth()
+                || backgroundHeight != getHeight() || backgroundScale != scale) {
+            Canvas scratch = new Canvas(getWidth(), getHeight());
+            drawScenery(scratch.getGraphicsContext2D(), getWidth(), getHeight());
+
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setTransform(Transform.scale(scale, scale));
+            background = scratch.snapshot(parameters, null);
+            backgroundWidth = getWidth();
+            backgroundHeight = getHeight();
+            backgroundScale = scale;
+        }
+        return background;
+    }
+
+    /* Returns the ratio of physical to logical pixels of the window showing this canvas */
+    private double getOutputScale() {
+        if (getScene() == null || getScene().getWindow() == null) {
+            return 1;
+        }
+        return getScene().getWindow().getOutputScaleX();
+    }
+
+    /* Returns the y-coordinate of the top of the road leading to the cargo depots */
+    private static double getDepotRoadY() {
+        return SHIP_HEIGHT * 3 / 2 + 60;
+    }
+
+    /* Draws the parts of the port that never change: water, land, roads and depots */
+    private void drawScenery(GraphicsContext gc, double width, double height) {
+        gc.setFill(Color.DODGERBLUE);
+        gc.fillRect(0, 0, width, height);
 
         gc.setFill(Color.GOLDENROD);
-        double[] xs = new double[] {0, getWidth() - SHIP_WIDTH * 4,
-                getWidth() - SHIP_WIDTH * 4 - 40, getWidth() - SHIP_WIDTH * 4 - 80, 0};
+        double[] xs = new double[] {0, width - SHIP_WIDTH * 4,
+                width - SHIP_WIDTH * 4 - 40, width - SHIP_WIDTH * 4 - 80, 0};
         double[] ys = new double[] {0 + SHIP_HEIGHT * 3 / 2, 0 + SHIP_HEIGHT * 3 / 2,
-                getHeight() - SHIP_HEIGHT * 3 / 2 - 50, getHeight() - SHIP_HEIGHT * 3 / 2,
-                getHeight() - SHIP_HEIGHT * 3 / 2};
+                height - SHIP_HEIGHT * 3 / 2 - 50, height - SHIP_HEIGHT * 3 / 2,
+                height - SHIP_HEIGHT * 3 / 2};
         gc.fillPolygon(xs, ys, xs.length);
 
         final double roadHeight = CONTAINER_HEIGHT * 8;
         final double lineLength = 30;
-        final double roadWidth = getWidth() - SHIP_WIDTH * 4 - 60;
-        double roadStartY = SHIP_HEIGHT * 3 / 2 + 60;
+        final double roadWidth = width - SHIP_WIDTH * 4 - 60;
+        double roadStartY = getDepotRoadY();
 
         gc.setFill(Color.gray(0.2));
         gc.setFill(Color.BLACK);
@@ -192,14 +459,14 @@ public class PortCanvas extends Canvas {
                     lineLength + (i * lineLength), lineY);
             if (random.nextInt(3) == 0) {
                 // truck
-                drawTruck(lineLength / 2 + (i * lineLength), lineY);
+                drawTruck(gc, lineLength / 2 + (i * lineLength), lineY);
             }
         }
 
         gc.setStroke(Color.BLACK);
-        gc.strokeRect(20, roadStartY + 50, 150, 200);
-        gc.strokeRect(220, roadStartY + 50, 150, 200);
-        gc.strokeRect(420, roadStartY + 50, 150, 200);
+        gc.strokeRect(20, roadStartY + 50, DEPOT_WIDTH, DEPOT_HEIGHT);
+        gc.strokeRect(220, roadStartY + 50, DEPOT_WIDTH, DEPOT_HEIGHT);
+        gc.strokeRect(420, roadStartY + 50, DEPOT_WIDTH, DEPOT_HEIGHT);
 
         // Loaders at cargo depot
         gc.setFill(Color.MIDNIGHTBLUE);
@@ -213,16 +480,8 @@ public class PortCanvas extends Canvas {
         gc.fillRect(380, roadStartY + 150, 30, 20);
         gc.fillRect(350, roadStartY + 160, 90, 5);
 
-        gc.setFill(Color.FIREBRICK);
-        int num = viewModel.getPort().getCargo().size();
-        int cols = 9;
-        for (int i = 0; i < num * 4; i++) {
-            gc.fillRect(220 + 8 + (i % cols) * (CONTAINER_WIDTH + 2),
-                    roadStartY + 50 + 8 + (double) (i / cols + 1) * (CONTAINER_HEIGHT + 2),
-                    CONTAINER_WIDTH, CONTAINER_HEIGHT);
-        }
-
         // generate static containers in stable random pattern.
+        int cols = 9;
         gc.setFill(Color.BLUEVIOLET);
         random.setSeed(123);
         for (int i = 0; i < 24 * cols; i++) {
@@ -240,7 +499,7 @@ public class PortCanvas extends Canvas {
                     CONTAINER_WIDTH, CONTAINER_HEIGHT);
         }
 
-        roadStartY = getHeight() - SHIP_HEIGHT * 3 + 10;
+        roadStartY = height - SHIP_HEIGHT * 3 + 10;
 
         gc.setFill(Color.gray(0.2));
         gc.setFill(Color.BLACK);
@@ -253,15 +512,63 @@ public class PortCanvas extends Canvas {
                     lineLength + (i * lineLength), lineY);
             if (random.nextInt(6) == 0) {
                 // truck
-                drawTruck(lineLength / 2 + (i * lineLength), lineY);
+                drawTruck(gc, lineLength / 2 + (i * lineLength), lineY);
             }
         }
+
+        drawQueueLanes(gc, width, height);
+    }
+
+    /* Draws the cargo stored in the middle warehouse, if the amount shown has changed */
+    private void drawWarehouse(int num) {
+        GraphicsContext gc = getGraphicsContext2D();
+        double roadStartY = getDepotRoadY();
+
+        if (num == drawnCargo) {
+            return;
+        }
+        drawnCargo = num;
+
+        int cols = 9;
+        int rows = (int) ((DEPOT_HEIGHT - 8 - CONTAINER_HEIGHT) / (CONTAINER_HEIGHT + 2));
+        beginRegion(220, roadStartY + 50, DEPOT_WIDTH, DEPOT_HEIGHT);
+        if ((long) num * 4 > (long) cols * rows) {
+            // too much cargo to draw individually, show how full the warehouse is instead
+            drawWarehouseSummary(num, roadStartY + 50);
+            endRegion();
+            return;
+        }
+        gc.setFill(Color.FIREBRICK);
+        for (int i = 0; i < num * 4; i++) {
+            gc.fillRect(220 + 8 + (i % cols) * (CONTAINER_WIDTH + 2),
+                    roadStartY + 50 + 8 + (double) (i / cols + 1) * (CONTAINER_HEIGHT + 2),
+                    CONTAINER_WIDTH, CONTAINER_HEIGHT);
+        }
+        endRegion();
+    }
+
+    /*
+     * Draws a heat bar and count for a warehouse holding more cargo than can be drawn. The bar
+     * grows logarithmically so that it stays readable from hundreds to millions of cargo.
+     */
+    private void drawWarehouseSummary(int num, double depotY) {
+        GraphicsContext gc = getGraphicsContext2D();
+        double heat = Math.min(1, Math.log10(num) / Math.log10(WAREHOUSE_HEAT_SCALE));
+        double barHeight = (DEPOT_HEIGHT - 16) * heat;
+
+        gc.setFill(Color.ORANGE.interpolate(Color.FIREBRICK, heat));
+        gc.fillRect(220 + 8, depotY + DEPOT_HEIGHT - 8 - barHeight, DEPOT_WIDTH - 16,
+                barHeight);
+        gc.setFill(Color.BLACK);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setFont(Font.font("monospace", FontWeight.BOLD, 14));
+        gc.fillText(num + " cargo", 220 + DEPOT_WIDTH / 2, depotY + 20);
     }
 
     // draws a truck at the position x,y
-    private void drawTruck(double x, double y) {
+    private void drawTruck(GraphicsContext gc, double x, double y) {
         // truck
-        GraphicsContext gc = getGraphicsContext2D();
         gc.setFill(Color.CHOCOLATE);
         gc.fillRect(x, y, CONTAINER_WIDTH + 10,
                 CONTAINER_HEIGHT * 2);
@@ -283,23 +590,21 @@ public class PortCanvas extends Canvas {
                 y + 2, 6, CONTAINER_HEIGHT * 2 - 4);
     }
 
-    /* Draws the shipQueue */
-    private void drawShipQueue(ShipQueue sq) {
-        final double x = getWidth() - SHIP_WIDTH * 2 + 10;
-        final int capacity = 7;
+    /* Draws the water, dividers and position numbers of the ship queue */
+    private static void drawQueueLanes(GraphicsContext gc, double width, double height) {
+        final double x = width - SHIP_WIDTH * 2 + 10;
 
-        GraphicsContext gc = getGraphicsContext2D();
         gc.setFill(Color.ROYALBLUE);
-        gc.fillRect(getWidth() - SHIP_WIDTH * 2 + 12, 0, getWidth() - SHIP_WIDTH * 2 + 12,
-                getHeight());
+        gc.fillRect(width - SHIP_WIDTH * 2 + 12, 0, width - SHIP_WIDTH * 2 + 12,
+                height);
         // vertical line
         gc.setFill(Color.BLACK);
-        gc.fillRect(getWidth() - SHIP_WIDTH * 2 + 10, 0, 2, getHeight());
+        gc.fillRect(width - SHIP_WIDTH * 2 + 10, 0, 2, height);
 
         // markers
-        final double lineLength = SHIP_HEIGHT + 12;
-        final double pad = 10;
-        for (int i = 0; i < ((getHeight()) - lineLength - SHIP_HEIGHT) / lineLength + 1; ++i) {
+        final double lineLength = QUEUE_SLOT_HEIGHT;
+        final double pad = QUEUE_PAD;
+        for (int i = 0; i < ((height) - lineLength - SHIP_HEIGHT) / lineLength + 1; ++i) {
             // Horizontal Lines
             gc.setFill(Color.BLACK);
             gc.fillRect(x, pad + 5 + i * lineLength, SHIP_WIDTH * 2 + 10,
@@ -314,15 +619,85 @@ public class PortCanvas extends Canvas {
                     (i + 1) * lineLength);
         }
         gc.setFill(Color.BLACK);
-        gc.fillRect(x, getHeight() - pad - 5, SHIP_WIDTH * 2 + 10,
+        gc.fillRect(x, height - pad - 5, SHIP_WIDTH * 2 + 10,
                 2);
-        // draw ships
-        for (int j = 0; j < capacity && j < sq.getShipQueue().size(); j++) {
-            drawShip(sq.getShipQueue().get(j), x + SHIP_WIDTH / 3,
-                    pad + 12 + j * lineLength, true);
+    }
+
+    /* Draws the ships waiting in the shipQueue, repainting only the positions that changed */
+    private void drawShipQueue(ShipQueue sq, Ship selected) {
+        final double x = getWidth() - SHIP_WIDTH * 2 + 10;
+
+        // when more ships wait than fit, the last position summarises the rest of the queue
+        boolean summarise = sq.size() > QUEUE_CAPACITY;
+        int shown = summarise ? QUEUE_CAPACITY - 1 : QUEUE_CAPACITY;
+        List<Ship> ships = sq.getShipQueue(shown);
+        if (summarise) {
+            drawQueueSummary(sq, x, QUEUE_PAD + 12 + shown * QUEUE_SLOT_HEIGHT, shown);
+        }
+        for (int j = 0; j < shown; j++) {
+            Ship ship = j < ships.size() ? ships.get(j) : null;
+            int state = getShipState(ship, selected);
+            if (ship == drawnQueueShips[j] && state == drawnQueueStates[j]) {
+                continue;
+            }
+            drawnQueueShips[j] = ship;
+            drawnQueueStates[j] = state;
+
+            double y = QUEUE_PAD + 12 + j * QUEUE_SLOT_HEIGHT;
+            queueRegions[j] = replaceRegion(queueRegions[j], ship, x + SHIP_WIDTH / 3, y);
+            beginRegion(x + 2, y, getWidth() - x - 2, SHIP_HEIGHT);
+            if (ship != null) {
+                drawShip(ship, x + SHIP_WIDTH / 3, y, true);
+            }
+            endRegion();
         }
     }
 
+    /*
+     * Draws the number of ships waiting beyond the visible positions and a histogram of the
+     * flags flown by every waiting ship, in the queue position at the given y-coordinate.
+     */
+    private void drawQueueSummary(ShipQueue sq, double x, double y, int slot) {
+        int[] counts = new int[FLAG_COLOURS.length];
+        for (NauticalFlag flag : NauticalFlag.values()) {
+            counts[flag.ordinal()] = sq.getFlagCount(flag);
+        }
+        if (drawnQueueStates[slot] == SUMMARY_STATE && drawnQueueSize == sq.size()
+                && Arrays.equals(counts, drawnFlagCounts)) {
+            return;
+        }
+        drawnQueueShips[slot] = null;
+        drawnQueueStates[slot] = SUMMARY_STATE;
+        drawnQueueSize = sq.size();
+        drawnFlagCounts = counts;
+        queueRegions[slot] = replaceRegion(queueRegions[slot], null, x, y);
+
+        GraphicsContext gc = getGraphicsContext2D();
+        beginRegion(x + 2, y, getWidth() - x - 2, SHIP_HEIGHT);
+        gc.setFill(Color.WHITE);
+        gc.setTextBaseline(VPos.TOP);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setFont(Font.font("monospace", FontWeight.BOLD, 12));
+        gc.fillText("+" + (sq.size() - slot) + " more waiting", x + 30, y);
+
+        int max = 1;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        double barX = x + 30;
+        double barWidth = getWidth() - barX - 60;
+        gc.setFont(Font.font("monospace", FontWeight.NORMAL, 11));
+        for (NauticalFlag flag : NauticalFlag.values()) {
+            int count = counts[flag.ordinal()];
+            double barY = y + 18 + flag.ordinal() * 15;
+            gc.setFill(FLAG_COLOURS[flag.ordinal()]);
+            gc.fillRect(barX, barY, barWidth * count / max, 11);
+            gc.setFill(Color.WHITE);
+            gc.fillText(flag.name().charAt(0) + " " + count, barX + barWidth + 4, barY - 1);
+        }
+        endRegion();
+    }
+
     /*
      * Draws a ship at the given position on the canvas.
      *
@@ -333,9 +708,6 @@ public class PortCanvas extends Canvas {
     private void drawShip(Ship ship, double x, double y, boolean name) {
         Color textColor = Color.BLACK;
 
-        this.drawnShip.put(new ClickableRegion(x + 10, y, SHIP_WIDTH * 4 / 3, SHIP_HEIGHT),
-                ship);
-
         // hazardous cargo
         if (ship.getFlag() == NauticalFlag.BRAVO) {
             textColor = Color.RED;
@@ -408,21 +780,62 @@ public class PortCanvas extends Canvas {
         }
     }
 
-    /* Draws the quays and their ships */
-    private void drawQuays() {
+    /* Returns how many quays fit along the bottom of the port, left of the ship queue */
+    private int getBottomQuaySlots() {
+        double available = getWidth() - SHIP_WIDTH * 2 + 10 - QUAY_MARGIN;
+        return Math.max(1, (int) (available / QUAY_WIDTH));
+    }
+
+    /* Draws the number of quays that do not fit on the canvas in place of the last quay */
+    private void drawQuaySummary(int hidden, double quayStartX, int slot) {
+        int state = SUMMARY_STATE - hidden;
+        if (drawnQuayStates[slot] == state) {
+            return;
+        }
+        drawnQuayShips[slot] = null;
+        drawnQuayStates[slot] = state;
+        quayRegions[slot] = replaceRegion(quayRegions[slot], null, quayStartX, 0);
+
+        double quayStartY = getHeight() - SHIP_HEIGHT * 3 / 2;
         GraphicsContext gc = getGraphicsContext2D();
-        gc.setFill(Color.MIDNIGHTBLUE);
-        List<Quay> quays = this.viewModel.getPort().getQuays();
-
-        final double quayWidth = SHIP_WIDTH * 5 / 3;
-        final double marginLeft = 5;
-        for (int i = 0; i < quays.size(); i++) {
-            Quay q = quays.get(i);
-            if (i < 4) {
-                double quayStartX = marginLeft + quayWidth * i;
+        beginRegion(quayStartX, quayStartY - 48, QUAY_WIDTH, getHeight());
+        gc.setFill(Color.BLACK);
+        gc.setTextBaseline(VPos.BOTTOM);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setFont(Font.font("monospace", FontWeight.BOLD, 12));
+        gc.fillText(String.format("+%d more quays", hidden),
+                quayStartX + 2 * SHIP_WIDTH / 3 + 10, quayStartY - 30);
+        endRegion();
+    }
+
+    /* Draws the quays and their ships, repainting only the quays that changed */
+    private void drawQuays(Port port, int visibleQuays, Ship selected) {
+        GraphicsContext gc = getGraphicsContext2D();
+
+        final double quayWidth = QUAY_WIDTH;
+        final double marginLeft = QUAY_MARGIN;
+        for (int i = 0; i < visibleQuays; i++) {
+            boolean top = i < 4;
+            double quayStartX = marginLeft + quayWidth * (top ? i : i - 4);
+            if (i == visibleQuays - 1 && visibleQuays < port.getQuayCount()) {
+                drawQuaySummary(port.getQuayCount() - i, quayStartX, i);
+                continue;
+            }
+            Quay q = port.getQuay(i);
+            Ship ship = q.isEmpty() ? null : q.getShip();
+            int state = getShipState(ship, selected);
+            if (ship == drawnQuayShips[i] && state == drawnQuayStates[i]) {
+                continue;
+            }
+            drawnQuayShips[i] = ship;
+            drawnQuayStates[i] = state;
+
+            if (top) {
                 double quayStartY = SHIP_HEIGHT / 3;
-                if (!q.isEmpty()) {
-                    drawShip(q.getShip(), quayStartX, quayStartY, true);
+                quayRegions[i] = replaceRegion(quayRegions[i], ship, quayStartX, quayStartY);
+                beginRegion(quayStartX, 0, quayWidth, quayStartY + SHIP_HEIGHT + 52);
+                if (ship != null) {
+                    drawShip(ship, quayStartX, quayStartY, true);
                 }
                 for (int j = 0; j < 2; j++) {
                     gc.setFill(Color.MIDNIGHTBLUE);
@@ -432,16 +845,20 @@ public class PortCanvas extends Canvas {
                     gc.fillRect(x + 6, y - 20, 4, 22);
                 }
                 gc.setFill(Color.BLACK);
+                gc.setTextBaseline(VPos.BOTTOM);
                 gc.setTextAlign(TextAlignment.CENTER);
                 gc.setFont(Font.font("monospace", FontWeight.NORMAL, 12));
                 gc.fillText(String.format("%s: %d", q.getClass().getSimpleName(), q.getId()),
                         quayStartX + 2 * SHIP_WIDTH / 3 + 10,
                         quayStartY + SHIP_HEIGHT + 50);
+                endRegion();
             } else {
-                double quayStartX = marginLeft + quayWidth * (i - 4);
                 double quayStartY = getHeight() - SHIP_HEIGHT * 3 / 2;
-                if (!q.isEmpty()) {
-                    drawShip(q.getShip(), quayStartX, getHeight() - SHIP_HEIGHT * 4 / 3, true);
+                double shipY = getHeight() - SHIP_HEIGHT * 4 / 3;
+                quayRegions[i] = replaceRegion(quayRegions[i], ship, quayStartX, shipY);
+                beginRegion(quayStartX, quayStartY - 48, quayWidth, getHeight());
+                if (ship != null) {
+                    drawShip(ship, quayStartX, shipY, true);
                 }
                 for (int j = 0; j < 2; j++) {
                     gc.setFill(Color.MIDNIGHTBLUE);
@@ -451,13 +868,14 @@ public class PortCanvas extends Canvas {
                     gc.fillRect(x + 6, y + 25, 4, 22);
                 }
                 gc.setFill(Color.BLACK);
+                gc.setTextBaseline(VPos.BOTTOM);
                 gc.setTextAlign(TextAlignment.CENTER);
                 gc.setFont(Font.font("monospace", FontWeight.NORMAL, 12));
                 gc.fillText(String.format("Quay: %d", q.getId()),
                         quayStartX + 2 * SHIP_WIDTH / 3 + 10,
                         quayStartY - 30);
+                endRegion();
             }
-
         }
     }
 
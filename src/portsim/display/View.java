@@ -114,6 +114,10 @@ public class View {
         buttons.getChildren().add(space);
         buttons.getChildren().add(time);
 
+        var timelineBox = new HBox();
+        timelineBox.setPadding(new Insets(0, 10, 10, 10));
+        timelineBox.getChildren().add(createTimeline());
+
         var middleInfoBox = createInfoBox(viewModel.getCargoManifestText(), 10);
         var scroll = new ScrollPane();
         scroll.setContent(middleInfoBox);
@@ -124,6 +128,7 @@ public class View {
         var topInfoBox = createInfoBox(viewModel.getShipInfoText(), 8);
         leftPanel.getChildren().add(topInfoBox);
         leftPanel.getChildren().add(buttons);
+        leftPanel.getChildren().add(timelineBox);
         leftPanel.getChildren().add(scroll);
         leftPanel.getChildren().add(space);
         var bottomInfoBox = createInfoBox(viewModel.getEvaluatorsText(), 11);
@@ -143,6 +148,34 @@ public class View {
         return pane;
     }
 
+    /*
+     * Creates a slider showing the current minute of the simulation, which can be dragged back
+     * to any earlier minute to see the port as it was then
+     */
+    private Slider createTimeline() {
+        var slider = new Slider(viewModel.getStartTime().get(), viewModel.getLatestTime().get(),
+                viewModel.getCurrentTime().get());
+        slider.setBlockIncrement(1);
+        slider.setPrefWidth(380);
+        slider.minProperty().bind(viewModel.getStartTime());
+        slider.maxProperty().bind(viewModel.getLatestTime());
+        // disabled until there is some history to seek through
+        slider.disableProperty().bind(viewModel.getLatestTime().isEqualTo(
+                viewModel.getStartTime()));
+        viewModel.getCurrentTime().addListener((observable, oldValue, newValue) ->
+                slider.setValue(newValue.doubleValue()));
+        slider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            long minute = Math.round(newValue.doubleValue());
+            if (minute != viewModel.getCurrentTime().get()) {
+                if (!viewModel.getPaused().get()) {
+                    viewModel.togglePaused();
+                }
+                viewModel.seek(minute);
+            }
+        });
+        return slider;
+    }
+
     /* Creates a menu bar that allows actions to be taken within the GUI */
     private MenuBar createMenuBar() {
         MenuBar menuBar = new MenuBar();
@@ -194,6 +227,7 @@ public class View {
         evaluators.getItems().add(createAddEvaluatorMenu("ShipThroughputEvaluator"));
         evaluators.getItems().add(createAddEvaluatorMenu("ShipFlagEvaluator"));
         evaluators.getItems().add(createAddEvaluatorMenu("CargoDecompositionEvaluator"));
+        evaluators.getItems().add(createAddEvaluatorMenu("QueueingEstimator"));
 
         Menu menuActions = new Menu("_Actions");
         menuActions.setMnemonicParsing(true);
@@ -326,7 +360,7 @@ public class View {
                 Quay q = ((Quay) choice.get());
                 // if another ship has docked since choice was made (if sim is running)
                 if (q.isEmpty()) {
-                    q.shipArrives(newShip);
+                    viewModel.getTimeline().dockShip(newShip, q);
                 } else {
                     viewModel.createErrorDialog("Cannot add ship to Quay",
                             "Since selecting that Quay (" + q.toString() + ") it has become occupied. "
@@ -355,7 +389,7 @@ public class View {
                 return;
             }
 
-            var defaultCargoNumber = 1 + Cargo.getCargoRegistry().size();
+            var defaultCargoNumber = 1 + Cargo.getCargoCount();
             var cargoId = getResponse("Add Cargo",
                     "Please enter the cargo ID",
                     "cargo ID:",
@@ -486,7 +520,7 @@ public class View {
                 } else {
                     newMovement = ShipMovement.fromString​(encoding.get());
                 }
-                viewModel.getPort().addMovement​(newMovement);
+                viewModel.getTimeline().addMovement(newMovement);
             } catch (Exception exception) {
                 viewModel.createErrorDialog("Error creating movement",
                         exception.getMessage());
@@ -516,6 +550,9 @@ public class View {
                 case "ShipFlagEvaluator":
                     ev = new ShipFlagEvaluator();
                     break;
+                case "QueueingEstimator":
+                    ev = new QueueingEstimator(viewModel.getPort());
+                    break;
                 default:
                     return;
             }
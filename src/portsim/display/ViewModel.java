@@ -8,7 +8,9 @@ import javafx.scene.control.Alert;
 import portsim.cargo.BulkCargoType;
 import portsim.cargo.Cargo;
 import portsim.evaluators.*;
+import portsim.port.LocationIndex;
 import portsim.port.Port;
+import portsim.port.PortTimeline;
 import portsim.ship.BulkCarrier;
 import portsim.ship.ContainerShip;
 import portsim.ship.Ship;
@@ -30,11 +32,47 @@ import java.util.stream.Collectors;
  * @ass2
  */
 public class ViewModel {
+    /**
+     * Two-digit text of the numbers 0 to 59, used to build the time label without a formatter
+     */
+    private static final String[] TWO_DIGITS = new String[60];
+
+    static {
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = (i < 10 ? "0" : "") + i;
+        }
+    }
+
+    /**
+     * Memory the port's timeline may use for snapshots and its log of changes, in bytes
+     */
+    private static final long TIMELINE_BUDGET = 64L * 1024 * 1024;
+
     /**
      * Port  model containing ships and quays
      */
     private final Port port;
 
+    /**
+     * History of the port, which the view can seek back and forth through
+     */
+    private final PortTimeline timeline;
+
+    /**
+     * Minute of the port's history currently shown
+     */
+    private final LongProperty currentTime = new SimpleLongProperty();
+
+    /**
+     * Latest minute the port has been simulated to
+     */
+    private final LongProperty latestTime = new SimpleLongProperty();
+
+    /**
+     * Earliest minute of the port's history the view can seek back to
+     */
+    private final LongProperty startTime = new SimpleLongProperty();
+
     /**
      * Whether the state of the model has changed
      */
@@ -113,6 +151,11 @@ public class ViewModel {
 
         this.numQuays.set(port.getQuays().size());
 
+        this.timeline = new PortTimeline(port, TIMELINE_BUDGET);
+        this.currentTime.set(port.getTime());
+        this.latestTime.set(port.getTime());
+        this.startTime.set(timeline.getStartTime());
+
         this.selectedShip.addListener((observable, oldValue, newValue) -> {
             if (newValue == null) {
                 shipInfoText.set("No ship selected");
@@ -296,14 +339,48 @@ public class ViewModel {
         return port;
     }
 
+    /**
+     * Returns the timeline recording the port's history. Changes made to the port while the
+     * simulation runs should be made through the timeline, so that they are kept when seeking.
+     *
+     * @return timeline of the port
+     */
+    public PortTimeline getTimeline() {
+        return timeline;
+    }
+
     /**
      * Elapses one minute in the model and updates the state of the GUI.
      *
      * @given
      */
     public void elapseOneMinute() throws NoSuchCargoException {
-        port.elapseOneMinute();
-        timeText.set(String.format("Time: %02d:%02d", port.getTime() / 60, port.getTime() % 60));
+        timeline.elapseOneMinute();
+        latestTime.set(timeline.getLatestTime());
+        startTime.set(timeline.getStartTime());
+        timeChanged();
+    }
+
+    /**
+     * Takes the port back, or forward, to the given minute of the simulation so far, and
+     * updates the view to show it. Unpausing the simulation carries on from that minute,
+     * discarding what happened after it.
+     *
+     * @param time minute to show
+     * @throws IllegalArgumentException if time is before the start of the port's history or
+     *                                  after the latest minute simulated
+     */
+    public void seek(long time) throws IllegalArgumentException {
+        timeline.seek(time);
+        timeChanged();
+    }
+
+    /* Updates the time label, evaluators and selected ship after the port's time changes */
+    private void timeChanged() {
+        currentTime.set(port.getTime());
+        long hours = port.getTime() / 60;
+        timeText.set("Time: " + (hours < 60 ? TWO_DIGITS[(int) hours] : String.valueOf(hours))
+                + ":" + TWO_DIGITS[(int) (port.getTime() % 60)]);
         updateEvaluatorText();
         if (selectedShip.isNotNull().get()) {
             this.shipInfoText.set(generateShipInfoText(selectedShip.get()));
@@ -320,6 +397,7 @@ public class ViewModel {
         lineJoiner.add("IMO number:\t" + ship.getImoNumber());
         lineJoiner.add("Nautical Flag: \t" + ship.getFlag());
         lineJoiner.add("Port of origin:\t" + ship.getOriginFlag());
+        lineJoiner.add("Location:\t\t" + describeLocation(ship));
         if (ship instanceof BulkCarrier) {
             BulkCargo c = ((BulkCarrier) ship).getCargo();
             lineJoiner.add("Carrying:      \t" + (c == null ? "Nothing" : c.getType()));
@@ -330,6 +408,18 @@ public class ViewModel {
         return lineJoiner.toString();
     }
 
+    /* Describes where the given ship is, looked up in the port's location index */
+    private String describeLocation(Ship ship) {
+        int location = port.getLocationIndex().getShipLocation(ship.getImoNumber());
+        if (location == LocationIndex.QUEUED) {
+            return "Waiting in queue";
+        }
+        if (location == LocationIndex.AT_SEA) {
+            return "At sea";
+        }
+        return "Docked at quay " + port.getQuays().get(location).getId();
+    }
+
     /**
      * Toggles whether the simulation is paused.
      *
@@ -467,6 +557,35 @@ public class ViewModel {
         return numQuays;
     }
 
+    /**
+     * Returns the property storing the minute of the simulation currently shown.
+     *
+     * @return current time property
+     */
+    public LongProperty getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Returns the property storing the latest minute the simulation has reached, the furthest
+     * the view can seek forward to.
+     *
+     * @return latest time property
+     */
+    public LongProperty getLatestTime() {
+        return latestTime;
+    }
+
+    /**
+     * Returns the property storing the earliest minute of the simulation the view can seek
+     * back to, which moves on once the history no longer fits in memory.
+     *
+     * @return start time property
+     */
+    public LongProperty getStartTime() {
+        return startTime;
+    }
+
     /**
      * Returns the property storing the currently selected ships; or null if no
      * ship is selected.
@@ -11,57 +11,95 @@ import portsim.ship.NauticalFlag;
 import portsim.ship.Ship;
 import portsim.util.Tickable;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class CargoDecompositionEvaluator extends StatisticsEvaluator implements Tickable {
 
     /**
-     *Returns the distribution of which cargo types that have entered the port.
+     * Name of the container class in the cargo distribution
      */
-    private Map<String,Integer> cargoMap;
+    private static final String CONTAINER = "Container";
+
     /**
-     * Returns the distribution of bulk cargo types that have entered the port.
+     * Name of the bulk cargo class in the cargo distribution
      */
-    private Map<BulkCargoType,Integer> bulkCargoType;
+    private static final String BULK_CARGO = "BulkCargo";
+
     /**
-     * Returns the distribution of container cargo types that have entered the port.
+     * Number of containers that have entered the port
+     */
+    private int containers;
+
+    /**
+     * Number of pieces of bulk cargo that have entered the port
      */
-    private Map<ContainerType,Integer> containerType;
+    private int bulkCargo;
+
+    /**
+     * Number of pieces of bulk cargo of each type that have entered the port, by type ordinal
+     */
+    private final int[] bulkCargoTypes = new int[BulkCargoType.values().length];
+
+    /**
+     * Number of containers of each type that have entered the port, by type ordinal
+     */
+    private final int[] containerTypes = new int[ContainerType.values().length];
 
     /**
      * Constructs a new CargoDecompositionEvaluator.
      */
     public CargoDecompositionEvaluator() {
         super();
-        cargoMap = new HashMap<>();
-        bulkCargoType = new HashMap<>();
-        containerType = new HashMap<>();
     }
 
     /**
      * Returns the distribution of which cargo types that have entered the port.
+     * <p>
+     * The map is built on each call from counts kept by the evaluator, so changing it does not
+     * affect the evaluator.
      * @return cargo distribution map
      */
     public Map<String,Integer> getCargoDistribution(){
+        Map<String, Integer> cargoMap = new HashMap<>();
+        if (containers > 0) {
+            cargoMap.put(CONTAINER, containers);
+        }
+        if (bulkCargo > 0) {
+            cargoMap.put(BULK_CARGO, bulkCargo);
+        }
         return cargoMap;
     }
 
     /**
      * Returns the distribution of bulk cargo types that have entered the port.
+     * <p>
+     * The map is built on each call, as for {@link #getCargoDistribution()}.
      * @return bulk cargo distribution map
      */
     public Map<BulkCargoType,Integer> getBulkCargoDistribution(){
+        Map<BulkCargoType, Integer> bulkCargoType = new HashMap<>();
+        for (BulkCargoType type : BulkCargoType.values()) {
+            if (bulkCargoTypes[type.ordinal()] > 0) {
+                bulkCargoType.put(type, bulkCargoTypes[type.ordinal()]);
+            }
+        }
         return bulkCargoType;
     }
 
     /**
      * Returns the distribution of container cargo types that have entered the port.
+     * <p>
+     * The map is built on each call, as for {@link #getCargoDistribution()}.
      * @return container distribution map
      */
     public  Map<ContainerType,Integer> getContainerDistribution(){
+        Map<ContainerType, Integer> containerType = new HashMap<>();
+        for (ContainerType type : ContainerType.values()) {
+            if (containerTypes[type.ordinal()] > 0) {
+                containerType.put(type, containerTypes[type.ordinal()]);
+            }
+        }
         return containerType;
     }
 
@@ -92,80 +130,38 @@ public class CargoDecompositionEvaluator extends StatisticsEvaluator implements
 
     @Override
     public void onProcessMovement​(Movement movement) {
-        if(movement.getDirection().equals(MovementDirection.INBOUND)){
-            if(movement instanceof ShipMovement){
-                Ship ship = ((ShipMovement)movement).getShip();
-                if(ship instanceof BulkCarrier){
-                    BulkCargo cargo = ((BulkCarrier)ship).getCargo();
-                    if(cargoMap.containsKey("BulkCargo")){
-                        cargoMap.put("BulkCargo", cargoMap.get("BulkCargo") + 1);
-                    }else{
-                        cargoMap.put("BulkCargo",1);
-                    }
-                    if(bulkCargoType.containsKey(cargo.getType())){
-                        bulkCargoType.put(cargo.getType(), bulkCargoType.get(cargo.getType()) + 1);
-                    }else{
-                        bulkCargoType.put(cargo.getType(), 1);
-                    }
-
-                }else if(ship instanceof ContainerShip){
-                   List<Container> containerList = new ArrayList<>(((ContainerShip)ship).getCargo());
-                   for(int i = 0; i < containerList.size(); i++){
-                       if(cargoMap.containsKey("Container")){
-                           cargoMap.put("Container", cargoMap.get("Container") + 1);
-
-                       }else{
-                           cargoMap.put("Container",1);
-                       }
-                       if(containerType.containsKey(containerList.get(i).getType())){
-                           containerType.put(containerList.get(i).getType(),
-                                   containerType.get(containerList.get(i).getType()) + 1);
-                       }else{
-                           containerType.put(containerList.get(i).getType(), 1);
-                       }
-                   }
-
+        if (!movement.getDirection().equals(MovementDirection.INBOUND)) {
+            return;
+        }
+        if (movement instanceof ShipMovement) {
+            Ship ship = ((ShipMovement) movement).getShip();
+            if (ship instanceof BulkCarrier) {
+                BulkCargo cargo = ((BulkCarrier) ship).getCargo();
+                if (cargo != null) {
+                    count(cargo);
                 }
-
-            }
-            else if(movement instanceof CargoMovement){
-                List<Cargo>cargoList = new ArrayList<>(((CargoMovement)movement).getCargo());
-                for(int i = 0; i < cargoList.size(); i++){
-                    if(cargoList.get(i) instanceof BulkCargo){
-                        BulkCargo bulkCargo = (BulkCargo)(cargoList.get(i));
-                        if(cargoMap.containsKey("BulkCargo")){
-                            cargoMap.put("BulkCargo", cargoMap.get("BulkCargo") + 1);
-                        }else{
-                            cargoMap.put("BulkCargo",1);
-                        }
-                        if(bulkCargoType.containsKey(bulkCargo.getType())){
-                            bulkCargoType.put(bulkCargo.getType(), bulkCargoType.get(bulkCargo.getType()) + 1);
-                        }else{
-                            bulkCargoType.put(bulkCargo.getType(), 1);
-                        }
-                    }
-                    else if(cargoList.get(i) instanceof Container){
-                        Container container = (Container)(cargoList.get(i));
-                        if(cargoMap.containsKey("Container")){
-                            cargoMap.put("Container", cargoMap.get("Container") + 1);
-
-                        }else{
-                            cargoMap.put("Container",1);
-                        }
-                        if(containerType.containsKey(container.getType())){
-                            containerType.put(container.getType(),
-                                    containerType.get(container.getType()) + 1);
-                        }else{
-                            containerType.put(container.getType(), 1);
-                        }
-
-
-                    }
-
-
+            } else if (ship instanceof ContainerShip) {
+                ContainerShip containerShip = (ContainerShip) ship;
+                for (int i = 0; i < containerShip.getCargoCount(); i++) {
+                    count(containerShip.getCargo(i));
                 }
             }
+        } else if (movement instanceof CargoMovement) {
+            CargoMovement cargoMovement = (CargoMovement) movement;
+            for (int i = 0; i < cargoMovement.getCargoCount(); i++) {
+                count(cargoMovement.getCargo(i));
+            }
         }
+    }
 
+    /* Counts one more piece of the given cargo's class and type */
+    private void count(Cargo cargo) {
+        if (cargo instanceof BulkCargo) {
+            bulkCargo++;
+            bulkCargoTypes[((BulkCargo) cargo).getType().ordinal()]++;
+        } else if (cargo instanceof Container) {
+            containers++;
+            containerTypes[((Container) cargo).getType().ordinal()]++;
+        }
     }
 }
@@ -31,8 +31,8 @@ public class QuayOccupancyEvaluator extends StatisticsEvaluator implements Ticka
 
     public int getQuaysOccupied(){
         int occupied = 0;
-        for (int i =0; i<port.getQuays().size(); i++){
-            if(!port.getQuays().get(i).isEmpty()){
+        for (int i = 0; i < port.getQuayCount(); i++){
+            if(!port.getQuay(i).isEmpty()){
                 occupied++;
             }
         }
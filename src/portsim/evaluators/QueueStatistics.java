@@ -0,0 +1,91 @@
+package portsim.evaluators;
+
+/**
+ * Queue and berth statistics for one class of ship at a port: how many ships wait for a quay
+ * on average, how long they wait, and how busy the quays they can dock at are.
+ * <p>
+ * Estimates for a port whose ships arrive faster than its quays can take them have an
+ * infinite queue length and waiting time.
+ */
+public final class QueueStatistics {
+
+    /**
+     * Mean number of ships waiting to dock
+     */
+    private final double queueLength;
+
+    /**
+     * Mean time from a ship arriving to it docking, in minutes
+     */
+    private final double waitingTime;
+
+    /**
+     * Mean fraction of the quays that are occupied
+     */
+    private final double utilisation;
+
+    /**
+     * Creates a new set of queue statistics.
+     *
+     * @param queueLength mean number of ships waiting to dock
+     * @param waitingTime mean time from a ship arriving to it docking, in minutes
+     * @param utilisation mean fraction of the quays that are occupied
+     */
+    public QueueStatistics(double queueLength, double waitingTime, double utilisation) {
+        this.queueLength = queueLength;
+        this.waitingTime = waitingTime;
+        this.utilisation = utilisation;
+    }
+
+    /**
+     * Returns the mean number of ships waiting to dock.
+     *
+     * @return mean queue length
+     */
+    public double getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * Returns the mean time from a ship arriving at the port to it docking at a quay.
+     *
+     * @return mean waiting time, in minutes
+     */
+    public double getWaitingTime() {
+        return waitingTime;
+    }
+
+    /**
+     * Returns the mean fraction of the quays that are occupied, between 0 and 1.
+     *
+     * @return quay utilisation
+     */
+    public double getUtilisation() {
+        return utilisation;
+    }
+
+    /**
+     * Returns the difference between these statistics and the given ones, each statistic of
+     * the other being subtracted from the same statistic of this.
+     *
+     * @param other statistics to subtract
+     * @return difference between the statistics
+     */
+    public QueueStatistics minus(QueueStatistics other) {
+        return new QueueStatistics(queueLength - other.queueLength,
+                waitingTime - other.waitingTime, utilisation - other.utilisation);
+    }
+
+    /**
+     * Returns the human-readable string representation of these statistics.
+     * <p>
+     * For example: <pre>queue 1.25 ships, wait 14.5 minutes, utilisation 63%</pre>
+     *
+     * @return string representation of these statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("queue %.2f ships, wait %.1f minutes, utilisation %.0f%%",
+                queueLength, waitingTime, utilisation * 100);
+    }
+}
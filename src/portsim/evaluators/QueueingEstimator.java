@@ -0,0 +1,423 @@
+package portsim.evaluators;
+
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.BulkQuay;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.Ship;
+import portsim.util.Tickable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Estimates the queue length, waiting time and quay utilisation of each class of ship at a
+ * port straight from its quays and movement schedule, without simulating it, and measures how
+ * far the estimates are from what the simulation then does.
+ * <p>
+ * The estimates are made when the estimator is created. For each class of ship, the arrival
+ * rate and the mean time a ship stays, from arriving to leaving, are read from the port's
+ * scheduled ship movements. The quays a class can dock at are modelled as an M/G/c queue,
+ * whose servers are the quays that every ship of the class scheduled to arrive can dock at, as
+ * the ships are loaded when the estimate is made. Quays too small for some of those ships are
+ * left out, both from the estimates and from the simulated utilisation, as are quays added to
+ * the port afterwards. The queue's waiting time is approximated by the Erlang C formula scaled
+ * by the Allen-Cunneen factor for how much stays vary. The port docks at most one ship every
+ * {@value #DOCKING_INTERVAL} minutes, so all classes also share a docking slot, modelled as an
+ * M/D/1 queue, and a ship arriving between docking minutes waits for the next one. Ships are
+ * unloaded in the minute they dock, since every docking minute is also an unloading minute, so
+ * unloading adds nothing. Mean queue lengths then follow from Little's law.
+ * <p>
+ * Added to the port as a statistics evaluator, the estimator also measures the same statistics
+ * as the port is simulated, so {@link #getDivergence(Class)} shows how far the estimates are
+ * off. The models assume ships stay at a quay for their whole stay, while ships in the
+ * simulation leave at their scheduled time however long they waited, so estimates overstate
+ * utilisation once waits become a large part of a stay. They also ignore a ship at the front
+ * of the queue holding up ships of the other class behind it.
+ */
+public class QueueingEstimator extends StatisticsEvaluator implements Tickable {
+
+    /**
+     * Minutes between the port docking ships from its queue, see Port.elapseOneMinute
+     */
+    public static final int DOCKING_INTERVAL = 10;
+
+    /**
+     * Index of the statistics of bulk carriers and bulk quays
+     */
+    private static final int BULK = 0;
+
+    /**
+     * Index of the statistics of container ships and container quays
+     */
+    private static final int CONTAINER = 1;
+
+    /**
+     * Number of classes of ship
+     */
+    private static final int CLASSES = 2;
+
+    /**
+     * Port being estimated and measured
+     */
+    private final Port port;
+
+    /**
+     * Estimated statistics of each class of ship
+     */
+    private final QueueStatistics[] estimates = new QueueStatistics[CLASSES];
+
+    /**
+     * Whether the quay at each position in the port is counted as a server of its class
+     */
+    private final boolean[] servers;
+
+    /**
+     * Time each ship waiting to dock arrived, by IMO number
+     */
+    private final Map<Long, Long> waitingSince = new HashMap<>();
+
+    /**
+     * Number of ships of each class waiting to dock
+     */
+    private final int[] waiting = new int[CLASSES];
+
+    /**
+     * Sum over every minute of the number of ships of each class waiting to dock
+     */
+    private final long[] queueMinutes = new long[CLASSES];
+
+    /**
+     * Number of ships of each class seen to dock after arriving
+     */
+    private final long[] docked = new long[CLASSES];
+
+    /**
+     * Total time ships of each class waited from arriving to docking, in minutes
+     */
+    private final long[] totalWait = new long[CLASSES];
+
+    /**
+     * Sum over every minute of the number of quays counted as servers of each class
+     */
+    private final long[] quayMinutes = new long[CLASSES];
+
+    /**
+     * Sum over every minute of the number of occupied quays counted as servers of each class
+     */
+    private final long[] occupiedMinutes = new long[CLASSES];
+
+    /**
+     * Creates a new estimator for the given port, estimating its statistics from its quays and
+     * the ship movements currently scheduled.
+     *
+     * @param port port to estimate
+     */
+    public QueueingEstimator(Port port) {
+        super();
+        this.port = port;
+
+        Map<Long, Visits> visits = new HashMap<>();
+        long horizon = 1;
+        for (Movement movement : port.getMovements()) {
+            horizon = Math.max(horizon, movement.getTime() - port.getTime());
+            if (movement instanceof ShipMovement) {
+                Ship ship = ((ShipMovement) movement).getShip();
+                visits.computeIfAbsent(ship.getImoNumber(), imo -> new Visits(ship))
+                        .add(movement);
+            }
+        }
+        int[] quays = new int[CLASSES];
+        servers = new boolean[port.getQuayCount()];
+        for (int i = 0; i < servers.length; i++) {
+            servers[i] = canDockAll(port.getQuay(i), visits);
+            if (servers[i]) {
+                quays[classOf(port.getQuay(i))]++;
+            }
+        }
+        long[] arrivals = new long[CLASSES];
+        long[] stays = new long[CLASSES];
+        long[] stayTime = new long[CLASSES];
+        double[] staySquares = new double[CLASSES];
+        for (Visits ship : visits.values()) {
+            arrivals[ship.type] += ship.arrivals;
+            int shipStays = ship.getStays();
+            if (shipStays > 0) {
+                // exact for ships that call once, the mean stay of ships that call again
+                double meanStay = (double) ship.getStayTime() / shipStays;
+                stays[ship.type] += shipStays;
+                stayTime[ship.type] += ship.getStayTime();
+                staySquares[ship.type] += meanStay * meanStay * shipStays;
+            }
+        }
+
+        double totalRate = (double) (arrivals[BULK] + arrivals[CONTAINER]) / horizon;
+        for (int type = 0; type < CLASSES; type++) {
+            double rate = (double) arrivals[type] / horizon;
+            double stay = stays[type] == 0 ? 0 : (double) stayTime[type] / stays[type];
+            double variation = stay == 0 ? 0
+                    : staySquares[type] / stays[type] / (stay * stay) - 1;
+            estimates[type] = estimate(rate, stay, variation, quays[type], totalRate);
+        }
+    }
+
+    /**
+     * Returns the estimated statistics of the given class of ship.
+     *
+     * @param type class of ship, {@link BulkCarrier} or {@link ContainerShip}
+     * @return estimated statistics
+     * @throws IllegalArgumentException if there are no statistics for the class
+     */
+    public QueueStatistics getEstimate(Class<? extends Ship> type)
+            throws IllegalArgumentException {
+        return estimates[indexOf(type)];
+    }
+
+    /**
+     * Returns the statistics of the given class of ship measured while the port has been
+     * simulated with this estimator as one of its evaluators. Ships still waiting are counted
+     * in the queue length but not in the waiting time.
+     *
+     * @param type class of ship, {@link BulkCarrier} or {@link ContainerShip}
+     * @return simulated statistics
+     * @throws IllegalArgumentException if there are no statistics for the class
+     */
+    public QueueStatistics getSimulated(Class<? extends Ship> type)
+            throws IllegalArgumentException {
+        int index = indexOf(type);
+        long minutes = Math.max(getTime(), 1);
+        return new QueueStatistics((double) queueMinutes[index] / minutes,
+                docked[index] == 0 ? 0 : (double) totalWait[index] / docked[index],
+                quayMinutes[index] == 0 ? 0
+                        : (double) occupiedMinutes[index] / quayMinutes[index]);
+    }
+
+    /**
+     * Returns how far the estimated statistics of the given class of ship are from the
+     * simulated ones, as the estimates minus the simulated statistics.
+     *
+     * @param type class of ship, {@link BulkCarrier} or {@link ContainerShip}
+     * @return estimated minus simulated statistics
+     * @throws IllegalArgumentException if there are no statistics for the class
+     */
+    public QueueStatistics getDivergence(Class<? extends Ship> type)
+            throws IllegalArgumentException {
+        return getEstimate(type).minus(getSimulated(type));
+    }
+
+    /**
+     * Starts timing how long an arriving ship waits to dock.
+     *
+     * @param movement movement to read
+     */
+    @Override
+    public void onProcessMovement(Movement movement) {
+        if (movement instanceof ShipMovement
+                && movement.getDirection() == MovementDirection.INBOUND) {
+            Ship ship = ((ShipMovement) movement).getShip();
+            if (waitingSince.putIfAbsent(ship.getImoNumber(), port.getTime()) == null) {
+                waiting[classOf(ship)]++;
+            }
+        }
+    }
+
+    /**
+     * Simulates a minute passing, adding the port's queue and quays this minute to the
+     * simulated statistics.
+     */
+    @Override
+    public void elapseOneMinute() {
+        super.elapseOneMinute();
+        for (int i = 0; i < port.getQuayCount(); i++) {
+            Quay quay = port.getQuay(i);
+            int type = classOf(quay);
+            boolean server = i < servers.length && servers[i];
+            if (server) {
+                quayMinutes[type]++;
+            }
+            if (quay.isEmpty()) {
+                continue;
+            }
+            if (server) {
+                occupiedMinutes[type]++;
+            }
+            if (waitingSince.isEmpty()) {
+                continue;
+            }
+            Ship ship = quay.getShip();
+            Long arrived = waitingSince.remove(ship.getImoNumber());
+            if (arrived != null) {
+                int shipType = classOf(ship);
+                totalWait[shipType] += port.getTime() - arrived;
+                docked[shipType]++;
+                waiting[shipType]--;
+            }
+        }
+        for (int type = 0; type < CLASSES; type++) {
+            queueMinutes[type] += waiting[type];
+        }
+    }
+
+    /* Returns true if every ship of the quay's class scheduled to arrive can dock at it */
+    private static boolean canDockAll(Quay quay, Map<Long, Visits> visits) {
+        int type = classOf(quay);
+        for (Visits visit : visits.values()) {
+            if (visit.type == type && visit.arrivals > 0 && !visit.ship.canDock(quay)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Estimates the statistics of ships arriving at the given rate per minute and staying the
+     * given mean time, whose squared coefficient of variation is given, with the given number
+     * of quays to dock at, when ships of every class arrive at the port at the given total rate
+     */
+    private static QueueStatistics estimate(double rate, double stay, double variation,
+                                            int quays, double totalRate) {
+        if (rate == 0) {
+            return new QueueStatistics(0, 0, 0);
+        }
+        double load = rate * stay;
+        double dockingLoad = totalRate * DOCKING_INTERVAL;
+        if (load >= quays || dockingLoad >= 1) {
+            // ships arrive faster than they can dock, so the queue grows without bound
+            return new QueueStatistics(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    quays == 0 ? 0 : 1);
+        }
+        // a ship arriving in any of the minutes up to the next docking minute waits for it
+        double cadenceWait = (DOCKING_INTERVAL + 1) / 2.0;
+        double dockingWait = dockingLoad * DOCKING_INTERVAL / (2 * (1 - dockingLoad));
+        // Poisson arrivals, so only the variation of stays scales the M/M/c wait
+        double quayWait = erlangC(quays, load) * stay / (quays - load)
+                * (1 + Math.max(variation, 0)) / 2;
+        double wait = cadenceWait + dockingWait + quayWait;
+        return new QueueStatistics(rate * wait, wait, load / quays);
+    }
+
+    /*
+     * Returns the probability that a ship arriving at the given number of quays, offered the
+     * given load, has to wait, by the Erlang C formula. Built from the Erlang B recurrence, so
+     * no factorials or powers overflow however many quays there are.
+     */
+    private static double erlangC(int quays, double load) {
+        double blocking = 1;
+        for (int n = 1; n <= quays; n++) {
+            blocking = load * blocking / (n + load * blocking);
+        }
+        double utilisation = load / quays;
+        return blocking / (1 - utilisation * (1 - blocking));
+    }
+
+    /* Returns the index of the statistics of the given class of ship */
+    private static int indexOf(Class<? extends Ship> type) throws IllegalArgumentException {
+        if (BulkCarrier.class.isAssignableFrom(type)) {
+            return BULK;
+        }
+        if (ContainerShip.class.isAssignableFrom(type)) {
+            return CONTAINER;
+        }
+        throw new IllegalArgumentException("No statistics for " + type.getSimpleName());
+    }
+
+    /* Returns the index of the statistics of the given ship */
+    private static int classOf(Ship ship) {
+        return ship instanceof BulkCarrier ? BULK : CONTAINER;
+    }
+
+    /* Returns the index of the statistics of ships that can dock at the given quay */
+    private static int classOf(Quay quay) {
+        return quay instanceof BulkQuay ? BULK : CONTAINER;
+    }
+
+    /*
+     * The scheduled arrivals and departures of one ship. A ship's movements are assumed to
+     * alternate between arriving and leaving, so its stays add up to the sum of its departure
+     * times less the sum of its arrival times, once a departure before its first arrival and
+     * an arrival after its last departure are left out. That needs no sorting of the schedule.
+     */
+    private static final class Visits {
+
+        /**
+         * Ship making the visits
+         */
+        final Ship ship;
+
+        /**
+         * Index of the statistics of the ship
+         */
+        final int type;
+
+        /**
+         * Number of scheduled arrivals and departures
+         */
+        int arrivals;
+        int departures;
+
+        /**
+         * Sums of the scheduled arrival and departure times
+         */
+        long arrivalTimes;
+        long departureTimes;
+
+        /**
+         * Earliest and latest scheduled arrival and departure times
+         */
+        long firstArrival = Long.MAX_VALUE;
+        long lastArrival = Long.MIN_VALUE;
+        long firstDeparture = Long.MAX_VALUE;
+        long lastDeparture = Long.MIN_VALUE;
+
+        Visits(Ship ship) {
+            this.ship = ship;
+            this.type = classOf(ship);
+        }
+
+        /* Adds a scheduled movement of the ship */
+        void add(Movement movement) {
+            long time = movement.getTime();
+            if (movement.getDirection() == MovementDirection.INBOUND) {
+                arrivals++;
+                arrivalTimes += time;
+                firstArrival = Math.min(firstArrival, time);
+                lastArrival = Math.max(lastArrival, time);
+            } else {
+                departures++;
+                departureTimes += time;
+                firstDeparture = Math.min(firstDeparture, time);
+                lastDeparture = Math.max(lastDeparture, time);
+            }
+        }
+
+        /* Returns true if the ship leaves before it first arrives, having been at the port */
+        private boolean leavesFirst() {
+            return departures > 0 && firstDeparture < firstArrival;
+        }
+
+        /* Returns true if the ship arrives after it last leaves, and stays past the schedule */
+        private boolean arrivesLast() {
+            return arrivals > 0 && lastArrival > lastDeparture;
+        }
+
+        /* Returns the number of stays that both start and end within the schedule */
+        int getStays() {
+            int stays = arrivals - (arrivesLast() ? 1 : 0);
+            return stays == departures - (leavesFirst() ? 1 : 0) ? Math.max(stays, 0) : 0;
+        }
+
+        /* Returns the total length of the stays that start and end within the schedule */
+        long getStayTime() {
+            if (getStays() == 0) {
+                return 0;
+            }
+            long arrived = arrivalTimes - (arrivesLast() ? lastArrival : 0);
+            long left = departureTimes - (leavesFirst() ? firstDeparture : 0);
+            return left - arrived;
+        }
+    }
+}
@@ -3,18 +3,19 @@ package portsim.evaluators;
 import portsim.movement.Movement;
 import portsim.movement.MovementDirection;
 import portsim.movement.ShipMovement;
-import portsim.ship.Ship;
+import portsim.util.Country;
 import portsim.util.Tickable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 public class ShipFlagEvaluator extends StatisticsEvaluator implements Tickable {
 
     /**
-     * the flag distribution seen at this port.
+     * Number of times each flag has been seen at this port, by {@link Country} code
      */
-    private Map<String, Integer> flagDistribution;
+    private int[] flagCounts = new int[0];
 
     /**
      * Constructs a new ShipFlagEvaluator.
@@ -22,14 +23,22 @@ public class ShipFlagEvaluator extends StatisticsEvaluator implements Tickable {
      */
     public ShipFlagEvaluator() {
         super();
-        flagDistribution = new HashMap<>();
     }
 
     /**
      * Return the flag distribution seen at this port.
+     * <p>
+     * The map is built on each call from counts kept by the evaluator, so changing it does not
+     * affect the evaluator.
      * @return flag distribution
      */
     public Map<String, Integer> getFlagDistribution(){
+        Map<String, Integer> flagDistribution = new HashMap<>();
+        for (int code = 0; code < flagCounts.length; code++) {
+            if (flagCounts[code] > 0) {
+                flagDistribution.put(Country.name(code), flagCounts[code]);
+            }
+        }
         return flagDistribution;
     }
 
@@ -39,10 +48,8 @@ public class ShipFlagEvaluator extends StatisticsEvaluator implements Tickable {
      * @return number of times flag seen or 0 if not seen
      */
     public int getFlagStatistics​(String flag){
-        if(flagDistribution.containsKey(flag)){
-            return flagDistribution.get(flag);
-        }
-        return 0;
+        int code = Country.code(flag);
+        return code >= 0 && code < flagCounts.length ? flagCounts[code] : 0;
     }
 
 
@@ -66,13 +73,14 @@ public class ShipFlagEvaluator extends StatisticsEvaluator implements Tickable {
     public void onProcessMovement​(Movement movement) {
         if(movement.getDirection().equals(MovementDirection.INBOUND)){
             if(movement instanceof ShipMovement){
-                Ship ship = ((ShipMovement)movement).getShip();
-                if(flagDistribution.containsKey(ship.getOriginFlag())){
-                    flagDistribution.put((ship.getOriginFlag()),
-                            flagDistribution.get((ship.getOriginFlag()) + 1));
-                }else {
-                    flagDistribution.put((ship.getOriginFlag()), 1);
+                int code = ((ShipMovement) movement).getShip().getOriginCode();
+                if (code == Country.NONE) {
+                    return;
+                }
+                if (code >= flagCounts.length) {
+                    flagCounts = Arrays.copyOf(flagCounts, Math.max(code + 1, Country.count()));
                 }
+                flagCounts[code]++;
             }
         }
 
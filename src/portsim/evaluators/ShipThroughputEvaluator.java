@@ -6,19 +6,28 @@ import portsim.movement.ShipMovement;
 import portsim.ship.Ship;
 import portsim.util.Tickable;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class ShipThroughputEvaluator extends StatisticsEvaluator implements Tickable {
 
 
     /**
-     * Numbers with the given time
+     * Ships that have departed in the last 60 minutes, each counted once, parallel to
+     * {@link #departures}
      */
-    Map<Ship, Long> count;
+    private Ship[] ships = new Ship[8];
     /**
-     * count the number of ships
+     * Latest departure time of each ship in {@link #ships}
      */
+    private long[] departures = new long[8];
+    /**
+     * Number of ships counted
+     */
+    private int count;
+    /**
+     * Earliest departure time counted, or Long.MAX_VALUE if there is none
+     */
+    private long oldestDeparture = Long.MAX_VALUE;
 
     /**
      * Constructs a new ShipThroughputEvaluator.
@@ -27,8 +36,6 @@ public class ShipThroughputEvaluator extends StatisticsEvaluator implements Tick
      */
     public ShipThroughputEvaluator() {
         super();
-        count = new HashMap<>();
-
     }
 
     /**
@@ -36,7 +43,7 @@ public class ShipThroughputEvaluator extends StatisticsEvaluator implements Tick
      * @return ships throughput
      */
     public int getThroughputPerHour(){
-        return count.size();
+        return count;
     }
 
     /**
@@ -65,7 +72,20 @@ public class ShipThroughputEvaluator extends StatisticsEvaluator implements Tick
             if(movement instanceof ShipMovement){
                 Ship ship = ((ShipMovement)movement).getShip();
                 long time = movement.getTime();
-                count.put(ship,time);
+                // a ship departing again is counted once, from its latest departure
+                for (int i = 0; i < count; i++) {
+                    if (ships[i].equals(ship)) {
+                        departures[i] = time;
+                        return;
+                    }
+                }
+                if (count == ships.length) {
+                    ships = Arrays.copyOf(ships, count * 2);
+                    departures = Arrays.copyOf(departures, count * 2);
+                }
+                ships[count] = ship;
+                departures[count++] = time;
+                oldestDeparture = Math.min(oldestDeparture, time);
             }
         }
     }
@@ -78,12 +98,22 @@ public class ShipThroughputEvaluator extends StatisticsEvaluator implements Tick
      */
     @Override
     public void elapseOneMinute(){
-        for(Map.Entry<Ship, Long> entry : count.entrySet()){
-            if(getTime() - entry.getValue() > 60){
-                count.remove(entry.getKey());
+        super.elapseOneMinute();
+        // most minutes nothing expires, so skip the sweep entirely
+        if (getTime() - oldestDeparture <= 60) {
+            return;
+        }
+        oldestDeparture = Long.MAX_VALUE;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (getTime() - departures[i] <= 60) {
+                ships[kept] = ships[i];
+                departures[kept++] = departures[i];
+                oldestDeparture = Math.min(oldestDeparture, departures[i]);
             }
         }
-
+        Arrays.fill(ships, kept, count, null);
+        count = kept;
     }
 
 
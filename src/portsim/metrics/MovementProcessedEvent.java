@@ -0,0 +1,53 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted each time a port processes a movement.
+ */
+@Name("portsim.MovementProcessed")
+@Label("Movement Processed")
+@Category("Port Simulation")
+@Description("A ship or cargo movement processed by a port")
+public class MovementProcessedEvent extends Event {
+
+    /**
+     * Name of the port processing the movement
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * Simulation time the movement was scheduled for, in minutes
+     */
+    @Label("Movement Time")
+    public long time;
+
+    /**
+     * Simple class name of the movement
+     */
+    @Label("Movement Type")
+    public String movementType;
+
+    /**
+     * Direction of the movement
+     */
+    @Label("Direction")
+    public String direction;
+
+    /**
+     * Number of pieces of cargo moved, or 0 for ship movements
+     */
+    @Label("Cargo Count")
+    public int cargoCount;
+
+    /**
+     * IMO number of the ship moved, or 0 for cargo movements
+     */
+    @Label("IMO Number")
+    public long imoNumber;
+}
@@ -0,0 +1,31 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the loading of a port from its save format.
+ * <p>
+ * The event duration is the time taken by {@link portsim.port.Port#initialisePort(java.io.Reader)}.
+ */
+@Name("portsim.PortLoad")
+@Label("Port Load")
+@Category("Port Simulation")
+@Description("Loading of a port from its machine-readable save format")
+public class PortLoadEvent extends Event {
+
+    /**
+     * Name of the port loaded, or null if loading failed
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * Number of lines read from the save
+     */
+    @Label("Lines Read")
+    public int lines;
+}
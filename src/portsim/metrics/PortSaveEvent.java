@@ -0,0 +1,33 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the encoding of a port to its save format.
+ * <p>
+ * The event duration is the time taken by {@link portsim.port.Port#encode()}.
+ */
+@Name("portsim.PortSave")
+@Label("Port Save")
+@Category("Port Simulation")
+@Description("Encoding of a port to its machine-readable save format")
+public class PortSaveEvent extends Event {
+
+    /**
+     * Name of the port being saved
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * Size of the encoded port in UTF-8
+     */
+    @Label("Encoded Size")
+    @DataAmount(DataAmount.BYTES)
+    public long size;
+}
@@ -0,0 +1,41 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a ship leaves a quay on an outbound movement.
+ */
+@Name("portsim.ShipDeparted")
+@Label("Ship Departed")
+@Category("Port Simulation")
+@Description("A ship left its quay on an outbound movement")
+public class ShipDepartedEvent extends Event {
+
+    /**
+     * Name of the port the ship departed from
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * ID of the quay the ship left, or -1 if it was not docked
+     */
+    @Label("Quay ID")
+    public int quayId;
+
+    /**
+     * IMO number of the departing ship
+     */
+    @Label("IMO Number")
+    public long imoNumber;
+
+    /**
+     * Simulated minutes the ship spent docked, or -1 if it docked before the recording started
+     */
+    @Label("Docked Time (minutes)")
+    public long dockedTime;
+}
@@ -0,0 +1,42 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event emitted when a ship leaves the ship queue and docks at a quay.
+ */
+@Name("portsim.ShipDocked")
+@Label("Ship Docked")
+@Category("Port Simulation")
+@Description("A ship moved from the ship queue to a quay")
+public class ShipDockedEvent extends Event {
+
+    /**
+     * Name of the port the ship docked at
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * ID of the quay the ship docked at
+     */
+    @Label("Quay ID")
+    public int quayId;
+
+    /**
+     * IMO number of the docked ship
+     */
+    @Label("IMO Number")
+    public long imoNumber;
+
+    /**
+     * Simulated minutes the ship spent in the queue, or -1 if it was queued before the
+     * recording started
+     */
+    @Label("Wait Time (minutes)")
+    public long waitTime;
+}
@@ -0,0 +1,64 @@
+package portsim.metrics;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Tracks whether a JDK Flight Recorder recording is currently running.
+ * <p>
+ * The simulation checks {@link #isRecording()} before creating any of the events in this
+ * package, so that no event objects are allocated and no timestamps are taken while the
+ * recorder is off.
+ */
+public final class SimulationRecorder {
+
+    /**
+     * Whether at least one recording is in the {@link RecordingState#RUNNING} state
+     */
+    private static volatile boolean recording = false;
+
+    static {
+        try {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    update(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording changed) {
+                    update(FlightRecorder.getFlightRecorder());
+                }
+            });
+        } catch (IllegalStateException | SecurityException e) {
+            // Flight Recorder is unavailable in this JVM, events are never emitted
+            recording = false;
+        }
+    }
+
+    private SimulationRecorder() {
+    }
+
+    /* Re-reads the state of every recording known to the given recorder */
+    private static void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording r : recorder.getRecordings()) {
+            if (r.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        recording = running;
+    }
+
+    /**
+     * Returns whether simulation events should be created and committed.
+     *
+     * @return true if a flight recording is running, false otherwise
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+}
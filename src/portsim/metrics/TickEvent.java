@@ -0,0 +1,125 @@
+package portsim.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event covering one call to {@link portsim.port.Port#elapseOneMinute()}.
+ * <p>
+ * The event duration spans the whole tick. The time spent in each phase of the tick (docking,
+ * unloading, processing movements and updating evaluators) is recorded separately.
+ */
+@Name("portsim.Tick")
+@Label("Simulation Tick")
+@Category("Port Simulation")
+@Description("One minute of simulated time elapsing at a port")
+public class TickEvent extends Event {
+
+    /**
+     * Name of the port being ticked
+     */
+    @Label("Port")
+    public String port;
+
+    /**
+     * Simulation time after the tick, in minutes
+     */
+    @Label("Simulation Time")
+    public long time;
+
+    /**
+     * Time spent bringing ships from the queue to quays
+     */
+    @Label("Docking")
+    @Timespan(Timespan.NANOSECONDS)
+    public long docking;
+
+    /**
+     * Time spent unloading docked ships into the warehouses
+     */
+    @Label("Unloading")
+    @Timespan(Timespan.NANOSECONDS)
+    public long unloading;
+
+    /**
+     * Time spent processing movements due at this minute
+     */
+    @Label("Movements")
+    @Timespan(Timespan.NANOSECONDS)
+    public long movements;
+
+    /**
+     * Time spent ticking the statistics evaluators
+     */
+    @Label("Evaluators")
+    @Timespan(Timespan.NANOSECONDS)
+    public long evaluators;
+
+    /**
+     * Number of movements processed during the tick
+     */
+    @Label("Movements Processed")
+    public int movementsProcessed;
+
+    /**
+     * Start of the phase currently being timed, not part of the recorded event
+     */
+    private transient long phaseStart;
+
+    /**
+     * Creates a new tick event for the given port and begins timing the tick.
+     *
+     * @param port name of the port being ticked
+     * @param time simulation time after the tick
+     */
+    public TickEvent(String port, long time) {
+        this.port = port;
+        this.time = time;
+        begin();
+        this.phaseStart = System.nanoTime();
+    }
+
+    /* Returns the time since the last phase ended and starts timing the next one */
+    private long endPhase() {
+        long now = System.nanoTime();
+        long elapsed = now - phaseStart;
+        phaseStart = now;
+        return elapsed;
+    }
+
+    /**
+     * Records the end of the docking phase.
+     */
+    public void dockingFinished() {
+        docking = endPhase();
+    }
+
+    /**
+     * Records the end of the unloading phase.
+     */
+    public void unloadingFinished() {
+        unloading = endPhase();
+    }
+
+    /**
+     * Records the end of the movement processing phase.
+     *
+     * @param processed number of movements processed in the phase
+     */
+    public void movementsFinished(int processed) {
+        movements = endPhase();
+        movementsProcessed = processed;
+    }
+
+    /**
+     * Records the end of the evaluator phase and commits the event.
+     */
+    public void evaluatorsFinished() {
+        evaluators = endPhase();
+        commit();
+    }
+}
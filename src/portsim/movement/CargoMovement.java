@@ -3,10 +3,12 @@ package portsim.movement;
 import portsim.cargo.Cargo;
 import portsim.util.BadEncodingException;
 import portsim.util.Encodable;
+import portsim.util.NoSuchCargoException;
 
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.StringJoiner;
 
 /**
  * The movement of cargo coming into or out of the port.
@@ -16,9 +18,10 @@ import java.util.List;
 public class CargoMovement extends Movement implements Encodable {
 
     /**
-     * The cargo that will be involved in the movement
+     * IDs of the cargo that will be involved in the movement, resolved through the cargo
+     * registry when the cargo itself is needed
      */
-    private List<Cargo> cargo;
+    private final int[] cargoIds;
 
     /**
      * Creates a new cargo movement with the given action time and direction
@@ -33,19 +36,82 @@ public class CargoMovement extends Movement implements Encodable {
     public CargoMovement(long time, MovementDirection direction,
                          List<Cargo> cargo) throws IllegalArgumentException {
         super(time, direction);
-        this.cargo = cargo;
+        this.cargoIds = new int[cargo.size()];
+        for (int i = 0; i < cargoIds.length; i++) {
+            cargoIds[i] = cargo.get(i).getId();
+        }
+    }
+
+    /**
+     * Creates a new cargo movement with the given action time and direction
+     * to be undertaken with the cargo with the given IDs. The cargo need not exist until it
+     * is first resolved.
+     *
+     * @param time      the time the movement should occur
+     * @param direction the direction of the movement
+     * @param cargoIds  IDs of the cargo to be moved, which are copied
+     * @throws IllegalArgumentException if time &lt; 0
+     */
+    public CargoMovement(long time, MovementDirection direction,
+                         int[] cargoIds) throws IllegalArgumentException {
+        super(time, direction);
+        this.cargoIds = cargoIds.clone();
     }
 
     /**
      * Returns the cargo that will be moved.
      * <p>
      * Adding or removing elements from the returned list should not affect the original list.
+     * Use {@link #getCargoCount()} with {@link #getCargo(int)} or {@link #getCargoId(int)} to
+     * go through the cargo without building a list.
      *
      * @return all cargo in the movement
+     * @throws IllegalStateException if any of the cargo is no longer in the cargo registry
      * @ass1
      */
     public List<Cargo> getCargo() {
-        return new ArrayList<>(cargo);
+        List<Cargo> cargo = new ArrayList<>(cargoIds.length);
+        for (int i = 0; i < cargoIds.length; i++) {
+            cargo.add(getCargo(i));
+        }
+        return cargo;
+    }
+
+    /**
+     * Returns the number of pieces of cargo that will be moved.
+     *
+     * @return number of pieces of cargo
+     */
+    public int getCargoCount() {
+        return cargoIds.length;
+    }
+
+    /**
+     * Returns the ID of the piece of cargo at the given position in this movement.
+     *
+     * @param index position of the cargo, from 0 to {@link #getCargoCount()} - 1
+     * @return ID of the cargo
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getCargoId(int index) {
+        return cargoIds[index];
+    }
+
+    /**
+     * Returns the piece of cargo at the given position in this movement, looked up in the
+     * cargo registry.
+     *
+     * @param index position of the cargo, from 0 to {@link #getCargoCount()} - 1
+     * @return cargo at the position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalStateException if the cargo is no longer in the cargo registry
+     */
+    public Cargo getCargo(int index) {
+        try {
+            return Cargo.getCargoById(cargoIds[index]);
+        } catch (NoSuchCargoException e) {
+            throw new IllegalStateException("No cargo with ID " + cargoIds[index], e);
+        }
     }
 
     /**
@@ -71,7 +137,7 @@ public class CargoMovement extends Movement implements Encodable {
     public String toString() {
         return String.format("%s involving %d piece(s) of cargo",
             super.toString(),
-            this.cargo.size());
+            this.cargoIds.length);
     }
 
     /**
@@ -94,17 +160,12 @@ public class CargoMovement extends Movement implements Encodable {
      */
     @Override
     public String encode() {
-        String id = "";
-        for(int i = 0; i<cargo.size();i++){
-            if(i + 1 == cargo.size()){
-                id += cargo.get(i).getId();
-            }else{
-                id += cargo.get(i).getId() + ",";
-
-            }
+        StringJoiner ids = new StringJoiner(",");
+        for (int id : cargoIds) {
+            ids.add(String.valueOf(id));
         }
-        return super.encode() + "numCargo:" + id;
-}
+        return super.encode() + ":" + cargoIds.length + ":" + ids;
+    }
 
     /**
      * Creates a cargo movement from a string encoding.
@@ -129,7 +190,29 @@ public class CargoMovement extends Movement implements Encodable {
      * @throws BadEncodingException n - if the format of the given string is invalid according to the rules above
      */
     public static CargoMovement fromString​(String string) throws BadEncodingException {
-
-        return null;
+        String[] encoded = string.split(":", -1);
+        if (encoded.length != 5 || !encoded[0].equals("CargoMovement")) {
+            throw new BadEncodingException("Not a cargo movement: " + string);
+        }
+        try {
+            long time = Long.parseLong(encoded[1]);
+            MovementDirection direction = MovementDirection.valueOf(encoded[2]);
+            int numCargo = Integer.parseInt(encoded[3]);
+            String[] ids = encoded[4].split(",", -1);
+            if (time < 0 || numCargo < 1 || ids.length != numCargo) {
+                throw new BadEncodingException("Invalid cargo movement: " + string);
+            }
+            int[] cargoIds = new int[numCargo];
+            for (int i = 0; i < numCargo; i++) {
+                cargoIds[i] = Integer.parseInt(ids[i]);
+                if (!Cargo.cargoExists(cargoIds[i])) {
+                    throw new BadEncodingException("No cargo with ID " + cargoIds[i] + ": "
+                            + string);
+                }
+            }
+            return new CargoMovement(time, direction, cargoIds);
+        } catch (IllegalArgumentException e) {
+            throw new BadEncodingException("Invalid cargo movement: " + string, e);
+        }
     }
 }
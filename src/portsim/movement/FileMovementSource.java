@@ -0,0 +1,115 @@
+package portsim.movement;
+
+import portsim.util.BadEncodingException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads encoded movements, one per line in ascending time order, such as a schedule written by
+ * {@link portsim.scenario.ScenarioGenerator#writeSchedule(java.io.Writer)}.
+ * <p>
+ * Only the next line is held in memory. Each movement is decoded when it is read, so the ships
+ * and cargo it refers to need only exist by then. Blank lines are skipped.
+ */
+public class FileMovementSource implements MovementSource {
+
+    /**
+     * Reader the movements are read from
+     */
+    private final BufferedReader reader;
+
+    /**
+     * Next line to decode, or null once the reader is exhausted
+     */
+    private String line;
+
+    /**
+     * Time of the next line, parsed when the line is first looked at
+     */
+    private long lineTime = -1;
+
+    /**
+     * Time of the last movement read
+     */
+    private long lastTime;
+
+    /**
+     * Number of the next line, counting from 1, used in error messages
+     */
+    private long lineNumber;
+
+    /**
+     * Creates a new movement source reading from the given reader.
+     *
+     * @param reader reader to read encoded movements from
+     */
+    public FileMovementSource(Reader reader) {
+        this.reader = reader instanceof BufferedReader
+                ? (BufferedReader) reader : new BufferedReader(reader);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        while (line == null) {
+            String read = reader.readLine();
+            if (read == null) {
+                return false;
+            }
+            lineNumber++;
+            if (!read.isEmpty()) {
+                line = read;
+                lineTime = -1;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long nextTime() throws IOException, BadEncodingException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        if (lineTime < 0) {
+            int start = line.indexOf(':') + 1;
+            int end = line.indexOf(':', start);
+            try {
+                lineTime = Long.parseLong(line.substring(start, end < 0 ? line.length() : end));
+            } catch (NumberFormatException e) {
+                throw new BadEncodingException("Line " + lineNumber + ": bad time: " + line, e);
+            }
+            if (lineTime < lastTime) {
+                throw new BadEncodingException("Line " + lineNumber
+                        + ": movement is earlier than the one before it: " + line);
+            }
+        }
+        return lineTime;
+    }
+
+    @Override
+    public Movement next() throws IOException, BadEncodingException {
+        long time = nextTime();
+        Movement movement;
+        try {
+            if (line.startsWith("ShipMovement:")) {
+                movement = ShipMovement.fromString(line);
+            } else if (line.startsWith("CargoMovement:")) {
+                movement = CargoMovement.fromString(line);
+            } else {
+                throw new BadEncodingException("Not a movement: " + line);
+            }
+        } catch (BadEncodingException e) {
+            throw new BadEncodingException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+        lastTime = time;
+        line = null;
+        return movement;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,45 @@
+package portsim.movement;
+
+import portsim.util.BadEncodingException;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A supply of movements in ascending time order, read one at a time as they are needed.
+ * <p>
+ * A port reading from a source only holds the movements within its look-ahead window, so the
+ * whole schedule never needs to be in memory at once (see
+ * {@link portsim.port.Port#setMovementSource(MovementSource, long)}).
+ */
+public interface MovementSource extends Closeable {
+
+    /**
+     * Returns true if there are more movements to read from this source.
+     *
+     * @return true if another movement can be read
+     * @throws IOException if the source could not be read
+     */
+    boolean hasNext() throws IOException;
+
+    /**
+     * Returns the time of the next movement, without reading the movement itself.
+     *
+     * @return time of the next movement
+     * @throws IOException if the source could not be read
+     * @throws java.util.NoSuchElementException if there are no more movements
+     * @throws BadEncodingException if the time of the next movement is not valid
+     */
+    long nextTime() throws IOException, BadEncodingException;
+
+    /**
+     * Reads the next movement. Each movement is no earlier than the one before it.
+     *
+     * @return next movement
+     * @throws IOException if the source could not be read
+     * @throws java.util.NoSuchElementException if there are no more movements
+     * @throws BadEncodingException if the movement is not a valid encoding, or is earlier than
+     *                              the movement before it
+     */
+    Movement next() throws IOException, BadEncodingException;
+}
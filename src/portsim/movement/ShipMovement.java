@@ -3,6 +3,7 @@ package portsim.movement;
 import portsim.ship.Ship;
 import portsim.util.BadEncodingException;
 import portsim.util.Encodable;
+import portsim.util.NoSuchShipException;
 
 /**
  * The movement of a ship coming into or out of the port.
@@ -80,30 +81,39 @@ public class ShipMovement extends Movement implements Encodable {
     }
 
     /**
-     * Creates a cargo movement from a string encoding.
-     * The format of the string should match the encoded representation of a cargo movement, as
+     * Creates a ship movement from a string encoding.
+     * The format of the string should match the encoded representation of a ship movement, as
      * described in encode().
      *
      * The encoded string is invalid if any of the following conditions are true:
      *
      * The number of colons (:) detected was more/fewer than expected.
-     * The given string is not a CargoMovement encoding
+     * The given string is not a ShipMovement encoding
      * The time is not a long (i.e. cannot be parsed by Long.parseLong(String)).
      * The time is less than zero (0).
      * The movementDirection is not one of the valid directions (See MovementDirection).
-     * The number of ids is not a int (i.e. cannot be parsed by Integer.parseInt(String)).
-     * The number of ids is less than one (1).
-     * An id is not a int (i.e. cannot be parsed by Integer.parseInt(String)).
-     * An id is less than zero (0).
-     * There is no cargo that exists with a specified id.
-     * The number of id's does not match the number specified.
-     * @param string - string containing the encoded CargoMovement
-     * @return decoded CargoMovement instance
-     * @throws BadEncodingException n - if the format of the given string is invalid according to the rules above
+     * The imoNumber is not a long (i.e. cannot be parsed by Long.parseLong(String)).
+     * There is no ship that exists with the specified imoNumber.
+     * @param string - string containing the encoded ShipMovement
+     * @return decoded ShipMovement instance
+     * @throws BadEncodingException - if the format of the given string is invalid according to
+     * the rules above
      */
-    public static CargoMovement fromString​(String string) throws BadEncodingException {
-        CargoMovement cargoMovement = null;
-        return cargoMovement;
+    public static ShipMovement fromString​(String string) throws BadEncodingException {
+        String[] encoded = string.split(":", -1);
+        if (encoded.length != 4 || !encoded[0].equals("ShipMovement")) {
+            throw new BadEncodingException("Not a ship movement: " + string);
+        }
+        try {
+            long time = Long.parseLong(encoded[1]);
+            if (time < 0) {
+                throw new BadEncodingException("Invalid ship movement: " + string);
+            }
+            return new ShipMovement(time, MovementDirection.valueOf(encoded[2]),
+                    Ship.getShipByImoNumber(Long.parseLong(encoded[3])));
+        } catch (IllegalArgumentException | NoSuchShipException e) {
+            throw new BadEncodingException("Invalid ship movement: " + string, e);
+        }
     }
 
 }
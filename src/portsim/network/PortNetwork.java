@@ -0,0 +1,495 @@
+package portsim.network;
+
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.Port;
+import portsim.port.PortSnapshot;
+import portsim.ship.Ship;
+import portsim.util.Country;
+import portsim.util.Tickable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * A network of ports that ships sail between.
+ * <p>
+ * When a port processes an OUTBOUND {@link ShipMovement}, the ship sails to the port named by
+ * its origin flag (see {@link Ship#getOriginFlag()}), which is the destination of the cargo it
+ * loaded. After the transit time between the two ports, an INBOUND movement for the ship is
+ * added to the destination port. Ships whose origin is not a port in the network, or is the
+ * port they are leaving, leave the network.
+ * <p>
+ * Ports are stepped in parallel using conservative synchronisation: the network advances in
+ * windows no longer than the shortest transit time (the lookahead), stepping every port to the
+ * end of the window independently. No ship that departs within a window can arrive before the
+ * window ends, so ports never see a movement in their past. Ships that departed are handed to
+ * their destination ports between windows, in port order, so results do not depend on the
+ * number of threads.
+ * <p>
+ * Alternatively the network can run optimistically (see {@link #setOptimisticWindow(long)}),
+ * letting ports run further ahead and rolling them back when a ship arrives in their past.
+ * <p>
+ * A ship must only be at one port of the network at a time, since ports on different threads
+ * may otherwise modify it concurrently.
+ */
+public class PortNetwork implements Tickable {
+
+    /**
+     * Ports in the network, in the order they were added
+     */
+    private final List<Port> ports = new ArrayList<>();
+
+    /**
+     * Position of each port in ports, by name
+     */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * Position of each port in ports, by the {@link Country} code of its name, or -1 for codes
+     * that name no port in the network
+     */
+    private int[] indicesByCode = new int[0];
+
+    /**
+     * Ships that departed each port in the current window, by port index
+     */
+    private final List<List<ShipTransit>> departures = new ArrayList<>();
+
+    /**
+     * Transit times between pairs of ports, by departure port name then arrival port name
+     */
+    private final Map<String, Map<String, Long>> transitTimes = new HashMap<>();
+
+    /**
+     * Transit time between ports that have no transit time set, in minutes
+     */
+    private final long defaultTransitTime;
+
+    /**
+     * Shortest transit time between any two ports, in minutes
+     */
+    private long lookahead;
+
+    /**
+     * Number of threads ports are stepped on
+     */
+    private final int threads;
+
+    /**
+     * Threads ports are stepped on, created when first needed
+     */
+    private ExecutorService executor;
+
+    /**
+     * Time all ports in the network have reached
+     */
+    private long time;
+
+    /**
+     * How far past global virtual time ports may run when running optimistically, or 0 to
+     * run conservatively
+     */
+    private long optimisticWindow;
+
+    /**
+     * Longest time between snapshots of a port when running optimistically, in minutes
+     */
+    private long checkpointInterval = 16;
+
+    /**
+     * Optimistic execution state, while running optimistically
+     */
+    private TimeWarp timeWarp;
+
+    /**
+     * Number of rollbacks, minutes undone by them and departures they cancelled
+     */
+    private long rollbacks;
+    private long rolledBackMinutes;
+    private long cancelledTransits;
+
+    /**
+     * Creates an empty network that steps ports on one thread per available processor.
+     *
+     * @param defaultTransitTime transit time between ports without a transit time set
+     * @throws IllegalArgumentException if defaultTransitTime &lt; 1
+     */
+    public PortNetwork(long defaultTransitTime) throws IllegalArgumentException {
+        this(defaultTransitTime, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an empty network that steps ports on the given number of threads.
+     *
+     * @param defaultTransitTime transit time between ports without a transit time set
+     * @param threads            number of threads to step ports on, 1 to step them in turn
+     *                           on the calling thread
+     * @throws IllegalArgumentException if defaultTransitTime &lt; 1 or threads &lt; 1
+     */
+    public PortNetwork(long defaultTransitTime, int threads) throws IllegalArgumentException {
+        if (defaultTransitTime < 1) {
+            throw new IllegalArgumentException("Transit time must be at least 1 minute: "
+                    + defaultTransitTime);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required: " + threads);
+        }
+        this.defaultTransitTime = defaultTransitTime;
+        this.lookahead = defaultTransitTime;
+        this.threads = threads;
+    }
+
+    /**
+     * Adds a port to the network.
+     *
+     * @param port port to add
+     * @throws IllegalArgumentException if a port with the same name is already in the network,
+     *                                  or the port's time is not the network's time
+     */
+    public void addPort(Port port) throws IllegalArgumentException {
+        timeWarp = null;
+        if (indices.containsKey(port.getName())) {
+            throw new IllegalArgumentException("A port named " + port.getName()
+                    + " is already in the network");
+        }
+        if (port.getTime() != time) {
+            throw new IllegalArgumentException("Port time " + port.getTime()
+                    + " does not match network time " + time);
+        }
+        int index = ports.size();
+        ports.add(port);
+        indices.put(port.getName(), index);
+        int code = Country.code(port.getName());
+        if (code >= indicesByCode.length) {
+            int length = indicesByCode.length;
+            indicesByCode = Arrays.copyOf(indicesByCode, Math.max(code + 1, Country.count()));
+            Arrays.fill(indicesByCode, length, indicesByCode.length, -1);
+        }
+        indicesByCode[code] = index;
+        List<ShipTransit> departed = new ArrayList<>();
+        departures.add(departed);
+        port.addMovementListener((from, movement) -> {
+            ShipTransit transit = toTransit(index, movement);
+            if (transit != null) {
+                departed.add(transit);
+            }
+        });
+    }
+
+    /**
+     * Sets the time ships take to sail from one port to another. Transit times are directed;
+     * the reverse journey keeps its own transit time.
+     *
+     * @param from    name of the port ships sail from
+     * @param to      name of the port ships sail to
+     * @param minutes transit time, in minutes
+     * @throws IllegalArgumentException if minutes &lt; 1
+     */
+    public void setTransitTime(String from, String to, long minutes)
+            throws IllegalArgumentException {
+        if (minutes < 1) {
+            throw new IllegalArgumentException("Transit time must be at least 1 minute: "
+                    + minutes);
+        }
+        transitTimes.computeIfAbsent(from, k -> new HashMap<>()).put(to, minutes);
+        lookahead = Math.min(lookahead, minutes);
+        timeWarp = null;
+    }
+
+    /**
+     * Returns the time ships take to sail from one port to another.
+     *
+     * @param from name of the port ships sail from
+     * @param to   name of the port ships sail to
+     * @return transit time, in minutes
+     */
+    public long getTransitTime(String from, String to) {
+        Map<String, Long> times = transitTimes.get(from);
+        if (times == null) {
+            return defaultTransitTime;
+        }
+        return times.getOrDefault(to, defaultTransitTime);
+    }
+
+    /**
+     * Returns the shortest transit time between any two ports, which is the longest window
+     * ports can be stepped independently for.
+     *
+     * @return lookahead, in minutes
+     */
+    public long getLookahead() {
+        return lookahead;
+    }
+
+    /**
+     * Returns the ports in the network, in the order they were added.
+     * <p>
+     * Adding or removing elements from the returned list should not affect the original list.
+     *
+     * @return ports in the network
+     */
+    public List<Port> getPorts() {
+        return new ArrayList<>(ports);
+    }
+
+    /**
+     * Returns the port in the network with the given name.
+     *
+     * @param name name of the port
+     * @return port with the name, or null if there is none
+     */
+    public Port getPort(String name) {
+        Integer index = indices.get(name);
+        return index == null ? null : ports.get(index);
+    }
+
+    /**
+     * Returns the time all ports in the network have reached.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of threads ports are stepped on.
+     *
+     * @return number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets how far ports may run past global virtual time (the earliest time of any port)
+     * when running optimistically. Windows no longer than the lookahead cannot cause
+     * rollbacks, so 0 (the default) runs the network conservatively instead.
+     * <p>
+     * Ports that are rolled back process some movements again, and their statistics
+     * evaluators are told about each movement every time it is processed.
+     *
+     * @param minutes optimistic window, in minutes, or 0 to run conservatively
+     * @throws IllegalArgumentException if minutes &lt; 0
+     */
+    public void setOptimisticWindow(long minutes) throws IllegalArgumentException {
+        if (minutes < 0) {
+            throw new IllegalArgumentException("Optimistic window must not be negative: "
+                    + minutes);
+        }
+        optimisticWindow = minutes;
+        timeWarp = null;
+    }
+
+    /**
+     * Returns how far ports may run past global virtual time when running optimistically.
+     *
+     * @return optimistic window, in minutes, or 0 when running conservatively
+     */
+    public long getOptimisticWindow() {
+        return optimisticWindow;
+    }
+
+    /**
+     * Sets the longest time between snapshots of a port when running optimistically. Shorter
+     * intervals cost more snapshots but repeat less work on rollback.
+     *
+     * @param minutes checkpoint interval, in minutes
+     * @throws IllegalArgumentException if minutes &lt; 1
+     */
+    public void setCheckpointInterval(long minutes) throws IllegalArgumentException {
+        if (minutes < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1 "
+                    + "minute: " + minutes);
+        }
+        checkpointInterval = minutes;
+        timeWarp = null;
+    }
+
+    /**
+     * Returns the number of times a port has been rolled back while running optimistically.
+     *
+     * @return number of rollbacks
+     */
+    public long getRollbacks() {
+        return rollbacks;
+    }
+
+    /**
+     * Returns the total number of minutes of port time undone by rollbacks.
+     *
+     * @return minutes rolled back
+     */
+    public long getRolledBackMinutes() {
+        return rolledBackMinutes;
+    }
+
+    /**
+     * Returns the number of ship departures cancelled by rollbacks.
+     *
+     * @return cancelled departures
+     */
+    public long getCancelledTransits() {
+        return cancelledTransits;
+    }
+
+    /* Counts a rollback undoing the given number of minutes */
+    void recordRollback(long minutes) {
+        rollbacks++;
+        rolledBackMinutes += minutes;
+    }
+
+    /* Counts a cancelled departure */
+    void recordCancelledTransit() {
+        cancelledTransits++;
+    }
+
+    /* Returns the transit started by the given movement at a port, or null if it starts none */
+    ShipTransit toTransit(int from, Movement movement) {
+        if (!(movement instanceof ShipMovement)
+                || movement.getDirection() != MovementDirection.OUTBOUND) {
+            return null;
+        }
+        Ship ship = ((ShipMovement) movement).getShip();
+        int code = ship.getOriginCode();
+        int to = code >= 0 && code < indicesByCode.length ? indicesByCode[code] : -1;
+        if (to < 0 || to == from) {
+            return null;
+        }
+        Port departed = ports.get(from);
+        long arrival = departed.getTime()
+                + getTransitTime(departed.getName(), ports.get(to).getName());
+        PortSnapshot.ShipState cargo = timeWarp == null ? null : PortSnapshot.ShipState.of(ship);
+        return new ShipTransit(departed.getTime(), arrival, from, to, ship, cargo);
+    }
+
+    /* Returns the INBOUND movement that ends the given transit */
+    static ShipMovement toArrival(ShipTransit transit) {
+        return new ShipMovement(transit.arrival, MovementDirection.INBOUND, transit.ship);
+    }
+
+    /**
+     * Advances every port in the network by one minute.
+     */
+    @Override
+    public void elapseOneMinute() {
+        runUntil(time + 1);
+    }
+
+    /**
+     * Advances every port in the network until the given time.
+     *
+     * @param until time to advance to
+     * @throws IllegalStateException if the calling thread is interrupted while waiting for
+     *                               ports to be stepped
+     */
+    public void runUntil(long until) throws IllegalStateException {
+        if (optimisticWindow > 0 && time < until) {
+            if (timeWarp == null) {
+                timeWarp = new TimeWarp(this, ports, departures, optimisticWindow,
+                        checkpointInterval);
+            }
+            timeWarp.runUntil(until);
+            time = until;
+            return;
+        }
+        timeWarp = null;
+        while (time < until) {
+            long windowEnd = Math.min(until, time + lookahead);
+            stepAll(windowEnd);
+            time = windowEnd;
+            deliverDepartures();
+        }
+    }
+
+    /* Steps every port to the given time, in parallel if there is more than one thread */
+    private void stepAll(long windowEnd) {
+        forEachPort(i -> {
+            Port port = ports.get(i);
+            while (port.getTime() < windowEnd) {
+                port.elapseOneMinute();
+            }
+        });
+    }
+
+    /* Runs the action for the index of every port, in parallel if there is more than one thread */
+    void forEachPort(IntConsumer action) {
+        if (threads == 1 || ports.size() < 2) {
+            for (int i = 0; i < ports.size(); i++) {
+                action.accept(i);
+            }
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "port-network");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        // several slices per thread so uneven ports still keep every thread busy
+        int slices = Math.min(ports.size(), threads * 4);
+        List<Future<?>> steps = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int start = (int) ((long) ports.size() * slice / slices);
+            int end = (int) ((long) ports.size() * (slice + 1) / slices);
+            steps.add(executor.submit(() -> {
+                for (int i = start; i < end; i++) {
+                    action.accept(i);
+                }
+            }));
+        }
+        for (Future<?> step : steps) {
+            await(step);
+        }
+    }
+
+    /* Waits for a submitted task, rethrowing anything it threw */
+    static void await(Future<?> task) throws IllegalStateException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while stepping ports", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /* Hands ships that departed in the last window to the ports they sail to */
+    private void deliverDepartures() {
+        for (List<ShipTransit> departed : departures) {
+            for (ShipTransit transit : departed) {
+                ports.get(transit.to).addMovement(toArrival(transit));
+            }
+            departed.clear();
+        }
+    }
+
+    /**
+     * Stops the threads used to step ports. The network can still be run afterwards, in
+     * which case new threads are created.
+     */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package portsim.network;
+
+import portsim.port.PortSnapshot;
+import portsim.ship.Ship;
+
+/**
+ * A ship sailing between two ports of a {@link PortNetwork}.
+ * <p>
+ * Created when the ship's OUTBOUND movement is processed at the port it leaves, and turned
+ * into an INBOUND movement at the port it sails to.
+ */
+final class ShipTransit {
+
+    /**
+     * Time the ship left the port it sailed from
+     */
+    final long departure;
+
+    /**
+     * Time the ship reaches the port it sails to
+     */
+    final long arrival;
+
+    /**
+     * Index of the port the ship sailed from
+     */
+    final int from;
+
+    /**
+     * Index of the port the ship sails to
+     */
+    final int to;
+
+    /**
+     * Ship that is sailing
+     */
+    final Ship ship;
+
+    /**
+     * Cargo on board the ship when it departed, recorded only when running optimistically
+     */
+    final PortSnapshot.ShipState cargo;
+
+    /**
+     * Whether the departure was undone by a rollback before the ship arrived
+     */
+    boolean cancelled;
+
+    ShipTransit(long departure, long arrival, int from, int to, Ship ship,
+                PortSnapshot.ShipState cargo) {
+        this.departure = departure;
+        this.arrival = arrival;
+        this.from = from;
+        this.to = to;
+        this.ship = ship;
+        this.cargo = cargo;
+    }
+}
@@ -0,0 +1,276 @@
+package portsim.network;
+
+import portsim.movement.Movement;
+import portsim.movement.ShipMovement;
+import portsim.port.Port;
+import portsim.port.PortSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Optimistic (Time Warp) execution of a {@link PortNetwork}.
+ * <p>
+ * Execution proceeds in rounds. In each round every port runs ahead in parallel to a horizon
+ * beyond the lookahead, taking snapshots as it goes. Between rounds, ships that departed are
+ * handed to the ports they sail to. A port that has already passed a ship's arrival time is
+ * rolled back to its latest snapshot before the arrival, and every departure it made after
+ * that snapshot is cancelled, rolling back the ports those ships had reached in turn.
+ * <p>
+ * A snapshot is taken after every minute in which a ship departed, so a port never needs to
+ * repeat a departure when it re-runs from a snapshot. Global virtual time (GVT) is the
+ * earliest time of any port after the exchange; nothing before it can be rolled back, so older
+ * snapshots and the records of older departures and arrivals are discarded.
+ */
+final class TimeWarp {
+
+    /**
+     * Network being executed
+     */
+    private final PortNetwork network;
+
+    /**
+     * Execution state of each port, by port index
+     */
+    private final LogicalProcess[] processes;
+
+    /**
+     * How far past GVT ports may run in one round, in minutes
+     */
+    private final long window;
+
+    /**
+     * Longest time between snapshots of a port, in minutes
+     */
+    private final long checkpointInterval;
+
+    /**
+     * Global virtual time, before which no port can be rolled back
+     */
+    private long gvt;
+
+    /**
+     * Starts optimistic execution of the given network from its current time.
+     *
+     * @param network            network to execute, with every port at the network's time
+     * @param ports              ports of the network, by index
+     * @param departures         departures recorded by each port's listener, by index
+     * @param window             how far past GVT ports may run in one round
+     * @param checkpointInterval longest time between snapshots of a port
+     */
+    TimeWarp(PortNetwork network, List<Port> ports, List<List<ShipTransit>> departures,
+             long window, long checkpointInterval) {
+        this.network = network;
+        this.window = window;
+        this.checkpointInterval = checkpointInterval;
+        this.gvt = network.getTime();
+        this.processes = new LogicalProcess[ports.size()];
+        for (int i = 0; i < processes.length; i++) {
+            processes[i] = new LogicalProcess(ports.get(i), departures.get(i));
+        }
+    }
+
+    /**
+     * Runs every port until the given time, returning once no port can be rolled back before
+     * it.
+     *
+     * @param until time to run to
+     */
+    void runUntil(long until) {
+        while (gvt < until) {
+            long horizon = Math.min(until, gvt + window);
+            // no ship can arrive before safeTime, so a snapshot there always survives the round
+            long safeTime = gvt + network.getLookahead();
+            network.forEachPort(i -> processes[i].advance(horizon, safeTime));
+            exchange();
+            collectFossils();
+        }
+    }
+
+    /* Hands ships that departed in the last round to the ports they sail to */
+    private void exchange() {
+        List<ShipTransit> outgoing = new ArrayList<>();
+        for (LogicalProcess process : processes) {
+            for (ShipTransit transit : process.departed) {
+                process.sent.addLast(transit);
+                outgoing.add(transit);
+            }
+            process.departed.clear();
+        }
+        for (ShipTransit transit : outgoing) {
+            if (!transit.cancelled) {
+                deliver(transit);
+            }
+        }
+    }
+
+    /* Adds the arrival of a ship to its destination, rolling it back if it is too late */
+    private void deliver(ShipTransit transit) {
+        LogicalProcess process = processes[transit.to];
+        if (transit.arrival <= process.port.getTime()) {
+            rollback(process, transit.arrival);
+        }
+        ShipMovement arrival = PortNetwork.toArrival(transit);
+        process.received.add(new Received(transit, arrival));
+        process.arrivals.add(arrival);
+        process.port.addMovement(arrival);
+    }
+
+    /* Restores a port to its latest snapshot before the given time */
+    private void rollback(LogicalProcess process, long before) {
+        long from = process.port.getTime();
+        while (process.checkpoints.peekLast().getTime() >= before) {
+            process.checkpoints.removeLast();
+        }
+        PortSnapshot snapshot = process.checkpoints.peekLast();
+        process.port.restore(snapshot);
+        network.recordRollback(from - snapshot.getTime());
+
+        // the port will depart these ships again, possibly differently; cancelling them can
+        // roll this port back further, so the arrivals are put back afterwards
+        while (!process.sent.isEmpty()
+                && process.sent.peekLast().departure > process.port.getTime()) {
+            cancel(process.sent.pollLast());
+        }
+
+        // arrivals are inputs rather than state, so put back every one still to come
+        long restored = process.port.getTime();
+        process.port.getMovements().removeIf(process.arrivals::contains);
+        for (Received received : process.received) {
+            if (received.transit.arrival > restored) {
+                received.transit.cargo.restore();
+                process.port.addMovement(received.movement);
+            }
+        }
+    }
+
+    /* Undoes a departure, rolling back the destination if the ship has already arrived */
+    private void cancel(ShipTransit transit) {
+        transit.cancelled = true;
+        network.recordCancelledTransit();
+        LogicalProcess process = processes[transit.to];
+        Received received = null;
+        for (Iterator<Received> it = process.received.iterator(); it.hasNext(); ) {
+            Received next = it.next();
+            if (next.transit == transit) {
+                received = next;
+                it.remove();
+                break;
+            }
+        }
+        if (received == null) {
+            // not delivered yet
+            return;
+        }
+        process.arrivals.remove(received.movement);
+        if (transit.arrival <= process.port.getTime()) {
+            rollback(process, transit.arrival);
+        } else {
+            process.port.getMovements().remove(received.movement);
+        }
+    }
+
+    /* Advances GVT and discards state that can no longer be rolled back to */
+    private void collectFossils() {
+        long earliest = Long.MAX_VALUE;
+        for (LogicalProcess process : processes) {
+            earliest = Math.min(earliest, process.port.getTime());
+        }
+        gvt = earliest;
+
+        for (LogicalProcess process : processes) {
+            // keep the latest snapshot at or before GVT and everything after it
+            while (process.checkpoints.size() > 1) {
+                PortSnapshot oldest = process.checkpoints.pollFirst();
+                if (process.checkpoints.peekFirst().getTime() > gvt) {
+                    process.checkpoints.addFirst(oldest);
+                    break;
+                }
+            }
+            long restorable = process.checkpoints.peekFirst().getTime();
+            while (!process.sent.isEmpty() && process.sent.peekFirst().departure <= gvt) {
+                process.sent.pollFirst();
+            }
+            for (Iterator<Received> it = process.received.iterator(); it.hasNext(); ) {
+                Received received = it.next();
+                if (received.transit.arrival <= restorable) {
+                    process.arrivals.remove(received.movement);
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * A ship arrival delivered to a port, with the movement that was added for it
+     */
+    private static final class Received {
+        final ShipTransit transit;
+        final ShipMovement movement;
+
+        Received(ShipTransit transit, ShipMovement movement) {
+            this.transit = transit;
+            this.movement = movement;
+        }
+    }
+
+    /**
+     * The optimistic execution state of one port
+     */
+    private final class LogicalProcess {
+
+        /**
+         * Port being executed
+         */
+        final Port port;
+
+        /**
+         * Departures recorded by the network's listener on the port since the last exchange
+         */
+        final List<ShipTransit> departed;
+
+        /**
+         * Snapshots of the port, oldest first
+         */
+        final ArrayDeque<PortSnapshot> checkpoints = new ArrayDeque<>();
+
+        /**
+         * Departures from the port that could still be cancelled, in departure order
+         */
+        final ArrayDeque<ShipTransit> sent = new ArrayDeque<>();
+
+        /**
+         * Arrivals delivered to the port that a rollback could need to put back
+         */
+        final List<Received> received = new ArrayList<>();
+
+        /**
+         * Movements added to the port for delivered arrivals, compared by identity
+         */
+        final Set<Movement> arrivals = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        LogicalProcess(Port port, List<ShipTransit> departed) {
+            this.port = port;
+            this.departed = departed;
+            checkpoints.addLast(port.checkpoint());
+        }
+
+        /* Runs the port to the horizon, taking snapshots as needed */
+        void advance(long horizon, long safeTime) {
+            while (port.getTime() < horizon) {
+                int before = departed.size();
+                port.elapseOneMinute();
+                long time = port.getTime();
+                if (departed.size() > before || time == safeTime
+                        || time - checkpoints.peekLast().getTime() >= checkpointInterval) {
+                    checkpoints.addLast(port.checkpoint());
+                }
+            }
+        }
+    }
+}
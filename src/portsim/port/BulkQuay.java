@@ -41,6 +41,16 @@ public class BulkQuay extends Quay implements Encodable {
         return maxTonnage;
     }
 
+    /**
+     * Returns a new, empty BulkQuay with the same ID and capacity as this one.
+     *
+     * @return empty copy of this quay
+     */
+    @Override
+    BulkQuay copy() {
+        return new BulkQuay(getId(), maxTonnage);
+    }
+
     /**
      * Returns the human-readable string representation of this BulkQuay.
      * <p>
@@ -83,23 +93,6 @@ public class BulkQuay extends Quay implements Encodable {
                 this.getMaxTonnage() == ((BulkQuay)o).getMaxTonnage();
     }
 
-    /**
-     * Returns the hash code of this BulkQuay.
-     * Two BulkQuays that are equal according to equals(Object) should have the same hash code.
-     * @return hash code of this quay.
-     */
-    @Override
-    public int hashCode(){
-        String status;
-        if (this.isEmpty()){
-            status = "Empty";
-        }else{
-            status = "Occupied";
-        }
-        String hashCode = getId() + status + getMaxTonnage();
-        return hashCode.hashCode();
-    }
-
     /**
      * Returns the machine-readable string representation of this BulkQuay.
      * The format of the string to return is
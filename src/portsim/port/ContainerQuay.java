@@ -41,6 +41,16 @@ public class ContainerQuay extends Quay implements Encodable {
         return maxContainers;
     }
 
+    /**
+     * Returns a new, empty ContainerQuay with the same ID and capacity as this one.
+     *
+     * @return empty copy of this quay
+     */
+    @Override
+    ContainerQuay copy() {
+        return new ContainerQuay(getId(), maxContainers);
+    }
+
     /**
      * Returns the human-readable string representation of this ContainerQuay.
      * <p>
@@ -84,23 +94,6 @@ public class ContainerQuay extends Quay implements Encodable {
                 this.getMaxContainers() == ((ContainerQuay)o).getMaxContainers();
     }
 
-    /**
-     * Returns the hash code of this ContainerQuay.
-     * Two ContainerQuays that are equal according to equals(Object) should have the same hash code.
-     * @return hash code of this quay.
-     */
-    @Override
-    public int hashCode(){
-        String status;
-        if (this.isEmpty()){
-            status = "Empty";
-        }else{
-            status = "Occupied";
-        }
-        String hashCode = getId() + status + getMaxContainers();
-        return hashCode.hashCode();
-    }
-
     /**
      * Returns the machine-readable string representation of this ContainerQuay.
      * The format of the string to return is
@@ -0,0 +1,321 @@
+package portsim.port;
+
+import portsim.cargo.CargoTable;
+
+import java.util.Arrays;
+
+/**
+ * Index of where the ships and cargo at a port are, kept up to date by the port as ships
+ * queue, dock and depart and as cargo enters and leaves its warehouse.
+ * <p>
+ * A ship is either waiting in the port's ship queue ({@link #QUEUED}), docked at a quay (its
+ * position in {@link Port#getQuays()}), or not at the port at all ({@link #AT_SEA}). The index
+ * also records which cargo is stored in the port's warehouse. Where cargo is across all ports
+ * and ships is recorded by the {@link CargoTable}.
+ * <p>
+ * Lookups by IMO number and cargo ID take constant time, so the port never has to scan its
+ * quays, queue or warehouse to find something. The index only follows changes made through
+ * the port; ships docked or cargo stored by changing the quays or ship queue directly after the
+ * port is created are not seen.
+ */
+public class LocationIndex {
+
+    /**
+     * Location of a ship that is not at the port
+     */
+    public static final int AT_SEA = -2;
+
+    /**
+     * Location of a ship waiting in the port's ship queue
+     */
+    public static final int QUEUED = -1;
+
+    /**
+     * Location, by IMO number, of every ship queued or docked at the port
+     */
+    private final LongIntTable ships;
+
+    /**
+     * Number of copies, by cargo ID, of every piece of cargo in the port's warehouse
+     */
+    private final LongIntTable storedCargo;
+
+    /**
+     * Creates a new, empty location index.
+     */
+    LocationIndex() {
+        this.ships = new LongIntTable();
+        this.storedCargo = new LongIntTable();
+    }
+
+    /* Creates an index holding the given tables */
+    private LocationIndex(LongIntTable ships, LongIntTable storedCargo) {
+        this.ships = ships;
+        this.storedCargo = storedCargo;
+    }
+
+    /**
+     * Returns a new index holding the same locations as this one. The tables are shared until
+     * either index changes them, so this takes constant time.
+     *
+     * @return index sharing this index's locations
+     */
+    LocationIndex share() {
+        return new LocationIndex(ships.share(), storedCargo.share());
+    }
+
+    /**
+     * Returns where the ship with the given IMO number is.
+     *
+     * @param imoNumber IMO number of the ship
+     * @return {@link #QUEUED}, {@link #AT_SEA}, or the position in {@link Port#getQuays()} of
+     * the quay the ship is docked at
+     */
+    public int getShipLocation(long imoNumber) {
+        int location = ships.get(imoNumber);
+        return location == LongIntTable.ABSENT ? AT_SEA : location;
+    }
+
+    /**
+     * Returns the number of ships queued or docked at the port.
+     *
+     * @return number of ships at the port
+     */
+    public int getShipCount() {
+        return ships.size();
+    }
+
+    /**
+     * Returns true if the piece of cargo with the given ID is stored in the port's warehouse.
+     *
+     * @param cargoId ID of the cargo
+     * @return true if the cargo is stored at the port
+     */
+    public boolean isStored(int cargoId) {
+        return storedCargo.get(cargoId) != LongIntTable.ABSENT;
+    }
+
+    /**
+     * Records that the ship with the given IMO number has joined the ship queue.
+     *
+     * @param imoNumber IMO number of the ship
+     */
+    void shipQueued(long imoNumber) {
+        ships.put(imoNumber, QUEUED);
+    }
+
+    /**
+     * Records that the ship with the given IMO number has docked at a quay.
+     *
+     * @param imoNumber    IMO number of the ship
+     * @param quayPosition position of the quay in {@link Port#getQuays()}
+     */
+    void shipDocked(long imoNumber, int quayPosition) {
+        ships.put(imoNumber, quayPosition);
+    }
+
+    /**
+     * Records that the ship with the given IMO number has left the port.
+     *
+     * @param imoNumber IMO number of the ship
+     */
+    void shipLeft(long imoNumber) {
+        ships.remove(imoNumber);
+    }
+
+    /**
+     * Records that a piece of cargo has been added to the port's warehouse.
+     *
+     * @param cargoId ID of the cargo
+     */
+    void cargoStored(int cargoId) {
+        int copies = storedCargo.get(cargoId);
+        storedCargo.put(cargoId, copies == LongIntTable.ABSENT ? 1 : copies + 1);
+    }
+
+    /**
+     * Records that a piece of cargo has been removed from the port's warehouse.
+     *
+     * @param cargoId ID of the cargo
+     */
+    void cargoRemoved(int cargoId) {
+        int copies = storedCargo.get(cargoId);
+        if (copies == 1) {
+            storedCargo.remove(cargoId);
+        } else if (copies != LongIntTable.ABSENT) {
+            storedCargo.put(cargoId, copies - 1);
+        }
+    }
+
+    /**
+     * Removes every ship and piece of cargo from the index.
+     */
+    void clear() {
+        ships.clear();
+        storedCargo.clear();
+    }
+
+    /*
+     * Open addressing hash table from long keys to int values, with linear probing. Entries
+     * are removed by shifting later entries of the same probe run back, so no tombstones are
+     * left behind and lookups stay short however many ships come and go. A table may share its
+     * arrays with a copy, and copies them before its first change.
+     */
+    private static class LongIntTable {
+
+        /**
+         * Value returned for keys not in the table
+         */
+        static final int ABSENT = Integer.MIN_VALUE;
+
+        /**
+         * Key of an empty slot
+         */
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        /**
+         * Slots the table starts with, a power of two
+         */
+        private static final int INITIAL_SLOTS = 64;
+
+        /**
+         * Key in each slot, or {@link #EMPTY}
+         */
+        private long[] keys = newKeys(INITIAL_SLOTS);
+
+        /**
+         * Value in each slot
+         */
+        private int[] values = new int[INITIAL_SLOTS];
+
+        /**
+         * Number of keys in the table
+         */
+        private int size;
+
+        /**
+         * Whether the arrays may also be used by another table
+         */
+        private boolean shared;
+
+        /* Returns a table sharing this table's arrays */
+        LongIntTable share() {
+            LongIntTable copy = new LongIntTable();
+            copy.keys = keys;
+            copy.values = values;
+            copy.size = size;
+            copy.shared = true;
+            shared = true;
+            return copy;
+        }
+
+        /* Copies the arrays if they are shared, so this table can change them */
+        private void own() {
+            if (shared) {
+                keys = keys.clone();
+                values = values.clone();
+                shared = false;
+            }
+        }
+
+        /* Returns the number of keys in the table */
+        int size() {
+            return size;
+        }
+
+        /* Returns the value of the given key, or ABSENT if it is not in the table */
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return ABSENT;
+        }
+
+        /* Sets the value of the given key, adding it if it is not in the table */
+        void put(long key, int value) {
+            own();
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            // half full at most, so probes stay short
+            if (++size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+        }
+
+        /* Removes the given key, if it is in the table */
+        void remove(long key) {
+            own();
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // move back any later entry whose home slot is at or before the gap
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = mix(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+        }
+
+        /* Removes every key from the table */
+        void clear() {
+            own();
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+        }
+
+        /* Rebuilds the table with the given number of slots, a power of two */
+        private void resize(int slots) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(slots);
+            values = new int[slots];
+            int mask = slots - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (keys[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        /* Returns an array of the given number of empty keys */
+        private static long[] newKeys(int slots) {
+            long[] keys = new long[slots];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        /* Spreads sequential keys across the table */
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package portsim.port;
+
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.Ship;
+import portsim.util.NoSuchShipException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only archive of the movements a port has processed, written to a file as they are
+ * processed.
+ * <p>
+ * Set the archive on a port with {@link Port#setMovementArchive(MovementArchive)}, or have the
+ * port create one with {@link Port#archiveMovements(Path, long)}. Every movement is appended to the file as a short binary record: its time, direction and either
+ * the IMO number of the ship or the IDs of the cargo. The movements processed within the
+ * retention window, measured back from the latest movement archived, are also kept in memory.
+ * <p>
+ * Movements can be looked up by time range, and by ship. Ranges that lie entirely within the
+ * retention window are answered from memory. Otherwise the file is read through a sparse index
+ * that records the file offset and the range of times of every {@value #BLOCK_RECORDS}
+ * records, so only the blocks that may hold a matching movement are read.
+ * <p>
+ * Records are never retracted, so the archive must only listen to a port that is never taken
+ * back to an earlier snapshot with {@link Port#restore(PortSnapshot)}, as an optimistic
+ * {@link portsim.network.PortNetwork} rolling a port back or a {@link PortTimeline} seeking
+ * does. The movements such a port processes again would be archived a second time, alongside
+ * movements that were undone.
+ * <p>
+ * Ship movements read back from the file are resolved through the ship registry.
+ */
+public class MovementArchive implements MovementListener, Closeable {
+
+    /**
+     * Number of records in each block of the sparse index
+     */
+    private static final int BLOCK_RECORDS = 256;
+
+    /**
+     * Flag set in a record's kind byte for cargo movements
+     */
+    private static final int CARGO = 2;
+
+    /**
+     * Flag set in a record's kind byte for outbound movements
+     */
+    private static final int OUTBOUND = 1;
+
+    /**
+     * File the archive is written to
+     */
+    private final Path file;
+
+    /**
+     * Stream appending records to the file
+     */
+    private final DataOutputStream out;
+
+    /**
+     * How long movements are kept in memory, in minutes before the latest movement archived
+     */
+    private final long retention;
+
+    /**
+     * Movements within the retention window, in the order they were archived
+     */
+    private final ArrayDeque<Movement> retained = new ArrayDeque<>();
+
+    /**
+     * Latest time of any movement archived
+     */
+    private long latestTime = Long.MIN_VALUE;
+
+    /**
+     * Latest time of any movement dropped from memory. Every movement archived with a later
+     * time is still retained.
+     */
+    private long evictedTime = Long.MIN_VALUE;
+
+    /**
+     * Number of movements archived
+     */
+    private int size;
+
+    /**
+     * Number of bytes written to the file
+     */
+    private long length;
+
+    /**
+     * File offset of the first record in each block
+     */
+    private long[] blockOffsets = new long[16];
+
+    /**
+     * Earliest time of any record in each block
+     */
+    private long[] blockEarliest = new long[16];
+
+    /**
+     * Latest time of any record in each block
+     */
+    private long[] blockLatest = new long[16];
+
+    /**
+     * Creates a new, empty archive written to the given file. Any existing file is replaced.
+     *
+     * @param file      file to write the archive to
+     * @param retention how long processed movements are kept in memory, in minutes
+     * @throws IllegalArgumentException if retention &lt; 0
+     * @throws IOException              if the file cannot be created
+     */
+    public MovementArchive(Path file, long retention)
+            throws IllegalArgumentException, IOException {
+        if (retention < 0) {
+            throw new IllegalArgumentException("Retention must not be negative: " + retention);
+        }
+        this.file = file;
+        this.retention = retention;
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+    }
+
+    /**
+     * Archives the movement processed by the port.
+     *
+     * @param port     port that processed the movement
+     * @param movement movement that was processed
+     * @throws UncheckedIOException if the movement cannot be written to the file
+     */
+    @Override
+    public void onProcessMovement(Port port, Movement movement) {
+        try {
+            archive(movement);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the given movement to the archive.
+     *
+     * @param movement movement to archive
+     * @throws IOException if the movement cannot be written to the file
+     */
+    public void archive(Movement movement) throws IOException {
+        long time = movement.getTime();
+        int block = size / BLOCK_RECORDS;
+        if (size % BLOCK_RECORDS == 0) {
+            if (block == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                blockEarliest = Arrays.copyOf(blockEarliest, block * 2);
+                blockLatest = Arrays.copyOf(blockLatest, block * 2);
+            }
+            blockOffsets[block] = length;
+            blockEarliest[block] = time;
+            blockLatest[block] = time;
+        } else {
+            blockEarliest[block] = Math.min(blockEarliest[block], time);
+            blockLatest[block] = Math.max(blockLatest[block], time);
+        }
+        length += write(movement);
+        size++;
+
+        latestTime = Math.max(latestTime, time);
+        retained.addLast(movement);
+        while (retained.peekFirst().getTime() < latestTime - retention) {
+            evictedTime = Math.max(evictedTime, retained.pollFirst().getTime());
+        }
+    }
+
+    /**
+     * Returns the number of movements archived.
+     *
+     * @return number of movements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns how long processed movements are kept in memory.
+     *
+     * @return retention window, in minutes
+     */
+    public long getRetention() {
+        return retention;
+    }
+
+    /**
+     * Returns the movements still held in memory, in the order they were archived.
+     * <p>
+     * Adding or removing elements from the returned list does not affect the archive.
+     *
+     * @return retained movements
+     */
+    public List<Movement> getRetained() {
+        return new ArrayList<>(retained);
+    }
+
+    /**
+     * Returns every archived movement whose time is between the given times, inclusive, in the
+     * order they were archived.
+     *
+     * @param from earliest time to include
+     * @param to   latest time to include
+     * @return movements in the range
+     * @throws IOException if the archive file cannot be read
+     */
+    public List<Movement> query(long from, long to) throws IOException {
+        return query(from, to, -1);
+    }
+
+    /**
+     * Returns every archived movement of the ship with the given IMO number whose time is
+     * between the given times, inclusive, in the order they were archived.
+     *
+     * @param imoNumber IMO number of the ship
+     * @param from      earliest time to include
+     * @param to        latest time to include
+     * @return movements of the ship in the range
+     * @throws IOException if the archive file cannot be read
+     */
+    public List<Movement> queryShip(long imoNumber, long from, long to) throws IOException {
+        return query(from, to, imoNumber);
+    }
+
+    /**
+     * Flushes and closes the archive file. The archive cannot be added to or read from the
+     * file afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /* Returns the movements in the time range, of the given ship unless imoNumber is -1 */
+    private List<Movement> query(long from, long to, long imoNumber) throws IOException {
+        List<Movement> result = new ArrayList<>();
+        if (from > evictedTime) {
+            for (Movement movement : retained) {
+                if (matches(movement.getTime(), from, to)
+                        && (imoNumber == -1 || isShip(movement, imoNumber))) {
+                    result.add(movement);
+                }
+            }
+            return result;
+        }
+        out.flush();
+        int blocks = (size + BLOCK_RECORDS - 1) / BLOCK_RECORDS;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int block = 0; block < blocks; block++) {
+                if (blockLatest[block] < from || blockEarliest[block] > to) {
+                    continue;
+                }
+                channel.position(blockOffsets[block]);
+                DataInputStream in = new DataInputStream(
+                        new BufferedInputStream(Channels.newInputStream(channel)));
+                int records = Math.min(BLOCK_RECORDS, size - block * BLOCK_RECORDS);
+                for (int record = 0; record < records; record++) {
+                    readInto(in, from, to, imoNumber, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /* Writes the given movement as a record, returning the number of bytes written */
+    private int write(Movement movement) throws IOException {
+        int kind = movement.getDirection() == MovementDirection.OUTBOUND ? OUTBOUND : 0;
+        out.writeLong(movement.getTime());
+        if (movement instanceof CargoMovement) {
+            CargoMovement cargoMovement = (CargoMovement) movement;
+            out.writeByte(kind | CARGO);
+            out.writeInt(cargoMovement.getCargoCount());
+            for (int i = 0; i < cargoMovement.getCargoCount(); i++) {
+                out.writeInt(cargoMovement.getCargoId(i));
+            }
+            return 8 + 1 + 4 + 4 * cargoMovement.getCargoCount();
+        }
+        out.writeByte(kind);
+        out.writeLong(((ShipMovement) movement).getShip().getImoNumber());
+        return 8 + 1 + 8;
+    }
+
+    /* Reads the next record, adding it to the result if it matches the query */
+    private static void readInto(DataInputStream in, long from, long to, long imoNumber,
+                                 List<Movement> result) throws IOException {
+        long time = in.readLong();
+        int kind = in.readByte();
+        MovementDirection direction = (kind & OUTBOUND) != 0
+                ? MovementDirection.OUTBOUND : MovementDirection.INBOUND;
+        if ((kind & CARGO) != 0) {
+            int[] cargoIds = new int[in.readInt()];
+            for (int i = 0; i < cargoIds.length; i++) {
+                cargoIds[i] = in.readInt();
+            }
+            if (imoNumber == -1 && matches(time, from, to)) {
+                result.add(new CargoMovement(time, direction, cargoIds));
+            }
+            return;
+        }
+        long ship = in.readLong();
+        if (matches(time, from, to) && (imoNumber == -1 || ship == imoNumber)) {
+            try {
+                result.add(new ShipMovement(time, direction, Ship.getShipByImoNumber(ship)));
+            } catch (NoSuchShipException e) {
+                throw new IllegalStateException("No ship with IMO number " + ship, e);
+            }
+        }
+    }
+
+    /* Returns true if the time is between the given times, inclusive */
+    private static boolean matches(long time, long from, long to) {
+        return time >= from && time <= to;
+    }
+
+    /* Returns true if the movement is a movement of the ship with the given IMO number */
+    private static boolean isShip(Movement movement, long imoNumber) {
+        return movement instanceof ShipMovement
+                && ((ShipMovement) movement).getShip().getImoNumber() == imoNumber;
+    }
+}
@@ -0,0 +1,19 @@
+package portsim.port;
+
+import portsim.movement.Movement;
+
+/**
+ * Denotes a class that is told about every movement a port processes.
+ * <p>
+ * Unlike a {@link portsim.evaluators.StatisticsEvaluator}, a listener is not part of the
+ * port's saved state.
+ */
+public interface MovementListener {
+    /**
+     * Method to be called after the given port has processed a movement.
+     *
+     * @param port     port that processed the movement
+     * @param movement movement that was processed
+     */
+    void onProcessMovement(Port port, Movement movement);
+}
@@ -0,0 +1,550 @@
+package portsim.port;
+
+import portsim.movement.Movement;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Queue of movements waiting to be processed at a port, ordered by the time of the movement.
+ * Movements with the same time leave the queue in the order they were added.
+ * <p>
+ * Movements are kept in two places: a sorted run, which movements are appended to while they
+ * arrive in time order, and a binary heap for movements that arrive out of order. A schedule
+ * added in time order is therefore appended without any comparisons between movements, and
+ * an unordered batch is heapified in linear time rather than inserted one at a time.
+ * <p>
+ * A queue can be {@linkplain #share() shared} with a new queue in constant time. Both queues
+ * read the same arrays until one of them adds or removes movements out of order, at which
+ * point it copies the part it changes. Polling the sorted run of a shared queue copies nothing.
+ * <p>
+ * Iteration visits every movement but not in time order. The iterator does not support
+ * removal; use {@link #remove(Object)} or {@link #removeIf(Predicate)} instead.
+ */
+public class MovementQueue extends AbstractQueue<Movement> {
+
+    /**
+     * Capacity of a new, empty queue
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Movements in the heap, heap-ordered by time then sequence number
+     */
+    private Movement[] heap = new Movement[INITIAL_CAPACITY];
+
+    /**
+     * Sequence number of each movement in the heap, parallel to {@link #heap}
+     */
+    private long[] heapSequence = new long[INITIAL_CAPACITY];
+
+    /**
+     * Number of movements in the heap
+     */
+    private int heapSize;
+
+    /**
+     * Movements in the sorted run, between {@link #runStart} and {@link #runEnd}
+     */
+    private Movement[] run = new Movement[INITIAL_CAPACITY];
+
+    /**
+     * Sequence number of each movement in the run, parallel to {@link #run}
+     */
+    private long[] runSequence = new long[INITIAL_CAPACITY];
+
+    /**
+     * Index of the first movement in the run
+     */
+    private int runStart;
+
+    /**
+     * Index after the last movement in the run
+     */
+    private int runEnd;
+
+    /**
+     * Sequence number given to the next movement added
+     */
+    private long nextSequence;
+
+    /**
+     * Number of times the queue has been changed, used to detect changes during iteration
+     */
+    private int modCount;
+
+    /**
+     * Whether the heap arrays may also be used by another queue
+     */
+    private boolean heapShared;
+
+    /**
+     * Whether the run arrays may also be used by another queue
+     */
+    private boolean runShared;
+
+    /**
+     * Creates a new, empty movement queue.
+     */
+    public MovementQueue() {
+    }
+
+    /**
+     * Creates a new movement queue holding the same movements as the given queue, which leave
+     * in the same order.
+     *
+     * @param other queue to copy
+     */
+    public MovementQueue(MovementQueue other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Replaces the contents of this queue with those of the given queue.
+     *
+     * @param other queue to copy
+     */
+    void copyFrom(MovementQueue other) {
+        heap = Arrays.copyOf(other.heap, Math.max(other.heapSize, INITIAL_CAPACITY));
+        heapSequence = Arrays.copyOf(other.heapSequence, heap.length);
+        heapSize = other.heapSize;
+        int runSize = other.runEnd - other.runStart;
+        run = Arrays.copyOfRange(other.run, other.runStart,
+                other.runStart + Math.max(runSize, INITIAL_CAPACITY));
+        runSequence = Arrays.copyOfRange(other.runSequence, other.runStart,
+                other.runStart + run.length);
+        runStart = 0;
+        runEnd = runSize;
+        nextSequence = other.nextSequence;
+        heapShared = false;
+        runShared = false;
+        modCount++;
+    }
+
+    /**
+     * Returns a new queue holding the same movements as this one, which leave in the same
+     * order, without copying them. Each queue copies the arrays it shares with the other
+     * before changing them.
+     *
+     * @return queue sharing this queue's movements
+     */
+    MovementQueue share() {
+        MovementQueue copy = new MovementQueue();
+        copy.heap = heap;
+        copy.heapSequence = heapSequence;
+        copy.heapSize = heapSize;
+        copy.run = run;
+        copy.runSequence = runSequence;
+        copy.runStart = runStart;
+        copy.runEnd = runEnd;
+        copy.nextSequence = nextSequence;
+        copy.heapShared = true;
+        copy.runShared = true;
+        heapShared = true;
+        runShared = true;
+        return copy;
+    }
+
+    /**
+     * Adds a movement to the queue.
+     *
+     * @param movement movement to add
+     * @return true
+     * @throws NullPointerException if the movement is null
+     */
+    @Override
+    public boolean offer(Movement movement) {
+        Objects.requireNonNull(movement);
+        if (runStart == runEnd || movement.getTime() >= run[runEnd - 1].getTime()) {
+            appendToRun(movement);
+        } else {
+            ownHeap();
+            ensureHeapCapacity(heapSize + 1);
+            heap[heapSize] = movement;
+            heapSequence[heapSize] = nextSequence++;
+            siftUp(heapSize++);
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Adds all of the given movements to the queue.
+     * <p>
+     * If the movements are in time order and none is earlier than the last movement in the
+     * sorted run, they are appended to the run. Otherwise, a batch at least as large as the
+     * heap is added to the end of the heap and the whole heap is rebuilt in linear time; a
+     * smaller batch is inserted one movement at a time.
+     *
+     * @param movements movements to add
+     * @return true if the queue changed
+     * @throws NullPointerException if any movement is null
+     */
+    @Override
+    public boolean addAll(Collection<? extends Movement> movements) {
+        if (movements == this) {
+            throw new IllegalArgumentException("Cannot add a queue to itself");
+        }
+        Movement[] batch = movements.toArray(new Movement[0]);
+        boolean sorted = true;
+        for (int i = 0; i < batch.length; i++) {
+            Objects.requireNonNull(batch[i]);
+            if (i > 0 && batch[i].getTime() < batch[i - 1].getTime()) {
+                sorted = false;
+            }
+        }
+        if (batch.length == 0) {
+            return false;
+        }
+        if (sorted && (runStart == runEnd
+                || batch[0].getTime() >= run[runEnd - 1].getTime())) {
+            for (Movement movement : batch) {
+                appendToRun(movement);
+            }
+        } else if (batch.length >= heapSize) {
+            ownHeap();
+            ensureHeapCapacity(heapSize + batch.length);
+            for (Movement movement : batch) {
+                heap[heapSize] = movement;
+                heapSequence[heapSize++] = nextSequence++;
+            }
+            heapify();
+        } else {
+            ownHeap();
+            ensureHeapCapacity(heapSize + batch.length);
+            for (Movement movement : batch) {
+                heap[heapSize] = movement;
+                heapSequence[heapSize] = nextSequence++;
+                siftUp(heapSize++);
+            }
+        }
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes and returns the earliest movement in the queue.
+     *
+     * @return earliest movement, or null if the queue is empty
+     */
+    @Override
+    public Movement poll() {
+        if (heapSize == 0 && runStart == runEnd) {
+            return null;
+        }
+        modCount++;
+        if (runFirst()) {
+            Movement movement = run[runStart];
+            if (!runShared) {
+                // a shared run is left as it is, since the other queue may still need it
+                run[runStart] = null;
+            }
+            runStart++;
+            if (runStart == runEnd) {
+                runStart = 0;
+                runEnd = 0;
+                if (runShared) {
+                    run = new Movement[INITIAL_CAPACITY];
+                    runSequence = new long[INITIAL_CAPACITY];
+                    runShared = false;
+                }
+            }
+            return movement;
+        }
+        return removeHeapAt(0);
+    }
+
+    /**
+     * Returns the earliest movement in the queue without removing it.
+     *
+     * @return earliest movement, or null if the queue is empty
+     */
+    @Override
+    public Movement peek() {
+        if (heapSize == 0 && runStart == runEnd) {
+            return null;
+        }
+        return runFirst() ? run[runStart] : heap[0];
+    }
+
+    /**
+     * Returns the number of movements in the queue.
+     *
+     * @return number of movements
+     */
+    @Override
+    public int size() {
+        return heapSize + runEnd - runStart;
+    }
+
+    /**
+     * Removes every movement from the queue.
+     */
+    @Override
+    public void clear() {
+        if (heapShared) {
+            heap = new Movement[INITIAL_CAPACITY];
+            heapSequence = new long[INITIAL_CAPACITY];
+            heapShared = false;
+        } else {
+            Arrays.fill(heap, 0, heapSize, null);
+        }
+        if (runShared) {
+            run = new Movement[INITIAL_CAPACITY];
+            runSequence = new long[INITIAL_CAPACITY];
+            runShared = false;
+        } else {
+            Arrays.fill(run, runStart, runEnd, null);
+        }
+        heapSize = 0;
+        runStart = 0;
+        runEnd = 0;
+        modCount++;
+    }
+
+    /**
+     * Removes the given movement from the queue, if it is present.
+     *
+     * @param o movement to remove
+     * @return true if the movement was removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        for (int i = 0; i < heapSize; i++) {
+            if (heap[i].equals(o)) {
+                removeHeapAt(i);
+                modCount++;
+                return true;
+            }
+        }
+        for (int i = runStart; i < runEnd; i++) {
+            if (run[i].equals(o)) {
+                ownRun();
+                System.arraycopy(run, i + 1, run, i, runEnd - i - 1);
+                System.arraycopy(runSequence, i + 1, runSequence, i, runEnd - i - 1);
+                run[--runEnd] = null;
+                modCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes every movement in the queue matching the given predicate. The heap is rebuilt
+     * once at the end rather than after each removal.
+     *
+     * @param filter predicate matching movements to remove
+     * @return true if any movement was removed
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Movement> filter) {
+        Objects.requireNonNull(filter);
+        ownHeap();
+        ownRun();
+        int heapKept = 0;
+        for (int i = 0; i < heapSize; i++) {
+            if (!filter.test(heap[i])) {
+                heap[heapKept] = heap[i];
+                heapSequence[heapKept++] = heapSequence[i];
+            }
+        }
+        int runKept = runStart;
+        for (int i = runStart; i < runEnd; i++) {
+            if (!filter.test(run[i])) {
+                run[runKept] = run[i];
+                runSequence[runKept++] = runSequence[i];
+            }
+        }
+        if (heapKept == heapSize && runKept == runEnd) {
+            return false;
+        }
+        Arrays.fill(heap, heapKept, heapSize, null);
+        Arrays.fill(run, runKept, runEnd, null);
+        heapSize = heapKept;
+        runEnd = runKept;
+        heapify();
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(movement -> !c.contains(movement));
+    }
+
+    /**
+     * Returns an iterator over the movements in the queue, in no particular order.
+     *
+     * @return iterator over the movements
+     */
+    @Override
+    public Iterator<Movement> iterator() {
+        return new Iterator<Movement>() {
+            private int index;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public Movement next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (index >= size()) {
+                    throw new NoSuchElementException();
+                }
+                int i = index++;
+                return i < heapSize ? heap[i] : run[runStart + i - heapSize];
+            }
+        };
+    }
+
+    /* Returns true if the next movement to leave is at the front of the run, not the heap */
+    private boolean runFirst() {
+        if (runStart == runEnd) {
+            return false;
+        }
+        if (heapSize == 0) {
+            return true;
+        }
+        return compare(run[runStart], runSequence[runStart], heap[0], heapSequence[0]) < 0;
+    }
+
+    /* Copies the heap arrays if they are shared, so this queue can change them */
+    private void ownHeap() {
+        if (heapShared) {
+            heap = heap.clone();
+            heapSequence = heapSequence.clone();
+            heapShared = false;
+        }
+    }
+
+    /* Copies the run arrays if they are shared, so this queue can change them */
+    private void ownRun() {
+        if (runShared) {
+            run = run.clone();
+            runSequence = runSequence.clone();
+            // drop the movements polled while the run was shared
+            Arrays.fill(run, 0, runStart, null);
+            runShared = false;
+        }
+    }
+
+    /* Appends a movement no earlier than the end of the run to the run */
+    private void appendToRun(Movement movement) {
+        ownRun();
+        if (runEnd == run.length) {
+            if (runStart > run.length / 2) {
+                // more than half the run has been polled, so slide it down instead of growing
+                int runSize = runEnd - runStart;
+                System.arraycopy(run, runStart, run, 0, runSize);
+                System.arraycopy(runSequence, runStart, runSequence, 0, runSize);
+                Arrays.fill(run, runSize, runEnd, null);
+                runStart = 0;
+                runEnd = runSize;
+            } else {
+                run = Arrays.copyOf(run, run.length * 2);
+                runSequence = Arrays.copyOf(runSequence, run.length);
+            }
+        }
+        run[runEnd] = movement;
+        runSequence[runEnd++] = nextSequence++;
+    }
+
+    /* Grows the heap arrays to hold at least the given number of movements */
+    private void ensureHeapCapacity(int capacity) {
+        if (capacity > heap.length) {
+            int length = Math.max(capacity, heap.length * 2);
+            heap = Arrays.copyOf(heap, length);
+            heapSequence = Arrays.copyOf(heapSequence, length);
+        }
+    }
+
+    /* Removes and returns the movement at the given heap index */
+    private Movement removeHeapAt(int index) {
+        ownHeap();
+        Movement removed = heap[index];
+        int last = --heapSize;
+        Movement moved = heap[last];
+        heap[last] = null;
+        if (index != last) {
+            heap[index] = moved;
+            heapSequence[index] = heapSequence[last];
+            siftDown(index);
+            if (heap[index] == moved) {
+                siftUp(index);
+            }
+        }
+        return removed;
+    }
+
+    /* Restores the heap order over the whole heap, bottom up (Floyd's method) */
+    private void heapify() {
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /* Moves the movement at the given heap index up until its parent is no later */
+    private void siftUp(int index) {
+        Movement movement = heap[index];
+        long sequence = heapSequence[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(movement, sequence, heap[parent], heapSequence[parent]) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heapSequence[index] = heapSequence[parent];
+            index = parent;
+        }
+        heap[index] = movement;
+        heapSequence[index] = sequence;
+    }
+
+    /* Moves the movement at the given heap index down until its children are no earlier */
+    private void siftDown(int index) {
+        Movement movement = heap[index];
+        long sequence = heapSequence[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && compare(heap[right], heapSequence[right], heap[child],
+                    heapSequence[child]) < 0) {
+                child = right;
+            }
+            if (compare(movement, sequence, heap[child], heapSequence[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapSequence[index] = heapSequence[child];
+            index = child;
+        }
+        heap[index] = movement;
+        heapSequence[index] = sequence;
+    }
+
+    /* Orders movements by time, then by the order they were added */
+    private static int compare(Movement a, long aSequence, Movement b, long bSequence) {
+        int byTime = Long.compare(a.getTime(), b.getTime());
+        return byTime != 0 ? byTime : Long.compare(aSequence, bSequence);
+    }
+}
@@ -1,24 +1,41 @@
 package portsim.port;
 
 import portsim.cargo.Cargo;
+import portsim.cargo.CargoList;
+import portsim.cargo.CargoTable;
 import portsim.evaluators.ShipThroughputEvaluator;
 import portsim.evaluators.StatisticsEvaluator;
+import portsim.metrics.MovementProcessedEvent;
+import portsim.metrics.PortLoadEvent;
+import portsim.metrics.PortSaveEvent;
+import portsim.metrics.ShipDepartedEvent;
+import portsim.metrics.ShipDockedEvent;
+import portsim.metrics.SimulationRecorder;
+import portsim.metrics.TickEvent;
 import portsim.movement.CargoMovement;
 import portsim.movement.Movement;
 import portsim.movement.MovementDirection;
+import portsim.movement.MovementSource;
 import portsim.movement.ShipMovement;
-import portsim.ship.BulkCarrier;
-import portsim.ship.ContainerShip;
 import portsim.ship.Ship;
 import portsim.util.BadEncodingException;
 import portsim.util.Encodable;
-import portsim.util.NoSuchCargoException;
 import portsim.util.Tickable;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * A place where ships can come and dock with Quays to load / unload their
@@ -41,7 +58,7 @@ public class Port implements Encodable, Tickable {
     /**
      * The cargo currently stored at the port at warehouses. Cargo unloaded from trucks / ships
      */
-    private List<Cargo> storedCargo;
+    private CargoList<Cargo> storedCargo;
     /**
      * The time since the simulation was started
      */
@@ -54,11 +71,62 @@ public class Port implements Encodable, Tickable {
     /**
      * priorityQueue
      */
-    private PriorityQueue<Movement> priorityQueue;
+    private MovementQueue priorityQueue;
     /**
      * ShipQueue object
      */
     private ShipQueue shipQueue;
+    /**
+     * Where each ship and piece of cargo at the port is
+     */
+    private LocationIndex locations = new LocationIndex();
+    /**
+     * Time each ship entered the ship queue, by IMO number. Only kept while recording.
+     */
+    private Map<Long, Long> queuedSince = new HashMap<>();
+    /**
+     * Time each ship docked at a quay, by IMO number. Only kept while recording.
+     */
+    private Map<Long, Long> dockedSince = new HashMap<>();
+    /**
+     * Listeners told about every processed movement
+     */
+    private List<MovementListener> movementListeners = new ArrayList<>();
+    /**
+     * Archive processed movements are written to, or null if they are not archived
+     */
+    private MovementArchive movementArchive;
+    /**
+     * Whether statistics evaluators, movement listeners and flight recorder events are left out
+     * of the minutes and movements simulated, while a {@link PortTimeline} replays history they
+     * have already seen
+     */
+    private boolean replaying;
+    /**
+     * Fewest quays a port needs before they are unloaded on more than one thread
+     */
+    public static final int MIN_PARALLEL_QUAYS = 64;
+    /**
+     * Number of threads the quays are unloaded on
+     */
+    private int unloadThreads = 1;
+    /**
+     * Threads the quays are unloaded on, or null when unloading on the calling thread
+     */
+    private ExecutorService unloadExecutor;
+    /**
+     * Source further movements are read from as time advances, or null if there is none
+     */
+    private MovementSource movementSource;
+    /**
+     * Minutes ahead of the current time that movements are read from the movement source
+     */
+    private long movementLookahead;
+    /**
+     * This port's own copies of the ships it works with, by IMO number, if it is a fork made
+     * with {@link #fork()}; null otherwise
+     */
+    private Map<Long, Ship> ownShips;
 
 
 
@@ -70,7 +138,7 @@ public class Port implements Encodable, Tickable {
      * The list of quays in the port, stored cargo (warehouses) and statistics evaluators should be
      * initialised as empty lists.
      * <p>
-     * An empty ShipQueue should be initialised, and a PriorityQueue should be initialised
+     * An empty ShipQueue should be initialised, and a MovementQueue should be initialised
      * to store movements ordered by the time of the movement (see {@link Movement#getTime()}).
      *
      * @param name name of the port
@@ -79,29 +147,24 @@ public class Port implements Encodable, Tickable {
     public Port(String name) {
         this.name = name;
         this.time = 0;
-        this.priorityQueue = new PriorityQueue<>(new Comparator<Movement>() {
-            @Override
-            public int compare(Movement o1, Movement o2) {
-                return Long.compare(o1.getTime(), o2.getTime());
-            }
-        });
-        this.shipQueue = null;
+        this.priorityQueue = new MovementQueue();
+        this.shipQueue = new ShipQueue();
         this.statisticsEvaluator = new ArrayList<>();
         this.quays = new ArrayList<Quay>();
-        this.storedCargo = new ArrayList<Cargo>();
+        this.storedCargo = new CargoList<>();
     }
 
     /**
      * Creates a new port with the given name, time elapsed, ship queue, quays and stored cargo.
      * The list of statistics evaluators should be initialised as an empty list.
      *
-     * A PriorityQueue should be initialised to store movements ordered by the time of the
+     * A MovementQueue should be initialised to store movements ordered by the time of the
      * movement (see Movement.getTime()).
      * @param name - name of the port
      * @param time - number of minutes since simulation started
      * @param shipQueue - ships waiting to enter the port
      * @param quays - the port's quays
-     * @param storedCargo storedCargo - the cargo stored at the port
+     * @param storedCargo storedCargo - the cargo stored at the port, which is copied
      * @throws IllegalArgumentException - if time < 0
      */
 
@@ -114,13 +177,18 @@ public class Port implements Encodable, Tickable {
         this.statisticsEvaluator = new ArrayList<>();
         this.name = name;
         this.quays = quays;
-        this.storedCargo = storedCargo;
+        this.storedCargo = new CargoList<>(storedCargo);
+        for (int i = 0; i < storedCargo.size(); i++) {
+            Cargo.getCargoTable().setLocation(storedCargo.get(i).getId(), CargoTable.WAREHOUSE);
+        }
         this.time = time;
         this.shipQueue = shipQueue;
+        this.priorityQueue = new MovementQueue();
+        indexLocations();
     }
 
     /**
-     * Adds a movement to the PriorityQueue of movements.
+     * Adds a movement to the queue of movements.
      * If the given movement's action time is less than the current number of minutes elapsed
      * than an IllegalArgumentException should be thrown.
      * @param movement  - movement to add
@@ -133,6 +201,102 @@ public class Port implements Encodable, Tickable {
         priorityQueue.add(movement);
     }
 
+    /**
+     * Adds all of the given movements to the queue of movements at once.
+     * <p>
+     * Every movement is checked before any is added, so if an IllegalArgumentException is
+     * thrown the queue is unchanged. Movements given in time order, and no earlier than the
+     * movements already queued, are appended without being compared against the queue, and a
+     * large unordered batch is heapified in one pass rather than inserted one at a time.
+     *
+     * @param movements movements to add
+     * @throws IllegalArgumentException if any movement's action time is less than the current
+     *                                  number of minutes elapsed
+     */
+    public void addMovements(Collection<? extends Movement> movements)
+            throws IllegalArgumentException {
+        for (Movement movement : movements) {
+            if (movement.getTime() < time) {
+                throw new IllegalArgumentException("Movement time " + movement.getTime()
+                        + " is before the current time " + time);
+            }
+        }
+        priorityQueue.addAll(movements);
+    }
+
+    /**
+     * Adds the movements of the given stream to the queue of movements as they are read,
+     * without collecting the stream first.
+     * <p>
+     * The stream is meant for a schedule that is already in time order, such as one read from
+     * a file: every movement no earlier than the last one in the queue's sorted run is appended
+     * to the run without being compared against the rest of the queue. Movements out of order
+     * are still queued correctly, just more slowly. Unlike
+     * {@link #addMovements(Collection)}, the movements read before one that is rejected stay
+     * in the queue.
+     *
+     * @param movements movements to add, preferably in time order
+     * @throws IllegalArgumentException if a movement's action time is less than the current
+     *                                  number of minutes elapsed
+     */
+    public void addMovements(Stream<? extends Movement> movements)
+            throws IllegalArgumentException {
+        Iterator<? extends Movement> schedule = movements.iterator();
+        while (schedule.hasNext()) {
+            Movement movement = schedule.next();
+            if (movement.getTime() < time) {
+                throw new IllegalArgumentException("Movement time " + movement.getTime()
+                        + " is before the current time " + time);
+            }
+            priorityQueue.add(movement);
+        }
+    }
+
+    /**
+     * Reads further movements from the given source as the simulation advances, rather than
+     * queueing the whole schedule up front.
+     * <p>
+     * Movements are read as soon as they fall within {@code lookahead} minutes of the current
+     * time, so at most a look-ahead window of movements from the source is queued at once. The
+     * window is filled straight away and then topped up at the start of each minute's movement
+     * processing. The port does not close the source.
+     * <p>
+     * Restoring a {@link PortSnapshot} does not rewind the source, so a port reading from a
+     * source should not be rolled back to before the last movement it read.
+     *
+     * @param source    source to read movements from, or null to stop reading
+     * @param lookahead minutes ahead of the current time to read movements
+     * @throws IllegalArgumentException if lookahead &lt; 0, or the source holds a movement
+     *                                  earlier than the current time
+     * @throws UncheckedIOException if the source could not be read
+     * @throws IllegalStateException if the source holds a movement that cannot be decoded
+     */
+    public void setMovementSource(MovementSource source, long lookahead)
+            throws IllegalArgumentException {
+        if (lookahead < 0) {
+            throw new IllegalArgumentException("Lookahead must not be negative: " + lookahead);
+        }
+        this.movementSource = source;
+        this.movementLookahead = lookahead;
+        if (source != null) {
+            readMovements();
+        }
+    }
+
+    /* Queues every movement in the movement source within the look-ahead window */
+    private void readMovements() {
+        long horizon = time + movementLookahead;
+        try {
+            while (movementSource.hasNext() && movementSource.nextTime() <= horizon) {
+                addMovement(movementSource.next());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (BadEncodingException e) {
+            throw new IllegalStateException("Could not read movement at " + name, e);
+        }
+    }
+
     /**
      * Processes a movement.
      * The action taken depends on the type of movement to be processed.
@@ -155,44 +319,115 @@ public class Port implements Encodable, Tickable {
     public void processMovement​(Movement movement){
         if(movement instanceof ShipMovement){
             if(movement.getDirection().equals(MovementDirection.OUTBOUND)){
-                Ship ship = ((ShipMovement)movement).getShip();
-                for(int i=0; i<quays.size();i++){
-                    if(quays.get(i).getShip()==ship){
-                        quays.get(i).shipDeparts();
-                        quays.remove(i);
-                    }
+                Ship ship = own(((ShipMovement)movement).getShip());
+                int quayId = -1;
+                int position = locations.getShipLocation(ship.getImoNumber());
+                if (position < 0) {
+                    // docked without the port's knowledge, e.g. straight onto a quay
+                    position = dockedPosition(ship);
+                }
+                if (position >= 0) {
+                    quayId = quays.get(position).getId();
+                    quays.get(position).shipDeparts();
+                    locations.shipLeft(ship.getImoNumber());
                 }
-                for (int i=0; i<storedCargo.size();i++){
-                    if(storedCargo.get(i).getDestination().equals(ship.getOriginFlag()) && ship.canLoad(storedCargo.get(i))){
-                            ship.loadCargo(storedCargo.get(i));
+                if (isRecording()) {
+                    ShipDepartedEvent event = new ShipDepartedEvent();
+                    event.port = name;
+                    event.quayId = quayId;
+                    event.imoNumber = ship.getImoNumber();
+                    Long docked = dockedSince.remove(ship.getImoNumber());
+                    event.dockedTime = docked == null ? -1 : time - docked;
+                    event.commit();
+                }
+                // loaded cargo leaves the warehouse; the rest is packed towards the front
+                int kept = 0;
+                for (int i = 0; i < storedCargo.size(); i++) {
+                    Cargo cargo = storedCargo.get(i);
+                    if (cargo.getDestinationCode() == ship.getOriginCode()
+                            && ship.canLoad(cargo)) {
+                        ship.loadCargo(cargo);
+                        locations.cargoRemoved(cargo.getId());
+                    } else {
+                        if (kept != i) {
+                            storedCargo.set(kept, cargo);
+                        }
+                        kept++;
                     }
                 }
+                while (storedCargo.size() > kept) {
+                    storedCargo.remove(storedCargo.size() - 1);
+                }
 
             }else{
-                Ship ship = ((ShipMovement)movement).getShip();
+                Ship ship = own(((ShipMovement)movement).getShip());
                 shipQueue.add​(ship);
+                locations.shipQueued(ship.getImoNumber());
+                if (isRecording()) {
+                    queuedSince.put(ship.getImoNumber(), time);
+                }
             }
         } else if(movement instanceof CargoMovement){
-            List<Cargo> cargo = new ArrayList<>(((CargoMovement)movement).getCargo());
+            CargoMovement cargoMovement = (CargoMovement) movement;
             if(movement.getDirection().equals(MovementDirection.OUTBOUND)){
-                for (int i=0; i<cargo.size();i++){
+                for (int i=0; i<cargoMovement.getCargoCount();i++){
+                    int id = cargoMovement.getCargoId(i);
+                    if (!locations.isStored(id)) {
+                        continue;
+                    }
                     for(int j=0;j<storedCargo.size();j++){
-                        if(cargo.get(i).getId() == storedCargo.get(j).getId()){
+                        if(storedCargo.get(j).getId() == id){
                             storedCargo.remove(j);
+                            locations.cargoRemoved(id);
+                            setCargoLocation(id, CargoTable.IN_TRANSIT);
+                            break;
                         }
                     }
                 }
             }else {
-                storedCargo.addAll(cargo);
+                for (int i=0; i<cargoMovement.getCargoCount();i++){
+                    storedCargo.add(cargoMovement.getCargo(i));
+                    locations.cargoStored(cargoMovement.getCargoId(i));
+                    setCargoLocation(cargoMovement.getCargoId(i), CargoTable.WAREHOUSE);
+                }
 
             }
 
         }
 
-       for(int i=0; i<statisticsEvaluator.size();i++){
+       for(int i=0; !replaying && i<statisticsEvaluator.size();i++){
            statisticsEvaluator.get(i).onProcessMovement​(movement);
        }
+       for(int i=0; !replaying && i<movementListeners.size();i++){
+           movementListeners.get(i).onProcessMovement(this, movement);
+       }
 
+        if (isRecording()) {
+            recordMovementProcessed(movement);
+        }
+    }
+
+    /*
+     * Returns true if flight recorder events should be emitted for the minutes and movements
+     * simulated, which they are not while replaying history already recorded
+     */
+    private boolean isRecording() {
+        return !replaying && SimulationRecorder.isRecording();
+    }
+
+    /* Emits a flight recorder event describing the given processed movement */
+    private void recordMovementProcessed(Movement movement) {
+        MovementProcessedEvent event = new MovementProcessedEvent();
+        event.port = name;
+        event.time = movement.getTime();
+        event.movementType = movement.getClass().getSimpleName();
+        event.direction = movement.getDirection().name();
+        if (movement instanceof ShipMovement) {
+            event.imoNumber = ((ShipMovement) movement).getShip().getImoNumber();
+        } else if (movement instanceof CargoMovement) {
+            event.cargoCount = ((CargoMovement) movement).getCargoCount();
+        }
+        event.commit();
     }
 
     /**
@@ -206,6 +441,85 @@ public class Port implements Encodable, Tickable {
         }
     }
 
+    /**
+     * Adds a listener to be told about every movement processed by this port, after the
+     * statistics evaluators.
+     *
+     * @param listener listener to add
+     */
+    public void addMovementListener(MovementListener listener) {
+        movementListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener previously added with {@link #addMovementListener(MovementListener)}.
+     *
+     * @param listener listener to remove
+     */
+    public void removeMovementListener(MovementListener listener) {
+        movementListeners.remove(listener);
+    }
+
+    /**
+     * Archives every movement this port processes from now on to the given file, keeping the
+     * movements processed within the last {@code retention} minutes in memory as well. Replaces
+     * any archive previously set, as {@link #setMovementArchive(MovementArchive)} does.
+     *
+     * @param file      file to write the archive to; any existing file is replaced
+     * @param retention how long processed movements are kept in memory, in minutes
+     * @return the new archive
+     * @throws IllegalArgumentException if retention &lt; 0
+     * @throws IOException              if the file cannot be created
+     */
+    public MovementArchive archiveMovements(Path file, long retention)
+            throws IllegalArgumentException, IOException {
+        MovementArchive archive = new MovementArchive(file, retention);
+        setMovementArchive(archive);
+        return archive;
+    }
+
+    /**
+     * Sets the archive that every movement this port processes from now on is written to.
+     * <p>
+     * Processed movements are polled from the movement queue, so the port itself keeps no
+     * record of them; the archive is where they can be looked up afterwards. The archive is
+     * told about each movement after the statistics evaluators, like any movement listener.
+     * The port does not close the archive, including one it replaces. Since an archive cannot
+     * retract movements, a port with an archive should not be restored to a
+     * {@link PortSnapshot}.
+     *
+     * @param archive archive to write processed movements to, or null to stop archiving
+     */
+    public void setMovementArchive(MovementArchive archive) {
+        if (movementArchive != null) {
+            movementListeners.remove(movementArchive);
+        }
+        movementArchive = archive;
+        if (archive != null) {
+            movementListeners.add(archive);
+        }
+    }
+
+    /**
+     * Returns the archive processed movements are written to.
+     *
+     * @return movement archive, or null if processed movements are not archived
+     */
+    public MovementArchive getMovementArchive() {
+        return movementArchive;
+    }
+
+    /**
+     * Sets whether the port is replaying history, in which case its statistics evaluators and
+     * movement listeners are not told about the minutes and movements it simulates, and no
+     * flight recorder events are emitted for them.
+     *
+     * @param replaying whether the port is replaying history
+     */
+    void setReplaying(boolean replaying) {
+        this.replaying = replaying;
+    }
+
     /**
      *  Returns the time since simulation started
      * @return time in minutes
@@ -214,6 +528,129 @@ public class Port implements Encodable, Tickable {
         return time;
     }
 
+    /**
+     * Returns an independent branch of this port, for asking what would happen if the
+     * simulation took a different course from here, such as a quay closing.
+     * <p>
+     * The fork starts at the same time with the same quays, ship queue, stored cargo and
+     * pending movements. Changing or running either port does not affect the other. The
+     * stored cargo, movement queue and location index are shared with this port and only
+     * copied when either port first changes them, so forking does not depend on how much cargo
+     * the port holds. The quays, and every ship docked, queued or due to move in a pending
+     * movement, are copied straight away with {@link Ship#copy()}, so the fork sees each ship
+     * as it is at the fork however this port runs on, never changes the original ships, and
+     * does not record cargo locations in the cargo table.
+     * <p>
+     * Forking marks this port's stored cargo, movement queue and location index as shared and
+     * reads its ships, so it must be called on the thread that runs this port, or while this
+     * port is not running. Once made, a fork has no statistics evaluators, movement listeners
+     * or movement source, unloads its quays on one thread, and may run on any thread alongside
+     * this port and its other forks. Ships in movements later added to a fork are copied when
+     * the fork first processes one of their movements.
+     *
+     * @return fork of this port
+     */
+    public Port fork() {
+        return new Port(this);
+    }
+
+    /* Creates a fork of the given port, see fork() */
+    private Port(Port parent) {
+        this.name = parent.name;
+        this.time = parent.time;
+        this.statisticsEvaluator = new ArrayList<>();
+        this.ownShips = new HashMap<>();
+        if (parent.ownShips != null) {
+            for (Ship ship : parent.ownShips.values()) {
+                ownShips.put(ship.getImoNumber(), ship.copy());
+            }
+        }
+        this.quays = new ArrayList<>(parent.quays.size());
+        for (Quay quay : parent.quays) {
+            Quay copy = quay.copy();
+            if (!quay.isEmpty()) {
+                copy.shipArrives(own(quay.getShip()));
+            }
+            quays.add(copy);
+        }
+        this.shipQueue = new ShipQueue();
+        for (Ship ship : parent.shipQueue.getShipQueue()) {
+            shipQueue.add(own(ship));
+        }
+        // ships at sea are copied now too, since the parent may go on to load or unload them
+        for (Movement movement : parent.priorityQueue) {
+            if (movement instanceof ShipMovement) {
+                own(((ShipMovement) movement).getShip());
+            }
+        }
+        this.storedCargo = parent.storedCargo.share();
+        this.priorityQueue = parent.priorityQueue.share();
+        this.locations = parent.locations.share();
+        this.queuedSince = new HashMap<>(parent.queuedSince);
+        this.dockedSince = new HashMap<>(parent.dockedSince);
+    }
+
+    /* Returns the ship this port works with for the given one: itself, or a fork's copy */
+    private Ship own(Ship ship) {
+        if (ownShips == null) {
+            return ship;
+        }
+        Ship own = ownShips.get(ship.getImoNumber());
+        if (own == null) {
+            own = ship.copy();
+            ownShips.put(ship.getImoNumber(), own);
+        }
+        return own;
+    }
+
+    /* Returns the position of the quay the given ship is docked at, or -1 if it is not docked */
+    private int dockedPosition(Ship ship) {
+        for (int i = 0; i < quays.size(); i++) {
+            Ship docked = quays.get(i).getShip();
+            if (docked != null && docked.getImoNumber() == ship.getImoNumber()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* Records the location of a piece of cargo in the cargo table, unless this is a fork */
+    private void setCargoLocation(int id, long location) {
+        if (ownShips == null) {
+            Cargo.getCargoTable().setLocation(id, location);
+        }
+    }
+
+    /**
+     * Docks the given ship at the given empty quay of this port straight away, without it
+     * waiting in the ship queue.
+     *
+     * @param ship ship to dock
+     * @param quay quay to dock the ship at
+     * @throws IllegalArgumentException if the quay is not one of this port's quays, or is
+     *                                  not empty
+     */
+    public void dockShip(Ship ship, Quay quay) throws IllegalArgumentException {
+        int position = quays.indexOf(quay);
+        if (position < 0) {
+            throw new IllegalArgumentException("Quay " + quay.getId() + " is not at " + name);
+        }
+        if (!quay.isEmpty()) {
+            throw new IllegalArgumentException("Quay " + quay.getId() + " is occupied");
+        }
+        quay.shipArrives(own(ship));
+        locations.shipDocked(ship.getImoNumber(), position);
+    }
+
+    /**
+     * Returns the index of where the ships and cargo at this port are.
+     *
+     * @return port's location index
+     */
+    public LocationIndex getLocationIndex() {
+        return locations;
+    }
+
     /**
      * Returns the queue of ships waiting to be docked at this port.
      * @return port's queue of ships
@@ -226,7 +663,7 @@ public class Port implements Encodable, Tickable {
      * Returns the queue of movements waiting to be processed.
      * @return movements queue
      */
-    public PriorityQueue<Movement> getMovements(){
+    public MovementQueue getMovements(){
         return priorityQueue;
     }
 
@@ -276,6 +713,36 @@ public class Port implements Encodable, Tickable {
         return new ArrayList<>(this.storedCargo);
     }
 
+    /**
+     * Returns the number of quays associated with this port.
+     *
+     * @return number of quays
+     */
+    public int getQuayCount() {
+        return this.quays.size();
+    }
+
+    /**
+     * Returns the quay at the given position in the order quays were added.
+     *
+     * @param index position of the quay
+     * @return quay at the position
+     * @throws IndexOutOfBoundsException if index &lt; 0 or index &ge; getQuayCount()
+     */
+    public Quay getQuay(int index) {
+        return this.quays.get(index);
+    }
+
+    /**
+     * Returns the number of pieces of cargo stored in warehouses at this port, without
+     * copying them as {@link #getCargo()} does.
+     *
+     * @return number of stored cargo
+     */
+    public int getCargoCount() {
+        return this.storedCargo.size();
+    }
+
     /**
      * Adds a quay to the ports control.
      *
@@ -302,55 +769,238 @@ public class Port implements Encodable, Tickable {
      * Call StatisticsEvaluator.elapseOneMinute() on all statistics evaluators
      */
     @Override
-    public void elapseOneMinute() throws NoSuchCargoException {
+    public void elapseOneMinute() {
         time++;
-        if(time%10==0){
+        TickEvent tick = isRecording() ? new TickEvent(name, time) : null;
+        if(time%10==0 && shipQueue.peek() != null){
             for(int i=0; i<quays.size(); i++){
-                if(shipQueue.peek().canDock(quays.get(i))){
-                    quays.get(i).shipArrives(shipQueue.poll());
+                if(quays.get(i).isEmpty() && shipQueue.peek().canDock(quays.get(i))){
+                    Ship ship = shipQueue.poll();
+                    quays.get(i).shipArrives(ship);
+                    locations.shipDocked(ship.getImoNumber(), i);
+                    if (tick != null) {
+                        recordShipDocked(ship, quays.get(i));
+                    }
                     break;
                 }
             }
 
         }
+        if (tick != null) {
+            tick.dockingFinished();
+        }
         if(time%5==0){
-            for(int i=0; i<quays.size(); i++){
-                if(!quays.get(i).isEmpty()){
-                   Ship ship = quays.get(i).getShip();
-                   if(ship instanceof BulkCarrier){
-                       storedCargo.add(((BulkCarrier)ship).getCargo());
-                       try{
-                           ((BulkCarrier)ship).unloadCargo();
-
-                       }catch (Exception e){
-
-                       }
+            int stored = storedCargo.size();
+            unloadQuays();
+            for (int i = stored; i < storedCargo.size(); i++) {
+                locations.cargoStored(storedCargo.get(i).getId());
+            }
+        }
+        if (tick != null) {
+            tick.unloadingFinished();
+        }
 
-                   }else if(ship instanceof ContainerShip){
-                       storedCargo.addAll(((ContainerShip)ship).getCargo());
-                       try{
-                           ((ContainerShip)ship).unloadCargo();
-                       }catch (Exception e){
+        if (movementSource != null) {
+            readMovements();
+        }
+        int processed = 0;
+        while (!priorityQueue.isEmpty() && priorityQueue.peek().getTime() <= time) {
+            processMovement(priorityQueue.poll());
+            processed++;
+        }
+        if (tick != null) {
+            tick.movementsFinished(processed);
+        }
 
-                       }
+        for(int i=0; !replaying && i<statisticsEvaluator.size();i++){
+            statisticsEvaluator.get(i).elapseOneMinute();
+        }
+        if (tick != null) {
+            tick.evaluatorsFinished();
+        }
+}
 
-                   }
+    /*
+     * Unloads the ships docked at every quay into the warehouse. With more than one unload
+     * thread, contiguous shards of quays are unloaded into their own buffers at once, and the
+     * buffers are then appended in quay order, so the warehouse ends up as it would serially.
+     */
+    private void unloadQuays() {
+        if (unloadThreads == 1 || quays.size() < MIN_PARALLEL_QUAYS) {
+            for (int i = 0; i < quays.size(); i++) {
+                unloadQuay(quays.get(i), storedCargo);
+            }
+            return;
+        }
+        // several shards per thread so quays with more cargo still keep every thread busy
+        int shards = Math.min(quays.size(), unloadThreads * 4);
+        List<Future<CargoList<Cargo>>> buffers = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int start = (int) ((long) quays.size() * shard / shards);
+            int end = (int) ((long) quays.size() * (shard + 1) / shards);
+            buffers.add(unloadExecutor.submit(() -> {
+                CargoList<Cargo> buffer = new CargoList<>();
+                for (int i = start; i < end; i++) {
+                    unloadQuay(quays.get(i), buffer);
+                }
+                return buffer;
+            }));
+        }
+        for (Future<CargoList<Cargo>> buffer : buffers) {
+            try {
+                buffer.get().transferTo(storedCargo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while unloading quays", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
                 }
+                throw new IllegalStateException(e.getCause());
             }
         }
+    }
+
+    /* Unloads the ship docked at the given quay, if any, adding its cargo to the given list */
+    private void unloadQuay(Quay quay, CargoList<Cargo> into) {
+        if (quay.isEmpty()) {
+            return;
+        }
+        int start = into.size();
+        quay.getShip().tryUnloadInto(into);
+        for (int i = start; i < into.size(); i++) {
+            setCargoLocation(into.get(i).getId(), CargoTable.WAREHOUSE);
+        }
+    }
+
+    /**
+     * Sets the number of threads used to unload the ships docked at this port's quays every
+     * five minutes. Ports with fewer than {@value #MIN_PARALLEL_QUAYS} quays are always unloaded
+     * on the calling thread.
+     * <p>
+     * The cargo stored at the port is the same, and in the same order, whatever the number of
+     * threads. The threads are started straight away, and setting the number back to 1
+     * releases them.
+     *
+     * @param threads number of threads to unload quays on
+     * @throws IllegalArgumentException if threads &lt; 1
+     */
+    public void setUnloadThreads(int threads) throws IllegalArgumentException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        if (unloadExecutor != null) {
+            unloadExecutor.shutdown();
+            unloadExecutor = null;
+        }
+        this.unloadThreads = threads;
+        if (threads > 1) {
+            // started now so that the first unloading tick does not pay for them
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0,
+                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "port-unload");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.prestartAllCoreThreads();
+            unloadExecutor = executor;
+        }
+    }
+
+    /**
+     * Returns the number of threads used to unload the ships docked at this port's quays.
+     *
+     * @return number of unload threads
+     */
+    public int getUnloadThreads() {
+        return unloadThreads;
+    }
+
+    /* Emits a flight recorder event for a ship that has just docked at the given quay */
+    private void recordShipDocked(Ship ship, Quay quay) {
+        ShipDockedEvent event = new ShipDockedEvent();
+        event.port = name;
+        event.quayId = quay.getId();
+        event.imoNumber = ship.getImoNumber();
+        Long queued = queuedSince.remove(ship.getImoNumber());
+        event.waitTime = queued == null ? -1 : time - queued;
+        event.commit();
+        dockedSince.put(ship.getImoNumber(), time);
+    }
+
+    /**
+     * Takes a snapshot of the current state of this port, including the cargo on board the
+     * ships at the port, that it can later be restored to with {@link #restore(PortSnapshot)}.
+     *
+     * @return snapshot of this port
+     */
+    public PortSnapshot checkpoint() {
+        Ship[] docked = new Ship[quays.size()];
+        for (int i = 0; i < quays.size(); i++) {
+            docked[i] = quays.get(i).getShip();
+        }
+        return new PortSnapshot(time, docked, shipQueue.getShipQueue(),
+                new ArrayList<>(storedCargo), new MovementQueue(priorityQueue), queuedSince,
+                dockedSince);
+    }
 
-        for (Movement movement: priorityQueue) {
-            if(movement.getTime() == time){
-                for(int i=0; i<statisticsEvaluator.size();i++){
-                    statisticsEvaluator.get(i).onProcessMovement​(movement);
+    /**
+     * Restores this port to the state recorded in the given snapshot, which must have been
+     * taken from this port. The quays of the port must not have changed since.
+     * <p>
+     * Statistics evaluators keep their current state, and are not told about movements being
+     * undone.
+     *
+     * @param snapshot snapshot to restore
+     * @throws IllegalArgumentException if the number of quays has changed
+     */
+    public void restore(PortSnapshot snapshot) throws IllegalArgumentException {
+        if (snapshot.docked.length != quays.size()) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.docked.length
+                    + " quays but the port has " + quays.size());
+        }
+        time = snapshot.time;
+        for (int i = 0; i < quays.size(); i++) {
+            Quay quay = quays.get(i);
+            if (quay.getShip() != snapshot.docked[i]) {
+                quay.shipDeparts();
+                if (snapshot.docked[i] != null) {
+                    quay.shipArrives(snapshot.docked[i]);
                 }
             }
+        }
+        shipQueue = new ShipQueue();
+        for (Ship ship : snapshot.queued) {
+            shipQueue.add(ship);
+        }
+        storedCargo = new CargoList<>(snapshot.storedCargo);
+        for (int i = 0; i < storedCargo.size(); i++) {
+            setCargoLocation(storedCargo.get(i).getId(), CargoTable.WAREHOUSE);
+        }
+        priorityQueue.copyFrom(snapshot.movements);
+        for (PortSnapshot.ShipState ship : snapshot.ships) {
+            ship.restore();
+        }
+        queuedSince = new HashMap<>(snapshot.queuedSince);
+        dockedSince = new HashMap<>(snapshot.dockedSince);
+        indexLocations();
     }
 
-        for(int i=0; i<statisticsEvaluator.size();i++){
-            statisticsEvaluator.get(i).elapseOneMinute();
+    /* Rebuilds the location index from the ship queue, quays and warehouse */
+    private void indexLocations() {
+        locations.clear();
+        for (Ship ship : shipQueue.getShipQueue()) {
+            locations.shipQueued(ship.getImoNumber());
         }
-}
+        for (int i = 0; i < quays.size(); i++) {
+            if (!quays.get(i).isEmpty()) {
+                locations.shipDocked(quays.get(i).getShip().getImoNumber(), i);
+            }
+        }
+        for (int i = 0; i < storedCargo.size(); i++) {
+            locations.cargoStored(storedCargo.get(i).getId());
+        }
+    }
 
     /**
      * Returns the machine-readable string representation of this Port.
@@ -415,6 +1065,11 @@ public class Port implements Encodable, Tickable {
      */
     @Override
     public String encode(){
+        PortSaveEvent saveEvent = null;
+        if (SimulationRecorder.isRecording()) {
+            saveEvent = new PortSaveEvent();
+            saveEvent.begin();
+        }
 
         List<String> results = new ArrayList<>();
         List<String> cargoId = new ArrayList<>();
@@ -422,7 +1077,7 @@ public class Port implements Encodable, Tickable {
 
         results.add(name);
         results.add(String.valueOf(getTime()));
-        results.add(String.valueOf(Cargo.getCargoRegistry().size()));
+        results.add(String.valueOf(Cargo.getCargoCount()));
         for(Cargo cargo: Cargo.getCargoRegistry().values()){
             results.add(cargo.toString());
         }
@@ -447,7 +1102,13 @@ public class Port implements Encodable, Tickable {
             evals.add(eval.getClass().getSimpleName());
         }
         results.add("Evaluators:" + statisticsEvaluator.size() + ":" + String.join(",", evals));
-        return String.join("\n", results);
+        String encoded = String.join("\n", results);
+        if (saveEvent != null) {
+            saveEvent.port = name;
+            saveEvent.size = encoded.getBytes(StandardCharsets.UTF_8).length;
+            saveEvent.commit();
+        }
+        return encoded;
 
     }
 
@@ -532,6 +1193,11 @@ public class Port implements Encodable, Tickable {
 
     public static Port initialisePort​(Reader reader) throws IOException, BadEncodingException {
 
+        PortLoadEvent loadEvent = null;
+        if (SimulationRecorder.isRecording()) {
+            loadEvent = new PortLoadEvent();
+            loadEvent.begin();
+        }
         BufferedReader bufferedReader = new BufferedReader(reader);
         List<String> results = new ArrayList<>();
         String line;
@@ -578,6 +1244,11 @@ public class Port implements Encodable, Tickable {
         }catch (Exception e){
 
             
+        }
+        if (loadEvent != null) {
+            loadEvent.port = port == null ? null : port.getName();
+            loadEvent.lines = results.size();
+            loadEvent.commit();
         }
         return port;
     }
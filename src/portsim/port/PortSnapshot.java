@@ -0,0 +1,202 @@
+package portsim.port;
+
+import portsim.cargo.BulkCargo;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.Ship;
+import portsim.util.NoSuchCargoException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a {@link Port} at one point in time, which the port can later be restored to.
+ * <p>
+ * Includes the cargo on board every ship waiting in the queue or docked at a quay, since
+ * processing the port changes it. Statistics evaluators and movement listeners are not part
+ * of the snapshot.
+ *
+ * @see Port#checkpoint()
+ * @see Port#restore(PortSnapshot)
+ */
+public final class PortSnapshot {
+
+    /**
+     * Time of the port when the snapshot was taken
+     */
+    final long time;
+
+    /**
+     * Ship docked at each quay, in quay order, or null for empty quays
+     */
+    final Ship[] docked;
+
+    /**
+     * Ships waiting in the queue, in the order they leave it
+     */
+    final List<Ship> queued;
+
+    /**
+     * Cargo stored at the port
+     */
+    final List<Cargo> storedCargo;
+
+    /**
+     * Movements waiting to be processed
+     */
+    final MovementQueue movements;
+
+    /**
+     * Cargo on board the ships at the port
+     */
+    final List<ShipState> ships;
+
+    /**
+     * Recording bookkeeping, see Port
+     */
+    final Map<Long, Long> queuedSince;
+    final Map<Long, Long> dockedSince;
+
+    PortSnapshot(long time, Ship[] docked, List<Ship> queued, List<Cargo> storedCargo,
+                 MovementQueue movements, Map<Long, Long> queuedSince,
+                 Map<Long, Long> dockedSince) {
+        this.time = time;
+        this.docked = docked;
+        this.queued = queued;
+        this.storedCargo = storedCargo;
+        this.movements = movements;
+        this.queuedSince = new HashMap<>(queuedSince);
+        this.dockedSince = new HashMap<>(dockedSince);
+        this.ships = new ArrayList<>(queued.size() + docked.length);
+        for (Ship ship : queued) {
+            ships.add(ShipState.of(ship));
+        }
+        for (Ship ship : docked) {
+            if (ship != null) {
+                ships.add(ShipState.of(ship));
+            }
+        }
+    }
+
+    /**
+     * Returns the time of the port when this snapshot was taken.
+     *
+     * @return time in minutes
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns a rough estimate of the memory taken up by this snapshot, counting a reference
+     * for every ship, piece of cargo and movement it holds. The ships, cargo and movements
+     * themselves are shared with the port and are not counted.
+     *
+     * @return estimated size in bytes
+     */
+    long estimateBytes() {
+        long references = docked.length + queued.size() + storedCargo.size()
+                + movements.size();
+        // hash map entries take up several references each
+        references += 6L * (queuedSince.size() + dockedSince.size());
+        long bytes = 256 + 8 * references;
+        for (ShipState ship : ships) {
+            bytes += ship.estimateBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * The cargo on board a ship at one point in time.
+     */
+    public static final class ShipState {
+
+        /**
+         * Ship the state belongs to
+         */
+        private final Ship ship;
+
+        /**
+         * Containers on board a container ship, or null for other ships
+         */
+        private final List<Container> containers;
+
+        /**
+         * Cargo on board a bulk carrier, or null if it is empty or not a bulk carrier
+         */
+        private final BulkCargo bulkCargo;
+
+        private ShipState(Ship ship, List<Container> containers, BulkCargo bulkCargo) {
+            this.ship = ship;
+            this.containers = containers;
+            this.bulkCargo = bulkCargo;
+        }
+
+        /**
+         * Records the cargo currently on board the given ship.
+         *
+         * @param ship ship to record
+         * @return state of the ship
+         */
+        public static ShipState of(Ship ship) {
+            if (ship instanceof ContainerShip) {
+                return new ShipState(ship, ((ContainerShip) ship).getCargo(), null);
+            }
+            if (ship instanceof BulkCarrier) {
+                return new ShipState(ship, null, ((BulkCarrier) ship).getCargo());
+            }
+            return new ShipState(ship, null, null);
+        }
+
+        /**
+         * Returns the ship this state belongs to.
+         *
+         * @return ship
+         */
+        public Ship getShip() {
+            return ship;
+        }
+
+        /**
+         * Returns a rough estimate of the memory taken up by this state, counting a reference
+         * for every piece of cargo it holds.
+         *
+         * @return estimated size in bytes
+         */
+        long estimateBytes() {
+            return 8L * (4 + (containers == null ? 0 : containers.size()));
+        }
+
+        /**
+         * Puts the recorded cargo back on board the ship, replacing what it carries now.
+         */
+        public void restore() {
+            try {
+                if (ship instanceof ContainerShip) {
+                    ContainerShip containerShip = (ContainerShip) ship;
+                    if (!containerShip.getCargo().isEmpty()) {
+                        containerShip.unloadCargo();
+                    }
+                    for (Container container : containers) {
+                        containerShip.loadCargo(container);
+                    }
+                } else if (ship instanceof BulkCarrier) {
+                    BulkCarrier bulkCarrier = (BulkCarrier) ship;
+                    if (bulkCarrier.getCargo() != null) {
+                        bulkCarrier.unloadCargo();
+                    }
+                    if (bulkCargo != null) {
+                        bulkCarrier.loadCargo(bulkCargo);
+                    }
+                }
+            } catch (NoSuchCargoException e) {
+                // only unloaded after checking there is cargo on board
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
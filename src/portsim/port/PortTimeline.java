@@ -0,0 +1,407 @@
+package portsim.port;
+
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.Ship;
+import portsim.util.Tickable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * History of a port as it is simulated, which the port can be rewound and fast-forwarded
+ * through to any minute between the start of the history and the latest minute simulated.
+ * <p>
+ * The timeline takes a {@link PortSnapshot} of the port every few minutes, and logs the
+ * changes made to the port from outside the simulation in between: movements added, ships
+ * docked straight away, and the cargo on board each ship as it arrives. The port is taken
+ * back to a minute by restoring the nearest earlier snapshot and simulating forward from it,
+ * reapplying the logged changes as it goes. Seeking therefore costs one restore and at most
+ * one checkpoint interval of minutes, however long the history is.
+ * <p>
+ * Snapshots are taken every {@value #INITIAL_INTERVAL} minutes to begin with. The memory
+ * budget covers the snapshots and the log together. Whenever their estimated size exceeds it
+ * and the snapshots take up more than the log, every second snapshot is dropped and the
+ * interval doubles, so a long run keeps fewer, more widely spaced snapshots. Once the log
+ * takes up as much, the earliest history is dropped instead: the first snapshot goes, along
+ * with the changes logged before the next one, and the history starts later. A long run
+ * therefore never outgrows the budget, but may forget how it began.
+ * <p>
+ * The port must be advanced and changed through the timeline for the history to be complete,
+ * and its quays must not change. Advancing or changing the port after seeking back discards
+ * the history after the current minute, so the simulation carries on down the new course.
+ * Statistics evaluators and other movement listeners are not rewound, and are not told about
+ * the minutes and movements simulated again while seeking, so they see each minute of the
+ * history once, followed by any new course taken after seeking back. Likewise, no flight
+ * recorder events are emitted for the minutes simulated again. As with
+ * {@link Port#restore(PortSnapshot)}, a port reading from a movement source should not be
+ * rewound.
+ */
+public class PortTimeline implements MovementListener, Tickable {
+
+    /**
+     * Minutes between snapshots before the memory budget is first reached
+     */
+    public static final int INITIAL_INTERVAL = 16;
+
+    /**
+     * Estimated size of a logged change, in bytes, not counting the cargo it records
+     */
+    private static final long CHANGE_BYTES = 64;
+
+    /**
+     * Port whose history is recorded
+     */
+    private final Port port;
+
+    /**
+     * Most memory the snapshots and the log may take up, in bytes, as estimated by them
+     */
+    private final long memoryBudget;
+
+    /**
+     * Snapshots of the port, in time order, the first taken when the timeline was created
+     */
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    /**
+     * Changes made to the port from outside the simulation, in the order they were made
+     */
+    private final List<Change> log = new ArrayList<>();
+
+    /**
+     * Number of changes in the log that have been applied to the port as it is now
+     */
+    private int position;
+
+    /**
+     * Latest minute the port has been simulated to
+     */
+    private long latestTime;
+
+    /**
+     * Minutes between snapshots
+     */
+    private long interval = INITIAL_INTERVAL;
+
+    /**
+     * Estimated size of all snapshots, in bytes
+     */
+    private long snapshotBytes;
+
+    /**
+     * Estimated size of all logged changes, in bytes
+     */
+    private long logBytes;
+
+    /**
+     * Creates a new timeline starting at the port's current time, and starts recording the
+     * port's history.
+     *
+     * @param port         port to record
+     * @param memoryBudget most memory the snapshots of the port and the log of changes may
+     *                     take up, in bytes
+     * @throws IllegalArgumentException if memoryBudget &lt;= 0
+     */
+    public PortTimeline(Port port, long memoryBudget) throws IllegalArgumentException {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: "
+                    + memoryBudget);
+        }
+        this.port = port;
+        this.memoryBudget = memoryBudget;
+        this.latestTime = port.getTime();
+        addCheckpoint();
+        port.addMovementListener(this);
+    }
+
+    /**
+     * Advances the port by one minute, recording its history. If the port has been rewound,
+     * the history after the current minute is discarded first.
+     */
+    @Override
+    public void elapseOneMinute() {
+        branch();
+        port.elapseOneMinute();
+        latestTime = port.getTime();
+        if (latestTime - checkpoints.get(checkpoints.size() - 1).snapshot.getTime()
+                >= interval) {
+            addCheckpoint();
+        }
+    }
+
+    /**
+     * Adds a movement to the port's movement queue and logs it, so that it is added again
+     * when the port is fast-forwarded through this minute.
+     *
+     * @param movement movement to add
+     * @throws IllegalArgumentException if the movement's action time is less than the port's
+     *                                  current time
+     */
+    public void addMovement(Movement movement) throws IllegalArgumentException {
+        if (movement.getTime() < port.getTime()) {
+            throw new IllegalArgumentException("Movement time " + movement.getTime()
+                    + " is before the current time " + port.getTime());
+        }
+        branch();
+        record(p -> p.addMovement(movement), CHANGE_BYTES);
+    }
+
+    /**
+     * Docks the given ship at the given empty quay of the port straight away, and logs it with
+     * the cargo on board the ship, so that it is docked again when the port is fast-forwarded
+     * through this minute.
+     *
+     * @param ship ship to dock
+     * @param quay quay to dock the ship at
+     * @throws IllegalArgumentException if the quay is not one of the port's quays, or is not
+     *                                  empty
+     * @see Port#dockShip(Ship, Quay)
+     */
+    public void dockShip(Ship ship, Quay quay) throws IllegalArgumentException {
+        if (!quay.isEmpty() || !port.getQuays().contains(quay)) {
+            throw new IllegalArgumentException("Cannot dock at quay " + quay.getId());
+        }
+        branch();
+        PortSnapshot.ShipState cargo = PortSnapshot.ShipState.of(ship);
+        record(p -> {
+            cargo.restore();
+            p.dockShip(ship, quay);
+        }, CHANGE_BYTES + cargo.estimateBytes());
+    }
+
+    /**
+     * Logs the cargo on board every ship that arrives at the port, since the ship may have been
+     * unloaded by the time the port is fast-forwarded through its arrival.
+     *
+     * @param port     port that processed the movement
+     * @param movement movement that was processed
+     */
+    @Override
+    public void onProcessMovement(Port port, Movement movement) {
+        if (port != this.port || !(movement instanceof ShipMovement)
+                || movement.getDirection() != MovementDirection.INBOUND) {
+            return;
+        }
+        PortSnapshot.ShipState cargo =
+                PortSnapshot.ShipState.of(((ShipMovement) movement).getShip());
+        // the ship was at sea until this minute, so its cargo is put back before the minute
+        log.add(new Change(port.getTime() - 1, p -> cargo.restore(),
+                CHANGE_BYTES + cargo.estimateBytes()));
+        logBytes += CHANGE_BYTES + cargo.estimateBytes();
+        position = log.size();
+    }
+
+    /**
+     * Takes the port back, or forward, to the given minute of its history.
+     *
+     * @param time minute to seek to
+     * @throws IllegalArgumentException if time is before the start of the history or after the
+     *                                  latest minute simulated
+     */
+    public void seek(long time) throws IllegalArgumentException {
+        if (time < getStartTime() || time > latestTime) {
+            throw new IllegalArgumentException("Time " + time + " is outside the timeline "
+                    + getStartTime() + " to " + latestTime);
+        }
+        Checkpoint nearest = checkpoints.get(nearestCheckpoint(time));
+        long now = port.getTime();
+        // already past the nearest snapshot and heading forward, so carry on from here
+        if (now < nearest.snapshot.getTime() || now > time) {
+            port.restore(nearest.snapshot);
+            position = nearest.logPosition;
+        }
+        // evaluators, listeners and any recording have already seen these minutes
+        port.setReplaying(true);
+        try {
+            while (true) {
+                while (position < log.size() && log.get(position).time <= port.getTime()) {
+                    log.get(position++).apply.accept(port);
+                }
+                if (port.getTime() == time) {
+                    break;
+                }
+                port.elapseOneMinute();
+            }
+        } finally {
+            port.setReplaying(false);
+        }
+    }
+
+    /**
+     * Returns the earliest minute the port can be taken back to, which moves later once the
+     * history no longer fits the memory budget.
+     *
+     * @return start of the history, in minutes
+     */
+    public long getStartTime() {
+        return checkpoints.get(0).snapshot.getTime();
+    }
+
+    /**
+     * Returns the latest minute the port has been simulated to.
+     *
+     * @return end of the history, in minutes
+     */
+    public long getLatestTime() {
+        return latestTime;
+    }
+
+    /**
+     * Returns the number of minutes between the snapshots of the port, which grows as the
+     * history outgrows the memory budget.
+     *
+     * @return checkpoint interval, in minutes
+     */
+    public long getCheckpointInterval() {
+        return interval;
+    }
+
+    /**
+     * Returns the number of snapshots of the port currently held.
+     *
+     * @return number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    /* Applies the given change to the port and logs it, of the given size, at the minute */
+    private void record(Consumer<Port> change, long bytes) {
+        change.accept(port);
+        log.add(new Change(port.getTime(), change, bytes));
+        logBytes += bytes;
+        position = log.size();
+    }
+
+    /* Discards the history after the port's current minute, if it has been rewound */
+    private void branch() {
+        long now = port.getTime();
+        if (now == latestTime && position == log.size()) {
+            return;
+        }
+        List<Change> future = log.subList(position, log.size());
+        for (Change change : future) {
+            logBytes -= change.bytes;
+        }
+        future.clear();
+        while (checkpoints.get(checkpoints.size() - 1).snapshot.getTime() > now) {
+            snapshotBytes -= checkpoints.remove(checkpoints.size() - 1).bytes;
+        }
+        latestTime = now;
+    }
+
+    /*
+     * Snapshots the port, then thins out the snapshots, or failing that drops the earliest
+     * history, until the snapshots and the log fit the budget
+     */
+    private void addCheckpoint() {
+        Checkpoint checkpoint = new Checkpoint(port.checkpoint(), position);
+        checkpoints.add(checkpoint);
+        snapshotBytes += checkpoint.bytes;
+        while (snapshotBytes + logBytes > memoryBudget && snapshotBytes > logBytes
+                && checkpoints.size() > 2) {
+            // keeps the first snapshot, so the whole history can still be reached
+            List<Checkpoint> kept = new ArrayList<>(checkpoints.size() / 2 + 1);
+            snapshotBytes = 0;
+            for (int i = 0; i < checkpoints.size(); i += 2) {
+                kept.add(checkpoints.get(i));
+                snapshotBytes += checkpoints.get(i).bytes;
+            }
+            checkpoints.clear();
+            checkpoints.addAll(kept);
+            interval *= 2;
+        }
+        while (snapshotBytes + logBytes > memoryBudget && checkpoints.size() > 1) {
+            dropEarliest();
+        }
+    }
+
+    /* Drops the first snapshot and the changes logged before the next, which start the history */
+    private void dropEarliest() {
+        snapshotBytes -= checkpoints.remove(0).bytes;
+        int dropped = checkpoints.get(0).logPosition;
+        List<Change> behind = log.subList(0, dropped);
+        for (Change change : behind) {
+            logBytes -= change.bytes;
+        }
+        behind.clear();
+        for (Checkpoint checkpoint : checkpoints) {
+            checkpoint.logPosition -= dropped;
+        }
+        position -= dropped;
+    }
+
+    /* Returns the position of the latest checkpoint no later than the given time */
+    private int nearestCheckpoint(long time) {
+        int low = 0;
+        int high = checkpoints.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (checkpoints.get(middle).snapshot.getTime() <= time) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * A snapshot of the port, with the number of logged changes that had been made to the port
+     * when it was taken.
+     */
+    private static final class Checkpoint {
+
+        /**
+         * Snapshot of the port
+         */
+        final PortSnapshot snapshot;
+
+        /**
+         * Number of changes in the log when the snapshot was taken, less any dropped since
+         */
+        int logPosition;
+
+        /**
+         * Estimated size of the snapshot, in bytes
+         */
+        final long bytes;
+
+        Checkpoint(PortSnapshot snapshot, int logPosition) {
+            this.snapshot = snapshot;
+            this.logPosition = logPosition;
+            this.bytes = snapshot.estimateBytes();
+        }
+    }
+
+    /*
+     * A change made to the port from outside the simulation, applied before the port is
+     * advanced past the given minute.
+     */
+    private static final class Change {
+
+        /**
+         * Minute the change is applied at
+         */
+        final long time;
+
+        /**
+         * Makes the change to the port
+         */
+        final Consumer<Port> apply;
+
+        /**
+         * Estimated size of the change, in bytes
+         */
+        final long bytes;
+
+        Change(long time, Consumer<Port> apply, long bytes) {
+            this.time = time;
+            this.apply = apply;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -48,6 +48,13 @@ public abstract class Quay implements Encodable {
         return id;
     }
 
+    /**
+     * Returns a new, empty quay with the same ID and capacity as this one.
+     *
+     * @return empty copy of this quay
+     */
+    abstract Quay copy();
+
     /**
      * Docks the given ship at the Quay so that the quay becomes occupied.
      *
@@ -143,14 +150,8 @@ public abstract class Quay implements Encodable {
      */
     @Override
     public int hashCode(){
-        String status;
-        if (this.isEmpty()){
-            status = "Empty";
-        }else{
-            status = "Occupied";
-        }
-        String hashCode = getId() + status;
-        return hashCode.hashCode();
+        // only the ID, so the hash code does not change as ships dock and depart
+        return getId();
     }
 
     /**
@@ -1,5 +1,6 @@
 package portsim.port;
 
+import portsim.ship.ContainerShip;
 import portsim.ship.NauticalFlag;
 import portsim.ship.Ship;
 import portsim.util.Encodable;
@@ -8,37 +9,56 @@ import java.util.*;
 
 public class ShipQueue implements Encodable {
 
-    private PriorityQueue<Ship> shipQueue;
-    private Map<NauticalFlag,Integer> priority;
-    List<Ship> shipList;
+    /*
+     * Priority classes, in the order ships are taken from the queue. Within a class ships
+     * leave in the order they were added.
+     */
+    private static final int DANGEROUS = 0;
+    private static final int MEDICAL = 1;
+    private static final int READY = 2;
+    private static final int CONTAINER = 3;
+    private static final int OTHER = 4;
 
+    /**
+     * Waiting ships, one first-in first-out queue per priority class
+     */
+    private final ArrayDeque<Ship>[] classes;
 
-    public ShipQueue() {
-        priority = new HashMap<>();
-        priority.put(NauticalFlag.BRAVO,1);
-        priority.put(NauticalFlag.WHISKEY,2);
-        priority.put(NauticalFlag.HOTEL,3);
-        priority.put(NauticalFlag.NOVEMBER,4);
-
-        shipList = new ArrayList<>();
-
-
-        this.shipQueue = new PriorityQueue<>((o1, o2) -> {
-            if(priority.get(o1.getFlag()) == 4 && priority.get(o2.getFlag()) == 4){
-                if("ContainerShip".equals(o1.getClass().getSimpleName())){
-                    return -1;
-                }else if("ContainerShip".equals(o2.getClass().getSimpleName())){
-                    return 1;
-                }else{
-                    return 0;
-                }
-            }else{
-                return priority.get(o1.getFlag()).compareTo(priority.get(o2.getFlag()));
-            }
+    /**
+     * Total number of ships waiting
+     */
+    private int size;
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ShipQueue() {
+        classes = new ArrayDeque[OTHER + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayDeque<>();
+        }
+    }
 
-        });
+    /* Returns the priority class the given ship waits in */
+    private static int priorityClass(Ship ship) {
+        switch (ship.getFlag()) {
+            case BRAVO:
+                return DANGEROUS;
+            case WHISKEY:
+                return MEDICAL;
+            case HOTEL:
+                return READY;
+            default:
+                return ship instanceof ContainerShip ? CONTAINER : OTHER;
+        }
+    }
 
+    /* Returns the highest priority class with a ship waiting, or -1 if there are none */
+    private int firstClass() {
+        for (int i = 0; i < classes.length; i++) {
+            if (!classes[i].isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -48,7 +68,12 @@ public class ShipQueue implements Encodable {
      * @return next ship to dock
      */
     public Ship poll(){
-        return shipQueue.poll();
+        int first = firstClass();
+        if (first < 0) {
+            return null;
+        }
+        size--;
+        return classes[first].poll();
     }
 
     /**
@@ -68,7 +93,8 @@ public class ShipQueue implements Encodable {
      * @return next ship in queue
      */
     public Ship peek(){
-        return shipQueue.peek();
+        int first = firstClass();
+        return first < 0 ? null : classes[first].peek();
     }
 
     /**
@@ -76,7 +102,53 @@ public class ShipQueue implements Encodable {
      * @param ship - to be added to queue
      */
     public void add​(Ship ship){
-        shipQueue.add(ship);
+        classes[priorityClass(ship)].add(ship);
+        size++;
+    }
+
+    /**
+     * Returns the number of ships waiting in this queue.
+     * @return number of ships in queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of ships in this queue flying the given flag.
+     * @param flag - nautical flag to count
+     * @return number of ships in queue with the flag
+     */
+    public int getFlagCount(NauticalFlag flag) {
+        switch (flag) {
+            case BRAVO:
+                return classes[DANGEROUS].size();
+            case WHISKEY:
+                return classes[MEDICAL].size();
+            case HOTEL:
+                return classes[READY].size();
+            default:
+                return classes[CONTAINER].size() + classes[OTHER].size();
+        }
+    }
+
+    /**
+     * Returns the first ships in this queue, in the order they will be taken from it.
+     * Only the returned ships are visited, so this is cheap for long queues.
+     * @param limit - maximum number of ships to return
+     * @return at most limit ships from the front of the queue
+     */
+    public List<Ship> getShipQueue(int limit){
+        List<Ship> ships = new ArrayList<>(Math.min(limit, size));
+        for (ArrayDeque<Ship> waiting : classes) {
+            for (Ship ship : waiting) {
+                if (ships.size() >= limit) {
+                    return ships;
+                }
+                ships.add(ship);
+            }
+        }
+        return ships;
     }
 
     /**
@@ -89,12 +161,7 @@ public class ShipQueue implements Encodable {
      */
 
     public List<Ship> getShipQueue(){
-        PriorityQueue<Ship> shipQueueCopy = new PriorityQueue<>(shipQueue);
-        while(!shipQueueCopy.isEmpty()){
-            shipList.add(0, shipQueueCopy.poll());
-        }
-        Collections.reverse(shipList);
-        return shipList;
+        return getShipQueue(size);
     }
 
     /**
@@ -105,20 +172,25 @@ public class ShipQueue implements Encodable {
      * @return true if equal, false otherwise
      */
     public boolean equals​(Object o){
-        boolean result = true;
-        if(this.getClass() != o.getClass()){
-            return false;
-        }else if(((ShipQueue)o).getShipQueue().size() != this.getShipQueue().size()){
+        if(o == null || this.getClass() != o.getClass()){
             return false;
-        }else if(o == null){
+        }
+        ShipQueue other = (ShipQueue) o;
+        if(other.size != this.size){
             return false;
         }
-        for(int i = 0; i<this.getShipQueue().size();i++){
-            if(this.getShipQueue().get(i) != ((ShipQueue)o).getShipQueue().get(i)){
-                result = false;
+        for(int i = 0; i < classes.length; i++){
+            if(classes[i].size() != other.classes[i].size()){
+                return false;
+            }
+            Iterator<Ship> theirs = other.classes[i].iterator();
+            for(Ship ship : classes[i]){
+                if(ship != theirs.next()){
+                    return false;
+                }
             }
         }
-        return result;
+        return true;
 
     }
 
@@ -130,7 +202,14 @@ public class ShipQueue implements Encodable {
      */
     @Override
     public int hashCode(){
-        return getShipQueue().hashCode();
+        // the same as getShipQueue().hashCode(), without building the list
+        int hashCode = 1;
+        for(int i = 0; i < classes.length; i++){
+            for(Ship ship : classes[i]){
+                hashCode = 31 * hashCode + ship.hashCode();
+            }
+        }
+        return hashCode;
     }
 
     /**
@@ -151,22 +230,13 @@ public class ShipQueue implements Encodable {
      */
 
     public String encode(){
-        List<Ship> result = new ArrayList<>(getShipQueue());
-        System.out.println(result.get(0).getImoNumber());
-        if(result.size() > 0){
-            String list = "";
-            for(int i = 0; i < result.size(); i++){
-                if(i + 1 == result.size()){
-                    list += result.get(i).getImoNumber();
-                }else{
-                    list += result.get(i).getImoNumber() + ",";
-                }
+        StringJoiner list = new StringJoiner(",");
+        for (ArrayDeque<Ship> waiting : classes) {
+            for (Ship ship : waiting) {
+                list.add(String.valueOf(ship.getImoNumber()));
             }
-            return getClass().getSimpleName() + ":" + result.size() + ":" + list;
-        }else{
-            return getClass().getSimpleName() + ":" + "0:";
-
         }
+        return getClass().getSimpleName() + ":" + size + ":" + list;
     }
 
     //toDo:fromString
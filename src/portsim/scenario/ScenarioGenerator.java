@@ -0,0 +1,486 @@
+package portsim.scenario;
+
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.ContainerType;
+import portsim.movement.MovementDirection;
+import portsim.ship.NauticalFlag;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Generates large synthetic port scenarios for load testing the simulation.
+ * <p>
+ * A scenario consists of a port save, in the format read by
+ * {@link portsim.port.Port#initialisePort(java.io.Reader)}, and a movement schedule listing one
+ * encoded movement per line in ascending time order. Both are written as streams, so the
+ * memory used by the generator does not grow with the number of cargo or movements.
+ * <p>
+ * The same parameters, including the seed, always produce identical output. The attributes of
+ * every ship, quay and piece of cargo are derived from the seed and the entity's index alone,
+ * which allows them to be recomputed on demand instead of stored.
+ * <p>
+ * Cargo IDs are laid out in blocks: warehouse cargo first, then a fixed size block per ship
+ * for the cargo it carries on arrival, then the cargo delivered by trucks. Ships are given
+ * consecutive IMO numbers starting at {@link #FIRST_IMO_NUMBER}.
+ */
+public class ScenarioGenerator {
+
+    /**
+     * IMO number of the first ship in the generated fleet
+     */
+    public static final long FIRST_IMO_NUMBER = 1000000;
+
+    /* Salts used to derive independent attribute streams for each kind of entity */
+    private static final long CARGO_SALT = 0x632BE59BD9B4E019L;
+    private static final long SHIP_SALT = 0x8CB92BA72F3D8DD7L;
+    private static final long QUAY_SALT = 0xD1B54A32D192ED03L;
+    private static final long SCHEDULE_SALT = 0xABC98388FB8FAC03L;
+
+    /* Ship name prefixes; the fleet index is appended to keep names distinct */
+    private static final String[] SHIP_NAMES = {"Evergreen", "Columbus", "Voyager",
+        "Endeavour", "Horizon", "Meridian", "Aurora", "Pacific"};
+
+    private static final String NEWLINE = System.lineSeparator();
+
+    /**
+     * Parameters of the scenario being generated
+     */
+    private final ScenarioParameters parameters;
+
+    /* Cumulative weights used for weighted random choices */
+    private final double[] flagWeights;
+    private final double[] containerTypeWeights;
+    private final double[] bulkCargoTypeWeights;
+
+    /* Destinations cargo is sent to and ships originate from */
+    private final List<String> destinations;
+
+    /* Number of cargo IDs reserved for each ship */
+    private final int shipCargoBlock;
+
+    /* First cargo ID of the ship cargo and truck cargo blocks */
+    private final int firstShipCargo;
+    private final int firstTruckCargo;
+
+    /**
+     * Creates a new generator for the given scenario.
+     * <p>
+     * Later changes to the parameters do not affect this generator.
+     *
+     * @param parameters scenario to generate
+     * @throws IllegalArgumentException if the scenario needs more cargo IDs than an int can hold
+     */
+    public ScenarioGenerator(ScenarioParameters parameters) throws IllegalArgumentException {
+        this.parameters = copy(parameters);
+        this.flagWeights = cumulative(this.parameters.getFlagWeights());
+        this.containerTypeWeights = cumulative(this.parameters.getContainerTypeWeights());
+        this.bulkCargoTypeWeights = cumulative(this.parameters.getBulkCargoTypeWeights());
+        this.destinations = this.parameters.getDestinations();
+        this.shipCargoBlock = Math.max(1, this.parameters.getMaxContainersPerShip());
+        long truckStart = parameters.getWarehouseCargo()
+                + (long) parameters.getFleetSize() * shipCargoBlock;
+        if (truckStart + parameters.getTruckCargo() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Scenario needs more cargo IDs than are "
+                    + "available: " + (truckStart + parameters.getTruckCargo()));
+        }
+        this.firstShipCargo = parameters.getWarehouseCargo();
+        this.firstTruckCargo = (int) truckStart;
+    }
+
+    /* Takes a snapshot of the given parameters */
+    private static ScenarioParameters copy(ScenarioParameters parameters) {
+        ScenarioParameters copy = new ScenarioParameters();
+        copy.setSeed(parameters.getSeed());
+        copy.setPortName(parameters.getPortName());
+        copy.setContainerQuays(parameters.getContainerQuays());
+        copy.setQuayContainers(parameters.getMinQuayContainers(),
+                parameters.getMaxQuayContainers());
+        copy.setBulkQuays(parameters.getBulkQuays());
+        copy.setQuayTonnage(parameters.getMinQuayTonnage(), parameters.getMaxQuayTonnage());
+        copy.setFleetSize(parameters.getFleetSize());
+        copy.setContainerShipFraction(parameters.getContainerShipFraction());
+        copy.setContainersPerShip(parameters.getMinContainersPerShip(),
+                parameters.getMaxContainersPerShip());
+        copy.setFlagWeights(parameters.getFlagWeights());
+        copy.setContainerTypeWeights(parameters.getContainerTypeWeights());
+        copy.setBulkCargoTypeWeights(parameters.getBulkCargoTypeWeights());
+        copy.setTonnage(parameters.getMinTonnage(), parameters.getMaxTonnage());
+        copy.setDestinations(parameters.getDestinations());
+        copy.setWarehouseCargo(parameters.getWarehouseCargo());
+        copy.setContainerCargoFraction(parameters.getContainerCargoFraction());
+        copy.setTruckCargo(parameters.getTruckCargo());
+        copy.setCargoPerTruck(parameters.getCargoPerTruck());
+        copy.setShipArrivalRate(parameters.getShipArrivalRate());
+        copy.setTruckArrivalRate(parameters.getTruckArrivalRate());
+        copy.setOutboundTruckFraction(parameters.getOutboundTruckFraction());
+        copy.setDwellTime(parameters.getMinDwellTime(), parameters.getMaxDwellTime());
+        copy.setDuration(parameters.getDuration());
+        return copy;
+    }
+
+    /* Converts weights into a running total */
+    private static double[] cumulative(double[] weights) {
+        double[] totals = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            totals[i] = total;
+        }
+        return totals;
+    }
+
+    /* Picks an index with probability proportional to its weight */
+    private static int pick(double[] cumulativeWeights, SplittableRandom random) {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (target < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    /* Returns a uniformly distributed int between min and max inclusive */
+    private static int between(int min, int max, SplittableRandom random) {
+        return min + random.nextInt(max - min + 1);
+    }
+
+    /* Returns the random stream for the entity with the given salt and index */
+    private SplittableRandom random(long salt, long index) {
+        return new SplittableRandom(parameters.getSeed() ^ salt ^ (index * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Returns the total number of pieces of cargo in the generated port save.
+     *
+     * @return number of cargo
+     */
+    public long getCargoCount() {
+        long count = (long) parameters.getWarehouseCargo() + parameters.getTruckCargo();
+        for (int ship = 0; ship < parameters.getFleetSize(); ship++) {
+            count += shipCargoCount(ship);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of ships in the generated port save.
+     *
+     * @return number of ships
+     */
+    public int getShipCount() {
+        return parameters.getFleetSize();
+    }
+
+    /* Returns whether the ship at the given fleet index is a container ship */
+    private boolean isContainerShip(SplittableRandom shipRandom) {
+        return shipRandom.nextDouble() < parameters.getContainerShipFraction();
+    }
+
+    /* Returns the number of pieces of cargo the given ship carries on arrival */
+    private int shipCargoCount(int ship) {
+        SplittableRandom random = random(SHIP_SALT, ship);
+        if (!isContainerShip(random)) {
+            return 1;
+        }
+        pick(flagWeights, random);
+        random.nextInt(destinations.size());
+        return between(parameters.getMinContainersPerShip(),
+                parameters.getMaxContainersPerShip(), random);
+    }
+
+    /**
+     * Writes the port save for this scenario to the given writer.
+     * <p>
+     * The port starts at time 0 with no ships queued, no pending movements and no evaluators,
+     * with the warehouse cargo stored. Pending movements are written separately by
+     * {@link #writeSchedule(Writer)}.
+     *
+     * @param writer writer to write to, which is flushed but not closed
+     * @throws IOException if the writer throws an IOException
+     */
+    public void writePort(Writer writer) throws IOException {
+        BufferedWriter out = buffered(writer);
+        line(out, parameters.getPortName());
+        line(out, "0");
+
+        line(out, String.valueOf(getCargoCount()));
+        for (int id = 0; id < firstShipCargo; id++) {
+            writeLooseCargo(out, id);
+        }
+        for (int ship = 0; ship < parameters.getFleetSize(); ship++) {
+            writeShipCargo(out, ship);
+        }
+        for (int i = 0; i < parameters.getTruckCargo(); i++) {
+            writeLooseCargo(out, firstTruckCargo + i);
+        }
+
+        line(out, String.valueOf(parameters.getFleetSize()));
+        for (int ship = 0; ship < parameters.getFleetSize(); ship++) {
+            writeShip(out, ship);
+        }
+
+        line(out, String.valueOf(parameters.getContainerQuays() + parameters.getBulkQuays()));
+        for (int quay = 0; quay < parameters.getContainerQuays(); quay++) {
+            SplittableRandom random = random(QUAY_SALT, quay);
+            line(out, "ContainerQuay:" + quay + ":None:" + between(
+                    parameters.getMinQuayContainers(), parameters.getMaxQuayContainers(),
+                    random));
+        }
+        for (int i = 0; i < parameters.getBulkQuays(); i++) {
+            int quay = parameters.getContainerQuays() + i;
+            SplittableRandom random = random(QUAY_SALT, quay);
+            line(out, "BulkQuay:" + quay + ":None:" + between(
+                    parameters.getMinQuayTonnage(), parameters.getMaxQuayTonnage(), random));
+        }
+
+        line(out, "ShipQueue:0:");
+        out.write("StoredCargo:" + firstShipCargo + ":");
+        for (int id = 0; id < firstShipCargo; id++) {
+            if (id > 0) {
+                out.write(',');
+            }
+            out.write(Integer.toString(id));
+        }
+        out.write(NEWLINE);
+        line(out, "Movements:0");
+        line(out, "Evaluators:0:");
+        out.flush();
+    }
+
+    /* Writes warehouse or truck cargo, whose kind is chosen per piece */
+    private void writeLooseCargo(BufferedWriter out, int id) throws IOException {
+        SplittableRandom random = random(CARGO_SALT, id);
+        boolean container = random.nextDouble() < parameters.getContainerCargoFraction();
+        writeCargo(out, id, container, random);
+    }
+
+    /* Writes the cargo carried by the given ship on arrival */
+    private void writeShipCargo(BufferedWriter out, int ship) throws IOException {
+        SplittableRandom shipRandom = random(SHIP_SALT, ship);
+        boolean container = isContainerShip(shipRandom);
+        int count = shipCargoCount(ship);
+        int first = firstShipCargo + ship * shipCargoBlock;
+        for (int id = first; id < first + count; id++) {
+            SplittableRandom random = random(CARGO_SALT, id);
+            random.nextDouble(); // keep streams aligned with loose cargo
+            writeCargo(out, id, container, random);
+        }
+    }
+
+    /* Writes a single encoded container or bulk cargo */
+    private void writeCargo(BufferedWriter out, int id, boolean container,
+                            SplittableRandom random) throws IOException {
+        String destination = destinations.get(random.nextInt(destinations.size()));
+        if (container) {
+            ContainerType type = ContainerType.values()[pick(containerTypeWeights, random)];
+            line(out, "Container:" + id + ":" + destination + ":" + type);
+        } else {
+            BulkCargoType type = BulkCargoType.values()[pick(bulkCargoTypeWeights, random)];
+            int tonnage = between(parameters.getMinTonnage(), parameters.getMaxTonnage(),
+                    random);
+            line(out, "BulkCargo:" + id + ":" + destination + ":" + type + ":" + tonnage);
+        }
+    }
+
+    /* Returns the tonnage of the given bulk cargo, consuming the same stream as writeCargo */
+    private int bulkTonnage(int id) {
+        SplittableRandom random = random(CARGO_SALT, id);
+        random.nextDouble();
+        random.nextInt(destinations.size());
+        pick(bulkCargoTypeWeights, random);
+        return between(parameters.getMinTonnage(), parameters.getMaxTonnage(), random);
+    }
+
+    /* Writes a single encoded ship with its cargo on board */
+    private void writeShip(BufferedWriter out, int ship) throws IOException {
+        SplittableRandom random = random(SHIP_SALT, ship);
+        boolean container = isContainerShip(random);
+        NauticalFlag flag = NauticalFlag.values()[pick(flagWeights, random)];
+        String origin = destinations.get(random.nextInt(destinations.size()));
+        String prefix = (container ? "ContainerShip:" : "BulkCarrier:")
+                + (FIRST_IMO_NUMBER + ship) + ":"
+                + SHIP_NAMES[ship % SHIP_NAMES.length] + " " + ship + ":"
+                + origin + ":" + flag + ":";
+        int first = firstShipCargo + ship * shipCargoBlock;
+        if (container) {
+            int count = between(parameters.getMinContainersPerShip(),
+                    parameters.getMaxContainersPerShip(), random);
+            int capacity = between(count, parameters.getMaxContainersPerShip(), random);
+            out.write(prefix + capacity + ":" + count + ":");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(Integer.toString(first + i));
+            }
+            out.write(NEWLINE);
+        } else {
+            int tonnage = bulkTonnage(first);
+            int capacity = between(tonnage, parameters.getMaxTonnage(), random);
+            line(out, prefix + capacity + ":" + first);
+        }
+    }
+
+    /**
+     * Writes the movement schedule for this scenario to the given writer.
+     * <p>
+     * Ships arrive as a Poisson process at the configured rate, choosing uniformly from the
+     * ships not currently at the port, and depart after a uniformly distributed dwell time.
+     * Trucks also arrive as a Poisson process; inbound trucks deliver the next unused truck
+     * cargo and outbound trucks collect cargo in the order it was stored. Arrivals that find
+     * no ship at sea or no cargo left are dropped.
+     * <p>
+     * Each line holds one encoded {@link portsim.movement.Movement}, in ascending time order.
+     * Only movements up to the scenario duration are written.
+     *
+     * @param writer writer to write to, which is flushed but not closed
+     * @throws IOException if the writer throws an IOException
+     */
+    public void writeSchedule(Writer writer) throws IOException {
+        BufferedWriter out = buffered(writer);
+        SplittableRandom random = random(SCHEDULE_SALT, 0);
+        double shipRate = parameters.getShipArrivalRate() / 60;
+        double truckRate = parameters.getTruckArrivalRate() / 60;
+
+        // ships at sea, of which the first atSeaCount entries are valid
+        int[] atSea = new int[parameters.getFleetSize()];
+        for (int i = 0; i < atSea.length; i++) {
+            atSea[i] = i;
+        }
+        int atSeaCount = atSea.length;
+        // ships at the port, keyed by departure time then fleet index
+        PriorityQueue<long[]> departures = new PriorityQueue<>((a, b) ->
+                a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        int delivered = 0; // truck cargo brought in so far
+        int collected = 0; // stored cargo taken away so far, in storage order
+
+        double nextShip = arrival(0, shipRate, random);
+        double nextTruck = arrival(0, truckRate, random);
+        while (true) {
+            long shipTime = (long) nextShip;
+            long truckTime = (long) nextTruck;
+            long departureTime = departures.isEmpty() ? Long.MAX_VALUE : departures.peek()[0];
+            long time = Math.min(departureTime, Math.min(shipTime, truckTime));
+            if (time > parameters.getDuration()) {
+                break;
+            }
+            if (departureTime == time) {
+                int ship = (int) departures.poll()[1];
+                atSea[atSeaCount++] = ship;
+                writeShipMovement(out, time, MovementDirection.OUTBOUND, ship);
+            } else if (shipTime == time) {
+                if (atSeaCount > 0) {
+                    int slot = random.nextInt(atSeaCount);
+                    int ship = atSea[slot];
+                    atSea[slot] = atSea[--atSeaCount];
+                    writeShipMovement(out, time, MovementDirection.INBOUND, ship);
+                    long departs = time + between(parameters.getMinDwellTime(),
+                            parameters.getMaxDwellTime(), random);
+                    departures.add(new long[] {departs, ship});
+                }
+                nextShip = arrival(nextShip, shipRate, random);
+            } else {
+                int perTruck = parameters.getCargoPerTruck();
+                if (random.nextDouble() < parameters.getOutboundTruckFraction()) {
+                    int available = firstShipCargo + delivered - collected;
+                    int count = Math.min(perTruck, available);
+                    if (count > 0) {
+                        out.write("CargoMovement:" + time + ":" + MovementDirection.OUTBOUND
+                                + ":" + count + ":");
+                        for (int i = 0; i < count; i++) {
+                            int position = collected++;
+                            writeListedId(out, i, position < firstShipCargo ? position
+                                    : firstTruckCargo + position - firstShipCargo);
+                        }
+                        out.write(NEWLINE);
+                    }
+                } else {
+                    int count = Math.min(perTruck, parameters.getTruckCargo() - delivered);
+                    if (count > 0) {
+                        out.write("CargoMovement:" + time + ":" + MovementDirection.INBOUND
+                                + ":" + count + ":");
+                        for (int i = 0; i < count; i++) {
+                            writeListedId(out, i, firstTruckCargo + delivered++);
+                        }
+                        out.write(NEWLINE);
+                    }
+                }
+                nextTruck = arrival(nextTruck, truckRate, random);
+            }
+        }
+        out.flush();
+    }
+
+    /* Returns the time of the next arrival of a Poisson process after the given time */
+    private static double arrival(double after, double ratePerMinute,
+                                  SplittableRandom random) {
+        if (ratePerMinute <= 0) {
+            return Double.MAX_VALUE;
+        }
+        return after - Math.log(1 - random.nextDouble()) / ratePerMinute;
+    }
+
+    /* Writes an encoded ship movement line */
+    private static void writeShipMovement(BufferedWriter out, long time,
+                                          MovementDirection direction, int ship)
+            throws IOException {
+        line(out, "ShipMovement:" + time + ":" + direction + ":" + (FIRST_IMO_NUMBER + ship));
+    }
+
+    /* Writes an ID as part of a comma separated list */
+    private static void writeListedId(BufferedWriter out, int index, int id)
+            throws IOException {
+        if (index > 0) {
+            out.write(',');
+        }
+        out.write(Integer.toString(id));
+    }
+
+    /* Writes the given text followed by a line separator */
+    private static void line(BufferedWriter out, String text) throws IOException {
+        out.write(text);
+        out.write(NEWLINE);
+    }
+
+    /* Wraps the writer in a buffer unless it already is one */
+    private static BufferedWriter buffered(Writer writer) {
+        return writer instanceof BufferedWriter ? (BufferedWriter) writer
+                : new BufferedWriter(writer, 1 << 16);
+    }
+
+    /**
+     * Generates a scenario from the command line.
+     * <p>
+     * Usage: {@code ScenarioGenerator portFile scheduleFile [name=value ...]} where each
+     * {@code name=value} pair sets a parameter as described in
+     * {@link ScenarioParameters#fromArguments(String...)}.
+     *
+     * @param args command line arguments
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ScenarioGenerator portFile scheduleFile "
+                    + "[name=value ...]");
+            System.exit(1);
+        }
+        String[] options = new String[args.length - 2];
+        System.arraycopy(args, 2, options, 0, options.length);
+        ScenarioGenerator generator =
+                new ScenarioGenerator(ScenarioParameters.fromArguments(options));
+        try (Writer port = new FileWriter(args[0])) {
+            generator.writePort(port);
+        }
+        try (Writer schedule = new FileWriter(args[1])) {
+            generator.writeSchedule(schedule);
+        }
+    }
+}
@@ -0,0 +1,615 @@
+package portsim.scenario;
+
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.ContainerType;
+import portsim.ship.NauticalFlag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parameters describing a synthetic port scenario produced by {@link ScenarioGenerator}.
+ * <p>
+ * Every parameter has a default, so only the parameters of interest need to be set. Weights
+ * are relative and do not need to sum to one.
+ */
+public class ScenarioParameters {
+
+    /**
+     * Seed for all random choices made by the generator
+     */
+    private long seed = 2021;
+
+    /**
+     * Name of the generated port
+     */
+    private String portName = "Generated Port";
+
+    /**
+     * Number of container quays at the port
+     */
+    private int containerQuays = 4;
+
+    /**
+     * Smallest and largest container capacity of a container quay
+     */
+    private int minQuayContainers = 50;
+    private int maxQuayContainers = 200;
+
+    /**
+     * Number of bulk quays at the port
+     */
+    private int bulkQuays = 4;
+
+    /**
+     * Smallest and largest tonnage capacity of a bulk quay
+     */
+    private int minQuayTonnage = 500;
+    private int maxQuayTonnage = 2000;
+
+    /**
+     * Number of ships in the simulation
+     */
+    private int fleetSize = 100;
+
+    /**
+     * Fraction of the fleet that are container ships, the rest are bulk carriers
+     */
+    private double containerShipFraction = 0.5;
+
+    /**
+     * Relative weight of each nautical flag, indexed by ordinal
+     */
+    private double[] flagWeights = uniform(NauticalFlag.values().length);
+
+    /**
+     * Smallest and largest number of containers carried by a container ship
+     */
+    private int minContainersPerShip = 10;
+    private int maxContainersPerShip = 50;
+
+    /**
+     * Relative weight of each container type, indexed by ordinal
+     */
+    private double[] containerTypeWeights = uniform(ContainerType.values().length);
+
+    /**
+     * Relative weight of each bulk cargo type, indexed by ordinal
+     */
+    private double[] bulkCargoTypeWeights = uniform(BulkCargoType.values().length);
+
+    /**
+     * Smallest and largest tonnage of a piece of bulk cargo
+     */
+    private int minTonnage = 100;
+    private int maxTonnage = 500;
+
+    /**
+     * Destinations of cargo and origins of ships
+     */
+    private List<String> destinations = new ArrayList<>(
+            Arrays.asList("Australia", "New Zealand", "Japan", "USA", "United Kingdom", "China"));
+
+    /**
+     * Number of pieces of cargo stored in the warehouses at the start
+     */
+    private int warehouseCargo = 500;
+
+    /**
+     * Fraction of warehouse and truck cargo that are containers, the rest is bulk cargo
+     */
+    private double containerCargoFraction = 0.8;
+
+    /**
+     * Number of pieces of cargo available to be brought to the port by trucks
+     */
+    private int truckCargo = 1000;
+
+    /**
+     * Number of pieces of cargo carried by each truck
+     */
+    private int cargoPerTruck = 5;
+
+    /**
+     * Mean number of ships arriving per hour
+     */
+    private double shipArrivalRate = 2;
+
+    /**
+     * Mean number of trucks arriving per hour, in either direction
+     */
+    private double truckArrivalRate = 6;
+
+    /**
+     * Fraction of trucks that take cargo away from the port rather than deliver it
+     */
+    private double outboundTruckFraction = 0.5;
+
+    /**
+     * Shortest and longest time in minutes a ship stays between arriving and departing
+     */
+    private int minDwellTime = 60;
+    private int maxDwellTime = 600;
+
+    /**
+     * Length of the movement schedule in minutes
+     */
+    private long duration = 7 * 24 * 60;
+
+    /* Returns an array of n equal weights */
+    private static double[] uniform(int n) {
+        double[] weights = new double[n];
+        Arrays.fill(weights, 1);
+        return weights;
+    }
+
+    /**
+     * Creates scenario parameters from command line style {@code name=value} arguments.
+     * <p>
+     * Names match the setters of this class without the {@code set} prefix, for example
+     * {@code fleetSize=5000}. Ranges are given as {@code min-max} (e.g.
+     * {@code quayContainers=50-200}), weights and destinations as comma separated lists.
+     *
+     * @param arguments arguments to read
+     * @return parameters with the given values set
+     * @throws IllegalArgumentException if an argument is unknown or cannot be parsed
+     */
+    public static ScenarioParameters fromArguments(String... arguments)
+            throws IllegalArgumentException {
+        ScenarioParameters parameters = new ScenarioParameters();
+        for (String argument : arguments) {
+            int split = argument.indexOf('=');
+            if (split < 0) {
+                throw new IllegalArgumentException("Expected name=value: " + argument);
+            }
+            String name = argument.substring(0, split);
+            String value = argument.substring(split + 1);
+            try {
+                parameters.set(name, value);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + value, e);
+            }
+        }
+        return parameters;
+    }
+
+    /* Sets the named parameter from its string form */
+    private void set(String name, String value) {
+        switch (name) {
+            case "seed":
+                setSeed(Long.parseLong(value));
+                break;
+            case "portName":
+                setPortName(value);
+                break;
+            case "containerQuays":
+                setContainerQuays(Integer.parseInt(value));
+                break;
+            case "quayContainers":
+                setQuayContainers(rangeMin(value), rangeMax(value));
+                break;
+            case "bulkQuays":
+                setBulkQuays(Integer.parseInt(value));
+                break;
+            case "quayTonnage":
+                setQuayTonnage(rangeMin(value), rangeMax(value));
+                break;
+            case "fleetSize":
+                setFleetSize(Integer.parseInt(value));
+                break;
+            case "containerShipFraction":
+                setContainerShipFraction(Double.parseDouble(value));
+                break;
+            case "flagWeights":
+                setFlagWeights(weights(value));
+                break;
+            case "containersPerShip":
+                setContainersPerShip(rangeMin(value), rangeMax(value));
+                break;
+            case "containerTypeWeights":
+                setContainerTypeWeights(weights(value));
+                break;
+            case "bulkCargoTypeWeights":
+                setBulkCargoTypeWeights(weights(value));
+                break;
+            case "tonnage":
+                setTonnage(rangeMin(value), rangeMax(value));
+                break;
+            case "destinations":
+                setDestinations(Arrays.asList(value.split(",")));
+                break;
+            case "warehouseCargo":
+                setWarehouseCargo(Integer.parseInt(value));
+                break;
+            case "containerCargoFraction":
+                setContainerCargoFraction(Double.parseDouble(value));
+                break;
+            case "truckCargo":
+                setTruckCargo(Integer.parseInt(value));
+                break;
+            case "cargoPerTruck":
+                setCargoPerTruck(Integer.parseInt(value));
+                break;
+            case "shipArrivalRate":
+                setShipArrivalRate(Double.parseDouble(value));
+                break;
+            case "truckArrivalRate":
+                setTruckArrivalRate(Double.parseDouble(value));
+                break;
+            case "outboundTruckFraction":
+                setOutboundTruckFraction(Double.parseDouble(value));
+                break;
+            case "dwellTime":
+                setDwellTime(rangeMin(value), rangeMax(value));
+                break;
+            case "duration":
+                setDuration(Long.parseLong(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario parameter: " + name);
+        }
+    }
+
+    /* Parses the lower bound of a min-max range */
+    private static int rangeMin(String range) {
+        return Integer.parseInt(range.split("-")[0]);
+    }
+
+    /* Parses the upper bound of a min-max range */
+    private static int rangeMax(String range) {
+        return Integer.parseInt(range.split("-")[1]);
+    }
+
+    /* Parses a comma separated list of weights */
+    private static double[] weights(String list) {
+        String[] parts = list.split(",");
+        double[] weights = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            weights[i] = Double.parseDouble(parts[i]);
+        }
+        return weights;
+    }
+
+    /* Checks that the given weights are usable for the given number of choices */
+    private static double[] checkWeights(double[] weights, int choices) {
+        if (weights.length != choices) {
+            throw new IllegalArgumentException("Expected " + choices + " weights but got "
+                    + weights.length);
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must be non-negative: " + weight);
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        return weights.clone();
+    }
+
+    /* Checks that min <= max and min >= lowest */
+    private static void checkRange(int min, int max, int lowest) {
+        if (min < lowest || max < min) {
+            throw new IllegalArgumentException("Invalid range " + min + "-" + max);
+        }
+    }
+
+    /* Checks that the given value is a fraction between 0 and 1 */
+    private static double checkFraction(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+        }
+        return fraction;
+    }
+
+    /* Checks that the given count is not negative */
+    private static int checkCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be greater than or equal to 0: "
+                    + count);
+        }
+        return count;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public String getPortName() {
+        return portName;
+    }
+
+    public void setPortName(String portName) {
+        this.portName = portName;
+    }
+
+    public int getContainerQuays() {
+        return containerQuays;
+    }
+
+    public void setContainerQuays(int containerQuays) {
+        this.containerQuays = checkCount(containerQuays);
+    }
+
+    public int getMinQuayContainers() {
+        return minQuayContainers;
+    }
+
+    public int getMaxQuayContainers() {
+        return maxQuayContainers;
+    }
+
+    /**
+     * Sets the range the container capacity of each container quay is drawn from.
+     *
+     * @param min smallest capacity
+     * @param max largest capacity
+     */
+    public void setQuayContainers(int min, int max) {
+        checkRange(min, max, 0);
+        this.minQuayContainers = min;
+        this.maxQuayContainers = max;
+    }
+
+    public int getBulkQuays() {
+        return bulkQuays;
+    }
+
+    public void setBulkQuays(int bulkQuays) {
+        this.bulkQuays = checkCount(bulkQuays);
+    }
+
+    public int getMinQuayTonnage() {
+        return minQuayTonnage;
+    }
+
+    public int getMaxQuayTonnage() {
+        return maxQuayTonnage;
+    }
+
+    /**
+     * Sets the range the tonnage capacity of each bulk quay is drawn from.
+     *
+     * @param min smallest capacity
+     * @param max largest capacity
+     */
+    public void setQuayTonnage(int min, int max) {
+        checkRange(min, max, 0);
+        this.minQuayTonnage = min;
+        this.maxQuayTonnage = max;
+    }
+
+    public int getFleetSize() {
+        return fleetSize;
+    }
+
+    /**
+     * Sets the number of ships in the simulation.
+     *
+     * @param fleetSize number of ships, at most 9,000,000 so that IMO numbers stay 7 digits
+     */
+    public void setFleetSize(int fleetSize) {
+        if (fleetSize < 0 || fleetSize > 9000000) {
+            throw new IllegalArgumentException("Fleet size must be between 0 and 9000000: "
+                    + fleetSize);
+        }
+        this.fleetSize = fleetSize;
+    }
+
+    public double getContainerShipFraction() {
+        return containerShipFraction;
+    }
+
+    public void setContainerShipFraction(double containerShipFraction) {
+        this.containerShipFraction = checkFraction(containerShipFraction);
+    }
+
+    public double[] getFlagWeights() {
+        return flagWeights.clone();
+    }
+
+    /**
+     * Sets the relative weight of each nautical flag flown by ships.
+     *
+     * @param flagWeights one weight per {@link NauticalFlag}, in ordinal order
+     */
+    public void setFlagWeights(double[] flagWeights) {
+        this.flagWeights = checkWeights(flagWeights, NauticalFlag.values().length);
+    }
+
+    public int getMinContainersPerShip() {
+        return minContainersPerShip;
+    }
+
+    public int getMaxContainersPerShip() {
+        return maxContainersPerShip;
+    }
+
+    /**
+     * Sets the range the number of containers on each container ship is drawn from.
+     *
+     * @param min fewest containers
+     * @param max most containers
+     */
+    public void setContainersPerShip(int min, int max) {
+        checkRange(min, max, 0);
+        this.minContainersPerShip = min;
+        this.maxContainersPerShip = max;
+    }
+
+    public double[] getContainerTypeWeights() {
+        return containerTypeWeights.clone();
+    }
+
+    /**
+     * Sets the relative weight of each container type.
+     *
+     * @param containerTypeWeights one weight per {@link ContainerType}, in ordinal order
+     */
+    public void setContainerTypeWeights(double[] containerTypeWeights) {
+        this.containerTypeWeights = checkWeights(containerTypeWeights,
+                ContainerType.values().length);
+    }
+
+    public double[] getBulkCargoTypeWeights() {
+        return bulkCargoTypeWeights.clone();
+    }
+
+    /**
+     * Sets the relative weight of each bulk cargo type.
+     *
+     * @param bulkCargoTypeWeights one weight per {@link BulkCargoType}, in ordinal order
+     */
+    public void setBulkCargoTypeWeights(double[] bulkCargoTypeWeights) {
+        this.bulkCargoTypeWeights = checkWeights(bulkCargoTypeWeights,
+                BulkCargoType.values().length);
+    }
+
+    public int getMinTonnage() {
+        return minTonnage;
+    }
+
+    public int getMaxTonnage() {
+        return maxTonnage;
+    }
+
+    /**
+     * Sets the range the tonnage of each piece of bulk cargo is drawn from.
+     *
+     * @param min lightest cargo
+     * @param max heaviest cargo
+     */
+    public void setTonnage(int min, int max) {
+        checkRange(min, max, 0);
+        this.minTonnage = min;
+        this.maxTonnage = max;
+    }
+
+    public List<String> getDestinations() {
+        return new ArrayList<>(destinations);
+    }
+
+    /**
+     * Sets the countries used as cargo destinations and ship origins.
+     *
+     * @param destinations destination names, none of which may contain a colon or comma
+     */
+    public void setDestinations(List<String> destinations) {
+        if (destinations.isEmpty()) {
+            throw new IllegalArgumentException("At least one destination is required");
+        }
+        for (String destination : destinations) {
+            if (destination.contains(":") || destination.contains(",")) {
+                throw new IllegalArgumentException("Destinations cannot contain ':' or ',': "
+                        + destination);
+            }
+        }
+        this.destinations = new ArrayList<>(destinations);
+    }
+
+    public int getWarehouseCargo() {
+        return warehouseCargo;
+    }
+
+    public void setWarehouseCargo(int warehouseCargo) {
+        this.warehouseCargo = checkCount(warehouseCargo);
+    }
+
+    public double getContainerCargoFraction() {
+        return containerCargoFraction;
+    }
+
+    public void setContainerCargoFraction(double containerCargoFraction) {
+        this.containerCargoFraction = checkFraction(containerCargoFraction);
+    }
+
+    public int getTruckCargo() {
+        return truckCargo;
+    }
+
+    public void setTruckCargo(int truckCargo) {
+        this.truckCargo = checkCount(truckCargo);
+    }
+
+    public int getCargoPerTruck() {
+        return cargoPerTruck;
+    }
+
+    public void setCargoPerTruck(int cargoPerTruck) {
+        if (cargoPerTruck < 1) {
+            throw new IllegalArgumentException("Trucks must carry at least one piece of cargo: "
+                    + cargoPerTruck);
+        }
+        this.cargoPerTruck = cargoPerTruck;
+    }
+
+    public double getShipArrivalRate() {
+        return shipArrivalRate;
+    }
+
+    public void setShipArrivalRate(double shipArrivalRate) {
+        if (shipArrivalRate < 0) {
+            throw new IllegalArgumentException("Arrival rate must be non-negative: "
+                    + shipArrivalRate);
+        }
+        this.shipArrivalRate = shipArrivalRate;
+    }
+
+    public double getTruckArrivalRate() {
+        return truckArrivalRate;
+    }
+
+    public void setTruckArrivalRate(double truckArrivalRate) {
+        if (truckArrivalRate < 0) {
+            throw new IllegalArgumentException("Arrival rate must be non-negative: "
+                    + truckArrivalRate);
+        }
+        this.truckArrivalRate = truckArrivalRate;
+    }
+
+    public double getOutboundTruckFraction() {
+        return outboundTruckFraction;
+    }
+
+    public void setOutboundTruckFraction(double outboundTruckFraction) {
+        this.outboundTruckFraction = checkFraction(outboundTruckFraction);
+    }
+
+    public int getMinDwellTime() {
+        return minDwellTime;
+    }
+
+    public int getMaxDwellTime() {
+        return maxDwellTime;
+    }
+
+    /**
+     * Sets the range of time a ship stays at the port between arriving and departing.
+     *
+     * @param min shortest stay in minutes
+     * @param max longest stay in minutes
+     */
+    public void setDwellTime(int min, int max) {
+        checkRange(min, max, 1);
+        this.minDwellTime = min;
+        this.maxDwellTime = max;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Duration must be non-negative: " + duration);
+        }
+        this.duration = duration;
+    }
+}
@@ -7,6 +7,8 @@ import portsim.port.Quay;
 import portsim.util.Encodable;
 import portsim.util.NoSuchCargoException;
 
+import java.util.Collection;
+
 /**
  * Represents a ship capable of carrying bulk cargo.
  *
@@ -48,6 +50,13 @@ public class BulkCarrier extends Ship implements Encodable {
         this.cargo = null;
     }
 
+    /* Creates an unregistered copy of the given ship, see copy() */
+    private BulkCarrier(BulkCarrier other) {
+        super(other);
+        this.tonnageCapacity = other.tonnageCapacity;
+        this.cargo = other.cargo;
+    }
+
     /**
      * Check if this ship can dock with the specified quay.
      * <p>
@@ -99,7 +108,7 @@ public class BulkCarrier extends Ship implements Encodable {
         if (((BulkCargo) cargo).getTonnage() > tonnageCapacity) {
             return false;
         }
-        return cargo.getDestination().equals(this.getOriginFlag());
+        return cargo.getDestinationCode() == this.getOriginCode();
     }
 
     /**
@@ -113,6 +122,9 @@ public class BulkCarrier extends Ship implements Encodable {
     @Override
     public void loadCargo(Cargo cargo) {
         this.cargo = (BulkCargo) cargo;
+        if (isRegistered()) {
+            Cargo.getCargoTable().setLocation(cargo.getId(), getImoNumber());
+        }
     }
 
     /**
@@ -133,6 +145,32 @@ public class BulkCarrier extends Ship implements Encodable {
         return unload;
     }
 
+    /**
+     * Unloads the cargo from the ship into the given collection, if there is any.
+     *
+     * @param into collection to add the cargo to
+     * @return 1 if cargo was unloaded, 0 if the ship was already empty
+     */
+    @Override
+    public int tryUnloadInto(Collection<? super Cargo> into) {
+        if (cargo == null) {
+            return 0;
+        }
+        into.add(cargo);
+        cargo = null;
+        return 1;
+    }
+
+    /**
+     * Returns an unregistered copy of this ship with the same cargo on board.
+     *
+     * @return copy of this ship
+     */
+    @Override
+    public BulkCarrier copy() {
+        return new BulkCarrier(this);
+    }
+
     /**
      * Returns the current cargo onboard this vessel.
      *
@@ -159,24 +197,11 @@ public class BulkCarrier extends Ship implements Encodable {
         }
         return this.getName().equals(((BulkCarrier) o).getName()) &&
                 this.getFlag().equals(((BulkCarrier)o).getFlag()) &&
-                this.getOriginFlag().equals(((BulkCarrier) o).getOriginFlag()) &&
+                this.getOriginCode() == ((BulkCarrier) o).getOriginCode() &&
                 this.getImoNumber() == ((BulkCarrier) o).getImoNumber() &&
                 this.tonnageCapacity == ((BulkCarrier)o).tonnageCapacity;
     }
 
-    /**
-     * Returns the hash code of this BulkCarrier.
-     * Two BulkCarriers that are equal according to equals(Object) method should have the same
-     * hash code.
-     * @return hash code of this BulkCarrier.
-     */
-    @Override
-    public int hashCode(){
-        String hashCode =
-                Long.toString(getImoNumber()) + getFlag() + getOriginFlag() + getName() + tonnageCapacity;
-        return hashCode.hashCode();
-    }
-
     /**
      * Returns the machine-readable string representation of this BulkCarrier.
      * The format of the string to return is
@@ -2,6 +2,7 @@ package portsim.ship;
 
 
 import portsim.cargo.Cargo;
+import portsim.cargo.CargoList;
 import portsim.cargo.Container;
 import portsim.port.ContainerQuay;
 import portsim.port.Quay;
@@ -9,6 +10,7 @@ import portsim.util.Encodable;
 import portsim.util.NoSuchCargoException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -25,7 +27,7 @@ public class ContainerShip extends Ship implements Encodable {
     /**
      * The containers currently on the ship
      */
-    private List<Container> containers;
+    private CargoList<Container> containers;
 
     /**
      * Creates a new container ship with the given IMO number, name and origin
@@ -49,7 +51,16 @@ public class ContainerShip extends Ship implements Encodable {
                 + " ship must be positive: " + capacity);
         }
         this.containerCapacity = capacity;
-        this.containers = new ArrayList<>();
+        this.containers = new CargoList<>();
+    }
+
+    /* Creates an unregistered copy of the given ship, see copy() */
+    private ContainerShip(ContainerShip other) {
+        super(other);
+        this.containerCapacity = other.containerCapacity;
+        // copied rather than shared, since copies may be made on another thread than the one
+        // loading this ship
+        this.containers = new CargoList<>(other.containers);
     }
 
     /**
@@ -100,7 +111,7 @@ public class ContainerShip extends Ship implements Encodable {
         if (this.containers.size() == containerCapacity) {
             return false;
         }
-        return cargo.getDestination().equals(this.getOriginFlag());
+        return cargo.getDestinationCode() == this.getOriginCode();
     }
 
     /**
@@ -114,6 +125,9 @@ public class ContainerShip extends Ship implements Encodable {
     @Override
     public void loadCargo(Cargo cargo) {
         this.containers.add((Container) cargo);
+        if (isRegistered()) {
+            Cargo.getCargoTable().setLocation(cargo.getId(), getImoNumber());
+        }
     }
 
     /**
@@ -130,11 +144,45 @@ public class ContainerShip extends Ship implements Encodable {
         if (containers.size() == 0) {
             throw new NoSuchCargoException("Cargo has already been unloaded");
         }
-        List<Container> unload = new ArrayList<>(containers);
-        containers = new ArrayList<>();
+        CargoList<Container> unload = new CargoList<>();
+        containers.transferTo(unload);
         return unload;
     }
 
+    /**
+     * Unloads every container from the ship into the given collection, in the order they
+     * were loaded.
+     * <p>
+     * If the collection is a {@link CargoList}, the containers are moved with
+     * {@link CargoList#transferTo(CargoList)} rather than copied one by one.
+     *
+     * @param into collection to add the containers to
+     * @return number of containers unloaded, 0 if the ship was already empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int tryUnloadInto(Collection<? super Cargo> into) {
+        if (into instanceof CargoList) {
+            return containers.transferTo((CargoList<? super Cargo>) into);
+        }
+        int unloaded = containers.size();
+        if (unloaded > 0) {
+            into.addAll(containers);
+            containers.clear();
+        }
+        return unloaded;
+    }
+
+    /**
+     * Returns an unregistered copy of this ship with the same cargo on board.
+     *
+     * @return copy of this ship
+     */
+    @Override
+    public ContainerShip copy() {
+        return new ContainerShip(this);
+    }
+
     /**
      * Returns the current cargo onboard this vessel.
      * <p>
@@ -147,6 +195,30 @@ public class ContainerShip extends Ship implements Encodable {
         return new ArrayList<>(containers);
     }
 
+    /**
+     * Returns the number of containers on board this vessel.
+     * <p>
+     * Use with {@link #getCargo(int)} to go through the cargo without copying it as
+     * {@link #getCargo()} does.
+     *
+     * @return number of containers on the vessel
+     */
+    public int getCargoCount() {
+        return containers.size();
+    }
+
+    /**
+     * Returns the container at the given position on board this vessel, in the order the
+     * containers were loaded.
+     *
+     * @param index position of the container, from 0 to {@link #getCargoCount()} - 1
+     * @return container at the position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Container getCargo(int index) {
+        return containers.get(index);
+    }
+
     /**
      * Returns true if and only if this ContainerShip is equal to the other given ContainerShip.
      * For two ContainerShips to be equal, they must have the same name, flag, origin flag, IMO
@@ -163,24 +235,11 @@ public class ContainerShip extends Ship implements Encodable {
         }
         return this.getName().equals(((ContainerShip) o).getName()) &&
                 this.getFlag().equals(((ContainerShip)o).getFlag()) &&
-                this.getOriginFlag().equals(((ContainerShip) o).getOriginFlag()) &&
+                this.getOriginCode() == ((ContainerShip) o).getOriginCode() &&
                 this.getImoNumber() == ((ContainerShip) o).getImoNumber() &&
                 this.containerCapacity == ((ContainerShip)o).containerCapacity;
     }
 
-    /**
-     * Returns the hash code of this ContainerShip.
-     * Two ContainerShips that are equal according to equals(Object) method should have the same
-     * hash code.
-     * @return hash code of this ContainerShip.
-     */
-    @Override
-    public int hashCode(){
-        String hashCode =
-                Long.toString(getImoNumber()) + getFlag() + getOriginFlag() + getName() + containerCapacity;
-        return hashCode.hashCode();
-    }
-
 
 
     /**
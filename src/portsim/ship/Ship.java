@@ -2,9 +2,11 @@ package portsim.ship;
 
 import portsim.cargo.Cargo;
 import portsim.port.Quay;
+import portsim.util.Country;
 import portsim.util.Encodable;
 import portsim.util.NoSuchShipException;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,11 +33,21 @@ public abstract class Ship implements Encodable {
      */
     private String originFlag;
 
+    /**
+     * {@link Country} code of the port of origin, compared instead of the name
+     */
+    private int originCode;
+
     /**
      * Maritime flag designated for use on this ship
      */
     private NauticalFlag flag;
 
+    /**
+     * Whether this ship is in the ship registry, which copies made with {@link #copy()} are not
+     */
+    private boolean registered;
+
     /**
      * Database of all ships currently active in the simulation
      */
@@ -70,14 +82,30 @@ public abstract class Ship implements Encodable {
         }else{
             this.imoNumber = imoNumber;
             this.name = name;
-            this.originFlag = originFlag;
+            this.originCode = Country.code(originFlag);
+            this.originFlag = Country.name(originCode);
             this.flag = flag;
+            this.registered = true;
             shipRegistry.put(imoNumber, this);
         }
 
 
     }
 
+    /**
+     * Creates a copy of the given ship that is not added to the ship registry.
+     *
+     * @param other ship to copy
+     */
+    protected Ship(Ship other) {
+        this.imoNumber = other.imoNumber;
+        this.name = other.name;
+        this.originFlag = other.originFlag;
+        this.originCode = other.originCode;
+        this.flag = other.flag;
+        this.registered = false;
+    }
+
     /**
      * Checks if a ship exists in the simulation using its IMO number.
      * @param imoNumber - unique key to identify ship
@@ -96,7 +124,7 @@ public abstract class Ship implements Encodable {
      */
     public static Ship getShipByImoNumber​(long imoNumber) throws NoSuchShipException {
         if(!shipExists​(imoNumber)){
-            throw new NoSuchShipException();
+            throw NoSuchShipException.stackless("No ship with IMO number " + imoNumber);
         }
         return shipRegistry.get(imoNumber);
     }
@@ -132,6 +160,37 @@ public abstract class Ship implements Encodable {
      */
     public abstract void loadCargo(Cargo cargo);
 
+    /**
+     * Unloads all cargo on board the ship straight into the given collection.
+     * <p>
+     * Unlike the {@code unloadCargo()} methods of the subclasses, an empty ship is not an
+     * error: nothing is added and 0 is returned, so ships can be unloaded every few minutes
+     * without checking them first.
+     *
+     * @param into collection to add the unloaded cargo to
+     * @return number of pieces of cargo unloaded, 0 if the ship was empty
+     */
+    public abstract int tryUnloadInto(Collection<? super Cargo> into);
+
+    /**
+     * Returns a copy of this ship, with the same cargo on board, that is not added to the ship
+     * registry. The copy is equal to this ship, but loading or unloading either one does not
+     * affect the other, and loading the copy does not record the cargo's location in the
+     * cargo table. Forked ports use copies so that a branch never changes the original ships.
+     *
+     * @return unregistered copy of this ship
+     */
+    public abstract Ship copy();
+
+    /**
+     * Returns true if this ship is in the ship registry, rather than being a {@link #copy()}.
+     *
+     * @return true if this ship is registered
+     */
+    public boolean isRegistered() {
+        return registered;
+    }
+
     /**
      * Returns this ship's name.
      *
@@ -162,6 +221,15 @@ public abstract class Ship implements Encodable {
         return this.originFlag;
     }
 
+    /**
+     * Returns the {@link Country} code of this ship's port of origin.
+     *
+     * @return origin code
+     */
+    public int getOriginCode() {
+        return this.originCode;
+    }
+
     /**
      * Returns the nautical flag the ship is flying.
      *
@@ -196,7 +264,7 @@ public abstract class Ship implements Encodable {
         }
         return this.getName().equals(((Ship) o).getName()) &&
                 this.getFlag().equals(((Ship)o).getFlag()) &&
-                this.getOriginFlag().equals(((Ship) o).getOriginFlag()) &&
+                this.originCode == ((Ship) o).originCode &&
                 this.getImoNumber() == ((Ship) o).getImoNumber();
 
     }
@@ -205,12 +273,14 @@ public abstract class Ship implements Encodable {
      * Returns the hash code of this ship.
      * Two ships that are equal according to the equals(Object) method should have the same hash
      * code.
+     * <p>
+     * The hash code depends only on the IMO number, which is unique and never changes, so it is
+     * computed without allocating and is stable while the ship is a key in a map.
      * @return hash code of this ship.
      */
     @Override
     public int hashCode(){
-        String hashCode = Long.toString(getImoNumber()) + getFlag() + getOriginFlag() + getName() ;
-        return hashCode.hashCode();
+        return Long.hashCode(getImoNumber());
     }
 
     /**
@@ -0,0 +1,94 @@
+package portsim.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the place names used as cargo destinations and ship origin flags.
+ * <p>
+ * Each distinct name is given a small code the first time it is seen, and keeps it for the
+ * life of the program. Cargo and ships store both the code and the dictionary's canonical
+ * copy of the name, so matching a piece of cargo to a ship is a single int comparison and
+ * each name is held once however many cargo and ships share it.
+ * <p>
+ * Codes are never reused, so codes held by cargo and ships stay valid when the cargo and ship
+ * registries are reset.
+ */
+public final class Country {
+
+    /**
+     * Code of a missing (null) name
+     */
+    public static final int NONE = -1;
+
+    /**
+     * Codes, by name
+     */
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical names, by code. Replaced rather than changed when a name is added, so it can
+     * be read without locking.
+     */
+    private static volatile String[] names = new String[0];
+
+    /* Not instantiable */
+    private Country() {
+    }
+
+    /**
+     * Returns the code of the given name, giving it a new code if it has not been seen before.
+     *
+     * @param name place name
+     * @return code of the name, or {@link #NONE} if the name is null
+     */
+    public static int code(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        return code != null ? code : add(name);
+    }
+
+    /**
+     * Returns the canonical copy of the name with the given code.
+     *
+     * @param code code of a name
+     * @return name with the code, or null if the code is {@link #NONE}
+     * @throws IllegalArgumentException if no name has the code
+     */
+    public static String name(int code) throws IllegalArgumentException {
+        if (code == NONE) {
+            return null;
+        }
+        String[] current = names;
+        if (code < 0 || code >= current.length) {
+            throw new IllegalArgumentException("No place name with code " + code);
+        }
+        return current[code];
+    }
+
+    /**
+     * Returns the number of codes given out so far. Every code is less than this number, so
+     * it can size arrays indexed by code.
+     *
+     * @return number of distinct names seen
+     */
+    public static int count() {
+        return names.length;
+    }
+
+    /* Gives the name the next code, unless another thread got there first */
+    private static synchronized int add(String name) {
+        Integer code = codes.get(name);
+        if (code != null) {
+            return code;
+        }
+        String[] grown = Arrays.copyOf(names, names.length + 1);
+        grown[names.length] = name;
+        names = grown;
+        codes.put(name, names.length - 1);
+        return names.length - 1;
+    }
+}
@@ -53,5 +53,23 @@ public class NoSuchCargoException extends Exception {
         super(message,cause);
     }
 
+    /**
+     * Returns a NoSuchCargoException with the given detail message that records no stack trace
+     * and no suppressed exceptions.
+     * <p>
+     * Filling in the stack trace is most of the cost of creating an exception, so this variant
+     * is thrown on hot paths where a miss is expected, such as looking up cargo by ID in the
+     * registry.
+     *
+     * @param message detail message
+     * @return exception without a stack trace
+     */
+    public static NoSuchCargoException stackless(String message) {
+        return new NoSuchCargoException(message, false);
+    }
 
+    /* Constructs an exception with the given message, recording a stack trace only if asked */
+    private NoSuchCargoException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
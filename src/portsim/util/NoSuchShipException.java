@@ -63,5 +63,23 @@ public class NoSuchShipException extends Exception {
         super(cause);
     }
 
+    /**
+     * Returns a NoSuchShipException with the given detail message that records no stack trace
+     * and no suppressed exceptions.
+     * <p>
+     * Filling in the stack trace is most of the cost of creating an exception, so this variant
+     * is thrown on hot paths where a miss is expected, such as looking up a ship by IMO number
+     * in the registry.
+     *
+     * @param message detail message
+     * @return exception without a stack trace
+     */
+    public static NoSuchShipException stackless(String message) {
+        return new NoSuchShipException(message, false);
+    }
 
+    /* Constructs an exception with the given message, recording a stack trace only if asked */
+    private NoSuchShipException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
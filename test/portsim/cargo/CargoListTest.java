@@ -0,0 +1,107 @@
+package portsim.cargo;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CargoListTest {
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+    }
+
+    /* Returns a list of new containers with IDs from the given start, in order */
+    private static CargoList<Container> containers(int start, int count) {
+        CargoList<Container> list = new CargoList<>();
+        for (int id = start; id < start + count; id++) {
+            list.add(new Container(id, "Brisbane", ContainerType.STANDARD));
+        }
+        return list;
+    }
+
+    @Test
+    public void transferToEmptyListMovesEverything() {
+        CargoList<Container> source = containers(0, 25);
+        List<Container> expected = new ArrayList<>(source);
+        CargoList<Cargo> target = new CargoList<>();
+
+        assertEquals(25, source.transferTo(target));
+
+        assertTrue(source.isEmpty());
+        assertEquals(expected, target);
+        // the emptied list is still usable
+        source.add(new Container(99, "Brisbane", ContainerType.STANDARD));
+        assertEquals(1, source.size());
+        assertEquals(25, target.size());
+    }
+
+    @Test
+    public void transferAppendsInOrder() {
+        CargoList<Cargo> target = new CargoList<>(containers(0, 3));
+        CargoList<Container> source = containers(3, 20);
+        List<Cargo> expected = new ArrayList<>(target);
+        expected.addAll(source);
+
+        source.transferTo(target);
+
+        assertTrue(source.isEmpty());
+        assertEquals(expected, target);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotTransferToItself() {
+        CargoList<Container> list = containers(0, 2);
+        list.transferTo(list);
+    }
+
+    @Test
+    public void copiesCollectionsWithSpecificArrayTypes() {
+        CargoList<Cargo> list = new CargoList<>(Arrays.asList(
+                new Container(0, "Brisbane", ContainerType.STANDARD)));
+        list.add(new BulkCargo(1, "Brisbane", 10, BulkCargoType.GRAIN));
+
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void unloadingShipHandsOverManifest() {
+        ContainerShip ship = new ContainerShip(1234567, "Evergreen", "Brisbane",
+                NauticalFlag.NOVEMBER, 100);
+        CargoList<Container> loaded = containers(0, 50);
+        for (Container container : loaded) {
+            ship.loadCargo(container);
+        }
+        CargoList<Cargo> warehouse = new CargoList<>();
+
+        assertEquals(50, ship.tryUnloadInto(warehouse));
+
+        assertEquals(loaded, warehouse);
+        assertTrue(ship.getCargo().isEmpty());
+        assertEquals(0, ship.tryUnloadInto(warehouse));
+    }
+
+    @Test
+    public void sharedListsDiverge() {
+        CargoList<Container> list = containers(0, 10);
+        List<Container> original = new ArrayList<>(list);
+        CargoList<Container> shared = list.share();
+
+        shared.remove(0);
+        shared.add(new Container(50, "Brisbane", ContainerType.STANDARD));
+        list.transferTo(new CargoList<Cargo>(containers(100, 1)));
+
+        assertTrue(list.isEmpty());
+        assertEquals(10, shared.size());
+        assertEquals(original.subList(1, 10), shared.subList(0, 9));
+    }
+}
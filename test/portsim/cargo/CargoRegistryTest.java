@@ -0,0 +1,69 @@
+package portsim.cargo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.movement.CargoMovement;
+import portsim.movement.MovementDirection;
+import portsim.util.NoSuchCargoException;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CargoRegistryTest {
+
+    @Before
+    public void setUp() {
+        Cargo.setOffHeapRegistry(true);
+    }
+
+    @After
+    public void tearDown() {
+        Cargo.setOffHeapRegistry(false);
+    }
+
+    @Test
+    public void offHeapLookupsMatchCreatedCargo() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            if (i % 2 == 0) {
+                new Container(i * 3, "Port " + (i % 10), ContainerType.values()[i % 5]);
+            } else {
+                new BulkCargo(i * 3, "Port " + (i % 10), i % 400, BulkCargoType.values()[i % 5]);
+            }
+        }
+        assertEquals(5000, Cargo.getCargoCount());
+        assertTrue(Cargo.cargoExists(4998 * 3));
+        assertFalse(Cargo.cargoExists(1));
+
+        Cargo bulk = Cargo.getCargoById(7 * 3);
+        assertTrue(bulk instanceof BulkCargo);
+        assertEquals("Port 7", bulk.getDestination());
+        assertEquals(7, ((BulkCargo) bulk).getTonnage());
+        assertEquals(BulkCargoType.values()[2], ((BulkCargo) bulk).getType());
+        assertEquals(new Container(100000, "Port 8", ContainerType.STANDARD).getClass(),
+                Cargo.getCargoById(8 * 3).getClass());
+
+        Map<Integer, Cargo> registry = Cargo.getCargoRegistry();
+        assertEquals(5001, registry.size());
+        assertEquals(Cargo.getCargoById(9 * 3), registry.get(9 * 3));
+
+        CargoMovement movement = new CargoMovement(0, MovementDirection.INBOUND,
+                new int[] {0, 3, 6});
+        assertEquals(Cargo.getCargoById(3), movement.getCargo(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void offHeapRejectsDuplicateId() {
+        new Container(5, "Brisbane", ContainerType.STANDARD);
+        new Container(5, "Brisbane", ContainerType.REEFER);
+    }
+
+    @Test(expected = NoSuchCargoException.class)
+    public void offHeapResetEmptiesRegistry() throws Exception {
+        new Container(5, "Brisbane", ContainerType.STANDARD);
+        Cargo.resetCargoRegistry();
+        assertEquals(0, Cargo.getCargoCount());
+        Cargo.getCargoById(5);
+    }
+}
@@ -0,0 +1,81 @@
+package portsim.cargo;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.movement.CargoMovement;
+import portsim.movement.MovementDirection;
+import portsim.port.Port;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CargoTableTest {
+
+    private CargoTable table;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        table = Cargo.getCargoTable();
+    }
+
+    @Test
+    public void aggregatesMatchRegistry() {
+        String[] destinations = {"Brisbane", "Tokyo", "Lima"};
+        for (int i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                new BulkCargo(i * 7, destinations[i % 2], i % 50, BulkCargoType.values()[i % 5]);
+            } else {
+                new Container(i * 7, destinations[i % 3], ContainerType.values()[i % 5]);
+            }
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Long> tonnages = new HashMap<>();
+        Map<ContainerType, Integer> containers = new HashMap<>();
+        for (Cargo cargo : Cargo.getCargoRegistry().values()) {
+            counts.merge(cargo.getDestination(), 1, Integer::sum);
+            if (cargo instanceof BulkCargo && ((BulkCargo) cargo).getTonnage() > 0) {
+                tonnages.merge(cargo.getDestination(),
+                        (long) ((BulkCargo) cargo).getTonnage(), Long::sum);
+            } else if (cargo instanceof Container) {
+                containers.merge(((Container) cargo).getType(), 1, Integer::sum);
+            }
+        }
+        assertEquals(1000, table.size());
+        assertEquals(counts, table.countByDestination());
+        assertEquals(tonnages, table.tonnageByDestination());
+        assertEquals(containers, table.countByContainerType());
+        assertEquals(1000, table.countAt(CargoTable.IN_TRANSIT));
+
+        Cargo.resetCargoRegistry();
+        assertEquals(0, table.size());
+        assertTrue(table.countByDestination().isEmpty());
+    }
+
+    @Test
+    public void tracksLocation() {
+        Port port = new Port("Brisbane");
+        BulkCargo grain = new BulkCargo(1, "Tokyo", 100, BulkCargoType.GRAIN);
+        Container box = new Container(2, "Tokyo", ContainerType.STANDARD);
+        assertEquals(CargoTable.IN_TRANSIT, table.getLocation(1));
+
+        port.processMovement(new CargoMovement(0, MovementDirection.INBOUND,
+                Arrays.asList(grain, box)));
+        assertEquals(2, table.countAt(CargoTable.WAREHOUSE));
+
+        BulkCarrier ship = new BulkCarrier(1234567, "Ship", "Tokyo", NauticalFlag.NOVEMBER, 500);
+        ship.loadCargo(grain);
+        assertEquals(1234567, table.getLocation(1));
+
+        port.processMovement(new CargoMovement(1, MovementDirection.OUTBOUND,
+                new int[] {2}));
+        assertEquals(CargoTable.IN_TRANSIT, table.getLocation(2));
+    }
+}
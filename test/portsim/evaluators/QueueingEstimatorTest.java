@@ -0,0 +1,134 @@
+package portsim.evaluators;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.BulkQuay;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.port.ShipQueue;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class QueueingEstimatorTest {
+
+    private static final int THIRTY_DAYS = 30 * 24 * 60;
+
+    private Port port;
+
+    private long nextImo;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        List<Quay> quays = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            quays.add(new ContainerQuay(i, 100));
+        }
+        quays.add(new BulkQuay(4, 1000));
+        quays.add(new BulkQuay(5, 1000));
+        port = new Port("Brisbane", 0, new ShipQueue(), quays, new ArrayList<>());
+        nextImo = 1000000;
+    }
+
+    /* Schedules a visit of a new container ship arriving and leaving at the given times */
+    private ContainerShip visit(long arrival, long departure) {
+        ContainerShip ship = new ContainerShip(nextImo++, "Ship", "Tokyo",
+                NauticalFlag.NOVEMBER, 100);
+        port.addMovement(new ShipMovement(arrival, MovementDirection.INBOUND, ship));
+        port.addMovement(new ShipMovement(departure, MovementDirection.OUTBOUND, ship));
+        return ship;
+    }
+
+    @Test
+    public void lightLoadEstimatesMatchSimulation() {
+        Random random = new Random(3);
+        for (long time = 1; time < THIRTY_DAYS - 2000; time += 1 + random.nextInt(480)) {
+            visit(time, time + 120 + random.nextInt(240));
+        }
+        QueueingEstimator estimator = new QueueingEstimator(port);
+        port.addStatisticsEvaluator(estimator);
+        for (int minute = 0; minute < THIRTY_DAYS; minute++) {
+            port.elapseOneMinute();
+        }
+
+        QueueStatistics estimate = estimator.getEstimate(ContainerShip.class);
+        QueueStatistics divergence = estimator.getDivergence(ContainerShip.class);
+        assertTrue(estimate.getUtilisation() > 0.1);
+        assertEquals(0, divergence.getUtilisation(), 0.03);
+        assertEquals(0, divergence.getWaitingTime(), 2);
+        assertEquals(0, divergence.getQueueLength(), 0.02);
+        assertEquals(0, estimator.getEstimate(BulkCarrier.class).getUtilisation(), 0);
+    }
+
+    @Test
+    public void staysSpanArrivalToDeparture() {
+        ContainerShip ship = visit(100, 160);
+        // already at the port, so its first departure does not start a stay
+        port.addMovement(new ShipMovement(50, MovementDirection.OUTBOUND, ship));
+        QueueingEstimator estimator = new QueueingEstimator(port);
+
+        // one 60 minute stay in 160 minutes, shared between four quays
+        assertEquals(60.0 / 160 / 4,
+                estimator.getEstimate(ContainerShip.class).getUtilisation(), 1e-9);
+    }
+
+    @Test
+    public void quaysTooSmallForScheduledShipsAreNotServers() {
+        port.addQuay(new ContainerQuay(6, 5));
+        port.addQuay(new ContainerQuay(7, 5));
+        ContainerShip ship = visit(100, 160);
+        for (int id = 0; id < 10; id++) {
+            ship.loadCargo(new Container(id, "Tokyo", ContainerType.STANDARD));
+        }
+        QueueingEstimator estimator = new QueueingEstimator(port);
+
+        // still shared between only the four quays large enough for the ship
+        assertEquals(60.0 / 160 / 4,
+                estimator.getEstimate(ContainerShip.class).getUtilisation(), 1e-9);
+        port.addStatisticsEvaluator(estimator);
+        for (int minute = 0; minute < 200; minute++) {
+            port.elapseOneMinute();
+        }
+        // docked from the next docking minute, 110, until it leaves
+        assertEquals(50.0 / 200 / 4,
+                estimator.getSimulated(ContainerShip.class).getUtilisation(), 1e-9);
+    }
+
+    @Test
+    public void shipsTooLargeForEveryQuayQueueWithoutBound() {
+        ContainerShip ship = visit(100, 160);
+        for (int id = 0; id < 101; id++) {
+            ship.loadCargo(new Container(id, "Tokyo", ContainerType.STANDARD));
+        }
+        QueueStatistics estimate = new QueueingEstimator(port).getEstimate(ContainerShip.class);
+
+        assertEquals(Double.POSITIVE_INFINITY, estimate.getWaitingTime(), 0);
+    }
+
+    @Test
+    public void overloadedQuaysQueueWithoutBound() {
+        for (long time = 0; time < 1000; time += 30) {
+            visit(time, time + 300);
+        }
+        QueueStatistics estimate = new QueueingEstimator(port).getEstimate(ContainerShip.class);
+
+        assertEquals(Double.POSITIVE_INFINITY, estimate.getWaitingTime(), 0);
+        assertEquals(Double.POSITIVE_INFINITY, estimate.getQueueLength(), 0);
+        assertEquals(1, estimate.getUtilisation(), 0);
+    }
+}
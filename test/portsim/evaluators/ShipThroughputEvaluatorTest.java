@@ -2,16 +2,77 @@ package portsim.evaluators;
 
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
 
 import static org.junit.Assert.*;
 
 public class ShipThroughputEvaluatorTest {
 
+    private ShipThroughputEvaluator evaluator;
+
     @Before
     public void setUp() throws Exception {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        evaluator = new ShipThroughputEvaluator();
     }
 
     @After
     public void tearDown() throws Exception {
+        Ship.resetShipRegistry();
+    }
+
+    /* Advances the evaluator by the given number of minutes */
+    private void elapse(int minutes) {
+        for (int minute = 0; minute < minutes; minute++) {
+            evaluator.elapseOneMinute();
+        }
+    }
+
+    @Test
+    public void departuresExpireAfterAnHour() {
+        ContainerShip first = new ContainerShip(1234567, "First", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        ContainerShip second = new ContainerShip(7654321, "Second", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        elapse(100);
+        evaluator.onProcessMovement(new ShipMovement(100, MovementDirection.OUTBOUND, first));
+        elapse(30);
+        evaluator.onProcessMovement(new ShipMovement(130, MovementDirection.OUTBOUND, second));
+        // arrivals are not counted
+        evaluator.onProcessMovement(new ShipMovement(130, MovementDirection.INBOUND, first));
+        assertEquals(130, evaluator.getTime());
+        assertEquals(2, evaluator.getThroughputPerHour());
+
+        elapse(30);
+        assertEquals(2, evaluator.getThroughputPerHour());
+        elapse(1);
+        assertEquals(1, evaluator.getThroughputPerHour());
+        elapse(30);
+        assertEquals(0, evaluator.getThroughputPerHour());
+    }
+
+    @Test
+    public void shipDepartingAgainCountsOnce() {
+        ContainerShip ship = new ContainerShip(1234567, "Ship", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        evaluator.onProcessMovement(new ShipMovement(0, MovementDirection.OUTBOUND, ship));
+        elapse(50);
+        evaluator.onProcessMovement(new ShipMovement(50, MovementDirection.OUTBOUND, ship));
+        assertEquals(1, evaluator.getThroughputPerHour());
+
+        // counted from its latest departure, so still counted an hour after the first
+        elapse(11);
+        assertEquals(1, evaluator.getThroughputPerHour());
+        elapse(49);
+        assertEquals(1, evaluator.getThroughputPerHour());
+        elapse(1);
+        assertEquals(0, evaluator.getThroughputPerHour());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,116 @@
+package portsim.movement;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+import portsim.util.BadEncodingException;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FileMovementSourceTest {
+
+    private static final long DURATION = 2000;
+
+    private List<Movement> movements;
+
+    private String schedule;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+    }
+
+    /*
+     * Builds a port whose ships arrive and leave over the run while trucks bring containers,
+     * and encodes the schedule. Resets the registries first so it can be built again.
+     */
+    private Port buildPort() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        Random random = new Random(7);
+        Port port = new Port("Brisbane");
+        for (int i = 0; i < 4; i++) {
+            port.addQuay(new ContainerQuay(i, 20));
+        }
+        movements = new ArrayList<>();
+        int cargoId = 0;
+        for (int i = 0; i < 30; i++) {
+            Ship ship = new ContainerShip(1000000 + i, "Ship " + i, "Tokyo",
+                    NauticalFlag.NOVEMBER, 20);
+            long arrival = random.nextInt((int) DURATION - 200);
+            movements.add(new ShipMovement(arrival, MovementDirection.INBOUND, ship));
+            movements.add(new ShipMovement(arrival + 100 + random.nextInt(100),
+                    MovementDirection.OUTBOUND, ship));
+            List<Cargo> cargo = new ArrayList<>();
+            for (int c = 0; c < 5; c++) {
+                cargo.add(new Container(cargoId++, "Tokyo", ContainerType.STANDARD));
+            }
+            movements.add(new CargoMovement(random.nextInt((int) DURATION),
+                    MovementDirection.INBOUND, cargo));
+        }
+        movements.sort((a, b) -> Long.compare(a.getTime(), b.getTime()));
+        StringBuilder encoded = new StringBuilder();
+        for (Movement movement : movements) {
+            encoded.append(movement.encode()).append(System.lineSeparator());
+        }
+        schedule = encoded.toString();
+        return port;
+    }
+
+    @Test
+    public void decodesWhatWasEncoded() throws Exception {
+        buildPort();
+        FileMovementSource source = new FileMovementSource(new StringReader(schedule));
+        for (Movement movement : movements) {
+            assertTrue(source.hasNext());
+            assertEquals(movement.getTime(), source.nextTime());
+            assertEquals(movement.encode(), source.next().encode());
+        }
+        assertFalse(source.hasNext());
+    }
+
+    @Test
+    public void streamingMatchesUpFront() throws Exception {
+        Port upFront = buildPort();
+        upFront.addMovements(movements);
+        for (long minute = 0; minute < DURATION; minute++) {
+            upFront.elapseOneMinute();
+        }
+        String expected = upFront.encode();
+
+        Port streamed = buildPort();
+        long lookahead = 30;
+        streamed.setMovementSource(new FileMovementSource(new StringReader(schedule)),
+                lookahead);
+        for (long minute = 0; minute < DURATION; minute++) {
+            streamed.elapseOneMinute();
+            for (Movement movement : streamed.getMovements()) {
+                assertTrue(movement.getTime() <= streamed.getTime() + lookahead);
+            }
+        }
+        assertEquals(expected, streamed.encode());
+    }
+
+    @Test(expected = BadEncodingException.class)
+    public void rejectsUnsortedSchedule() throws Exception {
+        buildPort();
+        String[] lines = schedule.split(System.lineSeparator());
+        String swapped = lines[lines.length - 1] + System.lineSeparator() + lines[0];
+        FileMovementSource source = new FileMovementSource(new StringReader(swapped));
+        source.next();
+        source.next();
+    }
+}
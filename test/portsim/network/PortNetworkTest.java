@@ -0,0 +1,153 @@
+package portsim.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.CargoMovement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.port.ContainerQuay;
+import portsim.port.Port;
+import portsim.port.Quay;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PortNetworkTest {
+
+    private PortNetwork network;
+    private Port brisbane, tokyo;
+    private Ship ship;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        network = new PortNetwork(20, 4);
+        brisbane = new Port("Brisbane");
+        tokyo = new Port("Tokyo");
+        network.addPort(brisbane);
+        network.addPort(tokyo);
+        ship = new BulkCarrier(1234567, "Voyager", "Tokyo", NauticalFlag.NOVEMBER, 100);
+    }
+
+    @After
+    public void tearDown() {
+        network.shutdown();
+    }
+
+    @Test
+    public void departureArrivesAfterTransitTime() {
+        brisbane.addMovement(new ShipMovement(5, MovementDirection.OUTBOUND, ship));
+        network.runUntil(24);
+        assertEquals(24, tokyo.getTime());
+        assertEquals(0, tokyo.getShipQueue().size());
+        assertEquals(1, tokyo.getMovements().size());
+
+        network.runUntil(25);
+        assertEquals(ship, tokyo.getShipQueue().peek());
+    }
+
+    @Test
+    public void transitTimeSetsLookahead() {
+        network.setTransitTime("Brisbane", "Tokyo", 7);
+        assertEquals(7, network.getLookahead());
+        assertEquals(20, network.getTransitTime("Tokyo", "Brisbane"));
+
+        brisbane.addMovement(new ShipMovement(3, MovementDirection.OUTBOUND, ship));
+        network.runUntil(10);
+        assertEquals(ship, tokyo.getShipQueue().peek());
+    }
+
+    @Test
+    public void shipsLeavingTheNetworkAreDropped() {
+        Ship leaving = new BulkCarrier(7654321, "Horizon", "Lima", NauticalFlag.NOVEMBER, 100);
+        brisbane.addMovement(new ShipMovement(1, MovementDirection.OUTBOUND, leaving));
+        network.runUntil(100);
+        assertEquals(0, tokyo.getShipQueue().size());
+        assertTrue(tokyo.getMovements().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicatePortName() {
+        network.addPort(new Port("Tokyo"));
+    }
+
+    /* Runs a small network with cargo moving between three ports and describes the result */
+    private static String runTrade(long optimisticWindow) throws Exception {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        String[] names = {"Brisbane", "Tokyo", "Lima"};
+        PortNetwork trade = new PortNetwork(13, 3);
+        trade.setTransitTime("Brisbane", "Tokyo", 6);
+        trade.setOptimisticWindow(optimisticWindow);
+        trade.setCheckpointInterval(7);
+        int cargoId = 0;
+        for (int p = 0; p < names.length; p++) {
+            Port port = new Port(names[p]);
+            for (int q = 0; q < 2; q++) {
+                port.addQuay(new ContainerQuay(q, 100));
+            }
+            trade.addPort(port);
+        }
+        int departure = 25;
+        for (int p = 0; p < names.length; p++) {
+            Port port = trade.getPort(names[p]);
+            for (int j = 0; j < 2; j++) {
+                String destination = names[(p + j + 1) % names.length];
+                for (int c = 0; c < 3; c++) {
+                    port.processMovement(new CargoMovement(0,
+                            MovementDirection.INBOUND, List.of(
+                            new Container(cargoId++, destination, ContainerType.STANDARD))));
+                }
+                Ship ship = new ContainerShip(1000000 + p * 10 + j, "Ship" + p + j,
+                        destination, NauticalFlag.NOVEMBER, 10);
+                port.addMovement(new ShipMovement(1 + j, MovementDirection.INBOUND, ship));
+                port.addMovement(new ShipMovement(departure, MovementDirection.OUTBOUND, ship));
+                departure += 10;
+            }
+        }
+        trade.runUntil(200);
+        trade.shutdown();
+        if (optimisticWindow > 0) {
+            assertTrue(trade.getRollbacks() > 0);
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (Port port : trade.getPorts()) {
+            result.append(port.getName()).append(' ').append(port.getTime())
+                    .append(" queue=").append(port.getShipQueue().encode())
+                    .append(" pending=").append(port.getMovements().size()).append(" quays=");
+            for (Quay quay : port.getQuays()) {
+                result.append(quay.isEmpty() ? "-" : quay.getShip().getImoNumber()).append(',');
+            }
+            result.append(" cargo=");
+            for (Cargo cargo : port.getCargo()) {
+                result.append(cargo.getId()).append(',');
+            }
+            result.append('\n');
+        }
+        for (long imo = 1000000; imo < 1000030; imo++) {
+            if (Ship.shipExists(imo)) {
+                result.append(imo).append(' ').append(((ContainerShip)
+                        Ship.getShipByImoNumber(imo)).getCargo().size()).append('\n');
+            }
+        }
+        return result.toString();
+    }
+
+    @Test
+    public void optimisticMatchesConservative() throws Exception {
+        String conservative = runTrade(0);
+        String optimistic = runTrade(100);
+        assertEquals(conservative, optimistic);
+    }
+}
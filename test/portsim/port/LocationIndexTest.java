@@ -0,0 +1,148 @@
+package portsim.port;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.CargoTable;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.CargoMovement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LocationIndexTest {
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+    }
+
+    @Test
+    public void followsShipsThroughPort() {
+        List<Quay> quays = new ArrayList<>();
+        quays.add(new ContainerQuay(7, 100));
+        quays.add(new ContainerQuay(8, 100));
+        Port port = new Port("Brisbane", 0, new ShipQueue(), quays, new ArrayList<>());
+        LocationIndex index = port.getLocationIndex();
+        ContainerShip ship = new ContainerShip(1234567, "Evergreen", "Brisbane",
+                NauticalFlag.NOVEMBER, 10);
+
+        assertEquals(LocationIndex.AT_SEA, index.getShipLocation(ship.getImoNumber()));
+        port.processMovement(new ShipMovement(0, MovementDirection.INBOUND, ship));
+        assertEquals(LocationIndex.QUEUED, index.getShipLocation(ship.getImoNumber()));
+        for (int minute = 0; minute < 10; minute++) {
+            port.elapseOneMinute();
+        }
+        int position = index.getShipLocation(ship.getImoNumber());
+        assertTrue(position >= 0);
+        assertSame(ship, port.getQuays().get(position).getShip());
+
+        port.processMovement(new ShipMovement(10, MovementDirection.OUTBOUND, ship));
+        assertEquals(LocationIndex.AT_SEA, index.getShipLocation(ship.getImoNumber()));
+        assertTrue(port.getQuays().get(position).isEmpty());
+        assertEquals(0, index.getShipCount());
+    }
+
+    @Test
+    public void shipsDockedStraightOntoQuaysStillDepart() {
+        Port port = new Port("Brisbane");
+        ContainerShip ship = new ContainerShip(1234567, "Evergreen", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        port.addQuay(new ContainerQuay(7, 100));
+        port.getQuay(0).shipArrives(ship);
+
+        assertEquals(LocationIndex.AT_SEA,
+                port.getLocationIndex().getShipLocation(ship.getImoNumber()));
+        port.processMovement(new ShipMovement(0, MovementDirection.OUTBOUND, ship));
+        assertTrue(port.getQuay(0).isEmpty());
+    }
+
+    @Test
+    public void followsCargoThroughWarehouse() {
+        Port port = new Port("Brisbane");
+        Container stored = new Container(1, "Brisbane", ContainerType.STANDARD);
+        Container elsewhere = new Container(2, "Brisbane", ContainerType.STANDARD);
+        List<Cargo> cargo = new ArrayList<>();
+        cargo.add(stored);
+        port.processMovement(new CargoMovement(0, MovementDirection.INBOUND, cargo));
+
+        assertTrue(port.getLocationIndex().isStored(1));
+        assertFalse(port.getLocationIndex().isStored(2));
+
+        cargo.add(elsewhere);
+        port.processMovement(new CargoMovement(0, MovementDirection.OUTBOUND, cargo));
+        assertFalse(port.getLocationIndex().isStored(1));
+        assertTrue(port.getCargo().isEmpty());
+    }
+
+    @Test
+    public void departingShipTakesCargoOutOfWarehouse() {
+        Port port = new Port("Brisbane");
+        ContainerShip ship = new ContainerShip(1234567, "Evergreen", "Tokyo",
+                NauticalFlag.NOVEMBER, 1);
+        List<Cargo> cargo = new ArrayList<>();
+        cargo.add(new Container(1, "Sydney", ContainerType.STANDARD));
+        cargo.add(new Container(2, "Tokyo", ContainerType.STANDARD));
+        cargo.add(new Container(3, "Tokyo", ContainerType.STANDARD));
+        port.processMovement(new CargoMovement(0, MovementDirection.INBOUND, cargo));
+        port.processMovement(new ShipMovement(0, MovementDirection.OUTBOUND, ship));
+
+        assertEquals(1, ship.getCargo().size());
+        assertEquals(2, ship.getCargo().get(0).getId());
+        assertFalse(port.getLocationIndex().isStored(2));
+        assertEquals(ship.getImoNumber(), Cargo.getCargoTable().getLocation(2));
+        assertTrue(port.getLocationIndex().isStored(3));
+        assertEquals(CargoTable.WAREHOUSE, Cargo.getCargoTable().getLocation(3));
+        assertEquals(2, port.getCargo().size());
+        assertEquals(1, port.getCargo().get(0).getId());
+        assertEquals(3, port.getCargo().get(1).getId());
+
+        // a second ship finds only the cargo left behind
+        ContainerShip next = new ContainerShip(7654321, "Maersk", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        port.processMovement(new ShipMovement(0, MovementDirection.OUTBOUND, next));
+        assertEquals(1, next.getCargo().size());
+        assertEquals(3, next.getCargo().get(0).getId());
+        assertEquals(1, port.getCargo().size());
+    }
+
+    @Test
+    public void matchesMapUnderChurn() {
+        LocationIndex index = new LocationIndex();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 200000; step++) {
+            // a small key range so probe runs collide and removals shift entries back
+            long imoNumber = 1000000 + random.nextInt(500);
+            int action = random.nextInt(3);
+            if (action == 0) {
+                index.shipQueued(imoNumber);
+                expected.put(imoNumber, LocationIndex.QUEUED);
+            } else if (action == 1) {
+                int quay = random.nextInt(50);
+                index.shipDocked(imoNumber, quay);
+                expected.put(imoNumber, quay);
+            } else {
+                index.shipLeft(imoNumber);
+                expected.remove(imoNumber);
+            }
+        }
+        for (long imoNumber = 1000000; imoNumber < 1000500; imoNumber++) {
+            assertEquals((int) expected.getOrDefault(imoNumber, LocationIndex.AT_SEA),
+                    index.getShipLocation(imoNumber));
+        }
+        assertEquals(expected.size(), index.getShipCount());
+    }
+}
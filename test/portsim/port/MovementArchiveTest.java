@@ -0,0 +1,151 @@
+package portsim.port;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MovementArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MovementArchive archive;
+
+    private List<Movement> processed;
+
+    private ContainerShip[] ships;
+
+    @Before
+    public void setUp() throws IOException {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        archive = new MovementArchive(folder.newFile("movements.bin").toPath(), 60);
+        processed = new ArrayList<>();
+        ships = new ContainerShip[3];
+        for (int i = 0; i < ships.length; i++) {
+            ships[i] = new ContainerShip(1000000 + i, "Ship " + i, "Brisbane",
+                    NauticalFlag.NOVEMBER, 10);
+        }
+        Port port = new Port("Brisbane");
+        port.addMovementListener(archive);
+        port.addMovementListener((p, movement) -> processed.add(movement));
+        // a movement every minute, so the archive spans many index blocks
+        for (int time = 1; time <= 2000; time++) {
+            if (time % 4 == 0) {
+                List<Cargo> cargo = new ArrayList<>();
+                cargo.add(new Container(time, "Brisbane", ContainerType.STANDARD));
+                port.addMovement(new CargoMovement(time, MovementDirection.INBOUND, cargo));
+            } else {
+                port.addMovement(new ShipMovement(time, time % 2 == 0
+                        ? MovementDirection.OUTBOUND : MovementDirection.INBOUND,
+                        ships[time % ships.length]));
+            }
+        }
+        for (int minute = 0; minute < 2000; minute++) {
+            port.elapseOneMinute();
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    /* Returns the encodings of the given movements, which are comparable */
+    private static List<String> encode(List<Movement> movements) {
+        List<String> encoded = new ArrayList<>();
+        for (Movement movement : movements) {
+            encoded.add(movement.encode());
+        }
+        return encoded;
+    }
+
+    /* Returns the processed movements in the range, of the given ship unless it is null */
+    private List<Movement> expected(long from, long to, Ship ship) {
+        List<Movement> expected = new ArrayList<>();
+        for (Movement movement : processed) {
+            if (movement.getTime() >= from && movement.getTime() <= to && (ship == null
+                    || movement instanceof ShipMovement
+                    && ((ShipMovement) movement).getShip() == ship)) {
+                expected.add(movement);
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    public void archivesEveryProcessedMovement() throws IOException {
+        assertEquals(2000, archive.size());
+        assertEquals(encode(processed), encode(archive.query(0, Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void queriesTimeRangesFromFile() throws IOException {
+        assertEquals(encode(expected(300, 900, null)), encode(archive.query(300, 900)));
+        assertEquals(encode(expected(1999, 1999, null)), encode(archive.query(1999, 1999)));
+        assertTrue(archive.query(3000, 4000).isEmpty());
+    }
+
+    @Test
+    public void queriesShip() throws IOException {
+        assertEquals(encode(expected(0, 1000, ships[1])),
+                encode(archive.queryShip(ships[1].getImoNumber(), 0, 1000)));
+    }
+
+    @Test
+    public void retainsOnlyRecentMovementsInMemory() throws IOException {
+        List<Movement> retained = archive.getRetained();
+        assertEquals(61, retained.size());
+        assertEquals(1940, retained.get(0).getTime());
+        // answered from memory, so the very same movements come back
+        List<Movement> recent = archive.query(1950, 2000);
+        assertSame(retained.get(10), recent.get(0));
+        assertEquals(encode(expected(1950, 2000, null)), encode(recent));
+    }
+
+    @Test
+    public void portArchivesWithItsRetention() throws IOException {
+        Port port = new Port("Sydney");
+        try (MovementArchive own = port.archiveMovements(folder.newFile().toPath(), 10)) {
+            assertSame(own, port.getMovementArchive());
+            for (int time = 1; time <= 31; time++) {
+                port.addMovement(new ShipMovement(time, time % 2 == 0
+                        ? MovementDirection.OUTBOUND : MovementDirection.INBOUND, ships[0]));
+            }
+            for (int minute = 0; minute < 30; minute++) {
+                port.elapseOneMinute();
+            }
+            assertEquals(30, own.size());
+            assertEquals(11, own.getRetained().size());
+            assertEquals(20, own.getRetained().get(0).getTime());
+
+            port.setMovementArchive(null);
+            port.elapseOneMinute();
+            assertNull(port.getMovementArchive());
+            assertEquals(30, own.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void retentionMustNotBeNegative() throws IOException {
+        new MovementArchive(folder.newFile().toPath(), -1);
+    }
+}
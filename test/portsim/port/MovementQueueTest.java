@@ -0,0 +1,178 @@
+package portsim.port;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MovementQueueTest {
+
+    private Ship ship;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        ship = new BulkCarrier(1234567, "Ship", "Brisbane", NauticalFlag.NOVEMBER, 100);
+    }
+
+    /* Creates movements at random times, in no particular order */
+    private List<Movement> randomMovements(int count, long seed) {
+        Random random = new Random(seed);
+        List<Movement> movements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            movements.add(new ShipMovement(random.nextInt(50), MovementDirection.INBOUND, ship));
+        }
+        return movements;
+    }
+
+    /* Polls every movement from the queue */
+    private static List<Movement> drain(MovementQueue queue) {
+        List<Movement> drained = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            drained.add(queue.poll());
+        }
+        return drained;
+    }
+
+    /* Stable sort by time, the order movements should leave a queue they were added to */
+    private static List<Movement> sorted(List<Movement> movements) {
+        List<Movement> sorted = new ArrayList<>(movements);
+        sorted.sort((a, b) -> Long.compare(a.getTime(), b.getTime()));
+        return sorted;
+    }
+
+    @Test
+    public void pollsInTimeThenInsertionOrder() {
+        List<Movement> movements = randomMovements(500, 1);
+        MovementQueue queue = new MovementQueue();
+        for (Movement movement : movements) {
+            queue.add(movement);
+        }
+        assertEquals(500, queue.size());
+        assertEquals(sorted(movements), drain(queue));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void batchMatchesSingleAdds() {
+        List<Movement> first = randomMovements(300, 2);
+        List<Movement> second = randomMovements(40, 3);
+        MovementQueue single = new MovementQueue();
+        MovementQueue batched = new MovementQueue();
+        for (Movement movement : first) {
+            single.add(movement);
+        }
+        for (Movement movement : second) {
+            single.add(movement);
+        }
+        batched.addAll(first);
+        batched.addAll(second);
+        assertEquals(drain(single), drain(batched));
+    }
+
+    @Test
+    public void sortedBatchInterleavesWithHeap() {
+        List<Movement> unordered = randomMovements(100, 4);
+        List<Movement> ordered = sorted(randomMovements(100, 5));
+        MovementQueue queue = new MovementQueue();
+        queue.addAll(unordered);
+        queue.addAll(ordered);
+        queue.addAll(Collections.singletonList(
+                new ShipMovement(60, MovementDirection.OUTBOUND, ship)));
+        List<Movement> all = new ArrayList<>(unordered);
+        all.addAll(ordered);
+        all.add(queue.stream().filter(m -> m.getTime() == 60).findFirst().get());
+        assertEquals(sorted(all), drain(queue));
+    }
+
+    @Test
+    public void removeKeepsOrder() {
+        List<Movement> movements = randomMovements(200, 6);
+        MovementQueue queue = new MovementQueue();
+        queue.addAll(sorted(movements.subList(0, 100)));
+        queue.addAll(movements.subList(100, 200));
+        List<Movement> removed = new ArrayList<>(movements.subList(50, 150));
+        assertTrue(queue.remove(removed.get(0)));
+        assertTrue(queue.removeIf(removed.subList(1, removed.size())::contains));
+        assertFalse(queue.remove(removed.get(0)));
+        List<Movement> expected = new ArrayList<>(movements);
+        expected.removeAll(removed);
+        assertEquals(sorted(expected), drain(queue));
+    }
+
+    @Test
+    public void copyLeavesInSameOrder() {
+        List<Movement> movements = randomMovements(100, 7);
+        MovementQueue queue = new MovementQueue();
+        queue.addAll(movements.subList(0, 20));
+        queue.poll();
+        queue.addAll(sorted(movements.subList(20, 100)));
+        MovementQueue copy = new MovementQueue(queue);
+        assertEquals(drain(queue), drain(copy));
+    }
+
+    @Test
+    public void addMovementsRejectsPastBatch() {
+        Port port = new Port("Brisbane");
+        port.elapseOneMinute();
+        port.elapseOneMinute();
+        List<Movement> movements = Arrays.asList(
+                new ShipMovement(5, MovementDirection.INBOUND, ship),
+                new ShipMovement(1, MovementDirection.OUTBOUND, ship));
+        try {
+            port.addMovements(movements);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(port.getMovements().isEmpty());
+        }
+    }
+
+    @Test
+    public void streamedScheduleKeepsOrder() {
+        List<Movement> movements = randomMovements(500, 8);
+        Port port = new Port("Brisbane");
+        port.addMovements(sorted(movements.subList(0, 400)).stream());
+        port.addMovements(movements.subList(400, 500).stream());
+        assertEquals(sorted(movements), drain(port.getMovements()));
+    }
+
+    @Test
+    public void sharedQueuesDiverge() {
+        List<Movement> ordered = sorted(randomMovements(300, 7));
+        List<Movement> unordered = randomMovements(50, 8);
+        MovementQueue queue = new MovementQueue();
+        queue.addAll(ordered);
+        for (Movement movement : unordered) {
+            queue.add(movement);
+        }
+        List<Movement> all = new ArrayList<>(ordered);
+        all.addAll(unordered);
+
+        MovementQueue shared = queue.share();
+        for (int i = 0; i < 100; i++) {
+            shared.poll();
+        }
+        Movement late = new ShipMovement(1000, MovementDirection.OUTBOUND, ship);
+        Movement early = new ShipMovement(0, MovementDirection.OUTBOUND, ship);
+        shared.add(late);
+        shared.add(early);
+
+        assertEquals(sorted(all), drain(queue));
+        assertEquals(252, shared.size());
+        assertEquals(early, shared.poll());
+    }
+}
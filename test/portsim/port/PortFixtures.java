@@ -0,0 +1,38 @@
+package portsim.port;
+
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ports and quays shared by the port tests.
+ */
+final class PortFixtures {
+
+    private PortFixtures() {
+    }
+
+    /**
+     * Builds the given number of quays, each occupied by an empty ship, alternating bulk quays
+     * holding bulk carriers and container quays holding container ships. The quay at position i
+     * has ID i and its ship has IMO number 1000000 + i.
+     */
+    static List<Quay> dockedQuays(int count) {
+        List<Quay> quays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                quays.add(new BulkQuay(i, 500));
+                quays.get(i).shipArrives(new BulkCarrier(1000000 + i, "Bulk " + i, "Brisbane",
+                        NauticalFlag.NOVEMBER, 500));
+            } else {
+                quays.add(new ContainerQuay(i, 10));
+                quays.get(i).shipArrives(new ContainerShip(1000000 + i, "Container " + i,
+                        "Brisbane", NauticalFlag.NOVEMBER, 10));
+            }
+        }
+        return quays;
+    }
+}
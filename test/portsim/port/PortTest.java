@@ -0,0 +1,189 @@
+package portsim.port;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.CargoTable;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.BulkCarrier;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PortTest {
+
+    private static final int QUAYS = 300;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+    }
+
+    /* Builds a port with every quay occupied by a loaded ship, alternating bulk and container */
+    private static Port dockedPort(int threads) {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        List<Quay> quays = PortFixtures.dockedQuays(QUAYS);
+        int cargoId = 0;
+        for (int i = 0; i < QUAYS; i++) {
+            Ship ship = quays.get(i).getShip();
+            if (ship instanceof BulkCarrier) {
+                if (i % 3 != 0) {
+                    ship.loadCargo(new BulkCargo(cargoId++, "Brisbane", 100,
+                            BulkCargoType.GRAIN));
+                }
+            } else {
+                for (int c = 0; c < i % 7; c++) {
+                    ship.loadCargo(new Container(cargoId++, "Brisbane",
+                            ContainerType.STANDARD));
+                }
+            }
+        }
+        Port port = new Port("Brisbane", 0, new ShipQueue(), quays, new ArrayList<>());
+        port.setUnloadThreads(threads);
+        return port;
+    }
+
+    /* Returns the IDs of the cargo stored at the given port, in warehouse order */
+    private static List<Integer> storedIds(Port port) {
+        List<Integer> ids = new ArrayList<>();
+        for (Cargo cargo : port.getCargo()) {
+            ids.add(cargo.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void parallelUnloadMatchesSerial() {
+        Port serial = dockedPort(1);
+        for (int minute = 0; minute < 5; minute++) {
+            serial.elapseOneMinute();
+        }
+        List<Integer> expected = storedIds(serial);
+
+        Port parallel = dockedPort(4);
+        for (int minute = 0; minute < 5; minute++) {
+            parallel.elapseOneMinute();
+        }
+        parallel.setUnloadThreads(1);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, storedIds(parallel));
+        for (Quay quay : parallel.getQuays()) {
+            Ship ship = quay.getShip();
+            if (ship instanceof BulkCarrier) {
+                assertNull(((BulkCarrier) ship).getCargo());
+            } else {
+                assertTrue(((ContainerShip) ship).getCargo().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void unloadingEmptyShipsStoresNothing() {
+        Port port = dockedPort(1);
+        for (int minute = 0; minute < 5; minute++) {
+            port.elapseOneMinute();
+        }
+        List<Integer> unloaded = storedIds(port);
+        for (int minute = 0; minute < 10; minute++) {
+            port.elapseOneMinute();
+        }
+
+        assertEquals(unloaded, storedIds(port));
+        for (int id : unloaded) {
+            assertEquals(CargoTable.WAREHOUSE, Cargo.getCargoTable().getLocation(id));
+        }
+    }
+
+    @Test
+    public void forkRunsIndependently() {
+        Port port = dockedPort(1);
+        Ship first = port.getQuays().get(1).getShip();
+        long location = Cargo.getCargoTable().getLocation(
+                ((ContainerShip) first).getCargo().get(0).getId());
+        port.addMovement(new ShipMovement(7, MovementDirection.OUTBOUND, first));
+
+        Port fork = port.fork();
+        for (int minute = 0; minute < 10; minute++) {
+            fork.elapseOneMinute();
+        }
+
+        // the parent and its ships are untouched
+        assertEquals(0, port.getTime());
+        assertTrue(port.getCargo().isEmpty());
+        assertEquals(1, port.getMovements().size());
+        assertSame(first, port.getQuays().get(1).getShip());
+        assertFalse(((ContainerShip) first).getCargo().isEmpty());
+        assertEquals(location, Cargo.getCargoTable().getLocation(
+                ((ContainerShip) first).getCargo().get(0).getId()));
+        assertTrue(fork.getQuays().get(1).isEmpty());
+
+        for (int minute = 0; minute < 10; minute++) {
+            port.elapseOneMinute();
+        }
+        assertEquals(storedIds(port), storedIds(fork));
+        assertTrue(port.getQuays().get(1).isEmpty());
+    }
+
+    @Test
+    public void forkIgnoresParentRunningOn() {
+        Port port = dockedPort(1);
+        Ship leaving = port.getQuays().get(1).getShip();
+        ContainerShip arriving = new ContainerShip(2000000, "Arriving", "Tokyo",
+                NauticalFlag.HOTEL, 10);
+        for (int c = 0; c < 5; c++) {
+            arriving.loadCargo(new Container(5000 + c, "Brisbane", ContainerType.STANDARD));
+        }
+        port.addMovement(new ShipMovement(2, MovementDirection.OUTBOUND, leaving));
+        port.addMovement(new ShipMovement(3, MovementDirection.INBOUND, arriving));
+        Port first = port.fork();
+        Port second = port.fork();
+
+        for (int minute = 0; minute < 30; minute++) {
+            first.elapseOneMinute();
+        }
+        // the parent docks and unloads the arriving ship before the second fork runs
+        for (int minute = 0; minute < 30; minute++) {
+            port.elapseOneMinute();
+        }
+        assertTrue(arriving.getCargo().isEmpty());
+        for (int minute = 0; minute < 30; minute++) {
+            second.elapseOneMinute();
+        }
+
+        assertTrue(storedIds(first).contains(5000));
+        assertEquals(storedIds(first), storedIds(second));
+        assertEquals(first.encode(), second.encode());
+    }
+
+    @Test
+    public void forksOfForkDiverge() {
+        Port port = dockedPort(1);
+        Port fork = port.fork();
+        Port branch = fork.fork();
+        for (int minute = 0; minute < 5; minute++) {
+            branch.elapseOneMinute();
+        }
+
+        assertTrue(fork.getCargo().isEmpty());
+        assertFalse(branch.getCargo().isEmpty());
+        assertEquals(port.encode(), fork.encode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unloadThreadsMustBePositive() {
+        new Port("Brisbane").setUnloadThreads(0);
+    }
+}
@@ -0,0 +1,257 @@
+package portsim.port;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.evaluators.ShipFlagEvaluator;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PortTimelineTest {
+
+    private static final int THIRTY_DAYS = 30 * 24 * 60;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Port port;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        List<Quay> quays = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            quays.add(new ContainerQuay(i, 10));
+        }
+        port = new Port("Brisbane", 0, new ShipQueue(), quays, new ArrayList<>());
+        // ships call every ten hours, leaving with whatever cargo is bound for Tokyo
+        for (int i = 0; i < 8; i++) {
+            ContainerShip ship = new ContainerShip(1000000 + i, "Ship " + i, "Tokyo",
+                    NauticalFlag.NOVEMBER, 10);
+            for (int arrival = i * 50; arrival + 400 < THIRTY_DAYS; arrival += 600) {
+                port.addMovement(new ShipMovement(arrival, MovementDirection.INBOUND, ship));
+                port.addMovement(new ShipMovement(arrival + 400, MovementDirection.OUTBOUND,
+                        ship));
+            }
+        }
+        int id = 0;
+        for (int time = 30; time < THIRTY_DAYS; time += 60) {
+            List<Cargo> cargo = new ArrayList<>();
+            cargo.add(new Container(id++, "Tokyo", ContainerType.STANDARD));
+            cargo.add(new Container(id++, "Sydney", ContainerType.STANDARD));
+            port.addMovement(new CargoMovement(time, MovementDirection.INBOUND, cargo));
+        }
+    }
+
+    /* Describes the port and the cargo on board the ships docked and queued at it */
+    private static String state(Port port) {
+        StringBuilder state = new StringBuilder(port.encode());
+        for (Quay quay : port.getQuays()) {
+            if (!quay.isEmpty()) {
+                state.append('|').append(((ContainerShip) quay.getShip()).getCargo());
+            }
+        }
+        for (Ship ship : port.getShipQueue().getShipQueue()) {
+            state.append('|').append(((ContainerShip) ship).getCargo());
+        }
+        return state.toString();
+    }
+
+    /* Runs the timeline for thirty days, returning the state of the port at sampled minutes */
+    private Map<Long, String> run(PortTimeline timeline) {
+        Map<Long, String> states = new HashMap<>();
+        states.put(port.getTime(), state(port));
+        for (int minute = 1; minute <= THIRTY_DAYS; minute++) {
+            timeline.elapseOneMinute();
+            if (minute % 97 == 0 || minute == THIRTY_DAYS) {
+                states.put(port.getTime(), state(port));
+            }
+        }
+        return states;
+    }
+
+    @Test
+    public void seekRestoresEarlierMinutes() {
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        Map<Long, String> states = run(timeline);
+
+        List<Long> times = new ArrayList<>(states.keySet());
+        Collections.shuffle(times, new Random(1));
+        for (long time : times) {
+            timeline.seek(time);
+            assertEquals(time, port.getTime());
+            assertEquals("at minute " + time, states.get(time), state(port));
+        }
+    }
+
+    @Test
+    public void checkpointsThinOutWithinBudget() {
+        PortTimeline timeline = new PortTimeline(port, 256 * 1024);
+        Map<Long, String> states = run(timeline);
+
+        assertTrue(timeline.getCheckpointInterval() > PortTimeline.INITIAL_INTERVAL);
+        assertTrue(timeline.getCheckpointCount() <= THIRTY_DAYS
+                / timeline.getCheckpointInterval() + 1);
+        for (long time : new long[]{0, 97 * 3, 97 * 200, THIRTY_DAYS}) {
+            timeline.seek(time);
+            assertEquals(states.get(time), state(port));
+        }
+    }
+
+    @Test
+    public void seekingAcrossThirtyDaysIsFast() {
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        run(timeline);
+        Random random = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            timeline.seek(random.nextInt(THIRTY_DAYS + 1));
+        }
+
+        long slowest = 0;
+        for (int i = 0; i < 200; i++) {
+            long start = System.nanoTime();
+            timeline.seek(random.nextInt(THIRTY_DAYS + 1));
+            slowest = Math.max(slowest, System.nanoTime() - start);
+        }
+        assertTrue("slowest seek took " + slowest / 1000000 + " ms",
+                slowest < 100_000_000L);
+    }
+
+    @Test
+    public void changesAreReplayedAndBranchesDiscardTheFuture() {
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        for (int minute = 0; minute < 100; minute++) {
+            timeline.elapseOneMinute();
+        }
+        ContainerShip extra = new ContainerShip(2000000, "Extra", "Tokyo",
+                NauticalFlag.HOTEL, 10);
+        timeline.addMovement(new ShipMovement(100, MovementDirection.INBOUND, extra));
+        for (int minute = 0; minute < 100; minute++) {
+            timeline.elapseOneMinute();
+        }
+        String at200 = state(port);
+
+        timeline.seek(50);
+        timeline.seek(200);
+        assertEquals(at200, state(port));
+
+        timeline.seek(150);
+        timeline.elapseOneMinute();
+        assertEquals(151, timeline.getLatestTime());
+        timeline.seek(0);
+        timeline.seek(151);
+        assertEquals(151, port.getTime());
+    }
+
+    @Test
+    public void historyStartMovesOnOnceLogOutgrowsBudget() {
+        PortTimeline timeline = new PortTimeline(port, 64 * 1024);
+        Map<Long, String> states = run(timeline);
+
+        long start = timeline.getStartTime();
+        assertTrue(start > 0);
+        for (long time : states.keySet()) {
+            if (time >= start) {
+                timeline.seek(time);
+                assertEquals("at minute " + time, states.get(time), state(port));
+            }
+        }
+    }
+
+    @Test
+    public void seekingDoesNotRenotifyEvaluatorsOrListeners() {
+        ShipFlagEvaluator evaluator = new ShipFlagEvaluator();
+        port.addStatisticsEvaluator(evaluator);
+        List<Movement> heard = new ArrayList<>();
+        port.addMovementListener((processed, movement) -> heard.add(movement));
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        run(timeline);
+        int movements = heard.size();
+
+        timeline.seek(0);
+        timeline.seek(THIRTY_DAYS / 2);
+        timeline.seek(THIRTY_DAYS);
+        assertEquals(movements, heard.size());
+        assertEquals(THIRTY_DAYS, evaluator.getTime());
+
+        // the new course taken after seeking back is heard as it happens
+        timeline.seek(THIRTY_DAYS - 100);
+        for (int minute = 0; minute < 100; minute++) {
+            timeline.elapseOneMinute();
+        }
+        assertEquals(THIRTY_DAYS + 100, evaluator.getTime());
+        assertTrue(heard.size() > movements);
+    }
+
+    @Test
+    public void seekingRecordsNoFlightRecorderEvents() throws IOException {
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        for (int minute = 0; minute < 1000; minute++) {
+            timeline.elapseOneMinute();
+        }
+        Path file = folder.newFile("seek.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            for (String event : new String[]{"Tick", "ShipDocked", "ShipDeparted",
+                    "MovementProcessed"}) {
+                recording.enable("portsim." + event).withoutThreshold();
+            }
+            recording.start();
+            timeline.seek(0);
+            timeline.seek(1000);
+            // only the new minutes are recorded
+            for (int minute = 0; minute < 10; minute++) {
+                timeline.elapseOneMinute();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        int departures = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            counts.merge(event.getEventType().getName(), 1, Integer::sum);
+            if (event.getEventType().getName().equals("portsim.MovementProcessed")) {
+                assertTrue(event.getLong("time") > 1000);
+                if (event.getString("movementType").equals("ShipMovement")
+                        && event.getString("direction").equals("OUTBOUND")) {
+                    departures++;
+                }
+            }
+        }
+        assertEquals(10, (int) counts.get("portsim.Tick"));
+        // ships dock only every ten minutes
+        assertTrue(counts.getOrDefault("portsim.ShipDocked", 0) <= 1);
+        assertEquals(departures, (int) counts.getOrDefault("portsim.ShipDeparted", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotSeekPastLatestMinute() {
+        PortTimeline timeline = new PortTimeline(port, 64L * 1024 * 1024);
+        timeline.elapseOneMinute();
+        timeline.seek(2);
+    }
+}
@@ -0,0 +1,130 @@
+package portsim.port;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.BulkCargo;
+import portsim.cargo.BulkCargoType;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.evaluators.CargoDecompositionEvaluator;
+import portsim.evaluators.QuayOccupancyEvaluator;
+import portsim.evaluators.ShipFlagEvaluator;
+import portsim.evaluators.ShipThroughputEvaluator;
+import portsim.movement.CargoMovement;
+import portsim.movement.Movement;
+import portsim.movement.MovementDirection;
+import portsim.movement.ShipMovement;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class TickAllocationTest {
+
+    private static final int WARMUP_TICKS = 200_000;
+
+    private static final int MEASURED_TICKS = 1_000_000;
+
+    /**
+     * Minutes in each cycle of ships and cargo calling at the port
+     */
+    private static final int CYCLE = 120;
+
+    /**
+     * Bytes the measured ticks may allocate in total, which leaves room for the odd allocation
+     * by the JVM itself but not for even one object per tick
+     */
+    private static final long BUDGET_BYTES = 16 * 1024;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+    }
+
+    /*
+     * Builds a port whose quays are all occupied but one, which two ships take turns at every
+     * cycle: each arrives, waits or docks, is unloaded and leaves with the cargo bound for its
+     * origin, while a batch of cargo is brought into the warehouse and taken out again. The
+     * movements for the warm-up and measured ticks are all scheduled up front.
+     */
+    private static Port steadyPort() {
+        List<Quay> quays = PortFixtures.dockedQuays(20);
+        quays.add(new ContainerQuay(20, 10));
+        List<Cargo> stored = new ArrayList<>();
+        for (int id = 0; id < 20; id++) {
+            stored.add(new Container(id, "Tokyo", ContainerType.STANDARD));
+        }
+        int[] batch = new int[5];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = 100 + i;
+            if (i == 0) {
+                new BulkCargo(batch[i], "Sydney", 100, BulkCargoType.GRAIN);
+            } else {
+                new Container(batch[i], "Sydney", ContainerType.values()[i]);
+            }
+        }
+        ContainerShip first = new ContainerShip(3000000, "First", "Tokyo",
+                NauticalFlag.NOVEMBER, 10);
+        ContainerShip second = new ContainerShip(3000001, "Second", "Tokyo",
+                NauticalFlag.HOTEL, 10);
+
+        Port port = new Port("Brisbane", 0, new ShipQueue(), quays, stored);
+        port.addStatisticsEvaluator(new ShipThroughputEvaluator());
+        port.addStatisticsEvaluator(new ShipFlagEvaluator());
+        port.addStatisticsEvaluator(new CargoDecompositionEvaluator());
+        port.addStatisticsEvaluator(new QuayOccupancyEvaluator(port));
+        List<Movement> movements = new ArrayList<>();
+        for (long start = 0; start < WARMUP_TICKS + MEASURED_TICKS; start += CYCLE) {
+            // the second ship queues until the first leaves its quay
+            movements.add(new ShipMovement(start + 1, MovementDirection.INBOUND, first));
+            movements.add(new CargoMovement(start + 5, MovementDirection.INBOUND, batch));
+            movements.add(new ShipMovement(start + 11, MovementDirection.INBOUND, second));
+            movements.add(new ShipMovement(start + 40, MovementDirection.OUTBOUND, first));
+            movements.add(new CargoMovement(start + 65, MovementDirection.OUTBOUND, batch));
+            movements.add(new ShipMovement(start + 100, MovementDirection.OUTBOUND, second));
+        }
+        port.addMovements(movements);
+        return port;
+    }
+
+    @Test
+    public void steadyStateTickDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        Port port = steadyPort();
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            port.elapseOneMinute();
+        }
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            port.elapseOneMinute();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(allocated + " bytes allocated over " + MEASURED_TICKS + " ticks",
+                allocated <= BUDGET_BYTES);
+        int cycles = (WARMUP_TICKS + MEASURED_TICKS) / CYCLE;
+        ShipThroughputEvaluator throughput = (ShipThroughputEvaluator) port.getEvaluators().get(0);
+        assertEquals(WARMUP_TICKS + MEASURED_TICKS, throughput.getTime());
+        // only the second ship left within the last hour; the first has expired
+        assertEquals(1, throughput.getThroughputPerHour());
+        assertEquals(2 * cycles, ((ShipFlagEvaluator) port.getEvaluators().get(1))
+                .getFlagStatistics("Tokyo"));
+        assertEquals(Integer.valueOf(cycles), ((CargoDecompositionEvaluator) port
+                .getEvaluators().get(2)).getCargoDistribution().get("BulkCargo"));
+        // both ships are at sea with the cargo for Tokyo and the batch has been taken out
+        assertEquals(0, port.getCargo().size());
+    }
+}
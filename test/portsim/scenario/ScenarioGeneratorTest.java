@@ -0,0 +1,79 @@
+package portsim.scenario;
+
+import org.junit.Before;
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.ship.Ship;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class ScenarioGeneratorTest {
+
+    private ScenarioParameters parameters;
+
+    @Before
+    public void setUp() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        parameters = ScenarioParameters.fromArguments("seed=7", "fleetSize=20",
+                "warehouseCargo=30", "truckCargo=40", "duration=2000", "shipArrivalRate=4");
+    }
+
+    private static String port(ScenarioGenerator generator) throws Exception {
+        StringWriter out = new StringWriter();
+        generator.writePort(out);
+        return out.toString();
+    }
+
+    private static String schedule(ScenarioGenerator generator) throws Exception {
+        StringWriter out = new StringWriter();
+        generator.writeSchedule(out);
+        return out.toString();
+    }
+
+    @Test
+    public void sameSeedSameScenario() throws Exception {
+        ScenarioGenerator first = new ScenarioGenerator(parameters);
+        ScenarioGenerator second = new ScenarioGenerator(parameters);
+        assertEquals(port(first), port(second));
+        assertEquals(schedule(first), schedule(second));
+
+        parameters.setSeed(8);
+        assertNotEquals(port(first), port(new ScenarioGenerator(parameters)));
+    }
+
+    @Test
+    public void portSaveSections() throws Exception {
+        ScenarioGenerator generator = new ScenarioGenerator(parameters);
+        String[] lines = port(generator).split(System.lineSeparator());
+        int numCargo = Integer.parseInt(lines[2]);
+        assertEquals(generator.getCargoCount(), numCargo);
+        for (int i = 0; i < numCargo; i++) {
+            Cargo.fromString(lines[3 + i]);
+        }
+        int shipLine = 3 + numCargo;
+        assertEquals(20, Integer.parseInt(lines[shipLine]));
+        int quayLine = shipLine + 21;
+        assertEquals(8, Integer.parseInt(lines[quayLine]));
+        assertEquals("ShipQueue:0:", lines[quayLine + 9]);
+        assertTrue(lines[quayLine + 10].startsWith("StoredCargo:30:0,1,2,"));
+        assertEquals("Movements:0", lines[quayLine + 11]);
+        assertEquals("Evaluators:0:", lines[quayLine + 12]);
+        assertEquals(quayLine + 13, lines.length);
+    }
+
+    @Test
+    public void scheduleInTimeOrder() throws Exception {
+        String[] lines = schedule(new ScenarioGenerator(parameters))
+                .split(System.lineSeparator());
+        assertTrue(lines.length > 10);
+        long previous = 0;
+        for (String line : lines) {
+            long time = Long.parseLong(line.split(":")[1]);
+            assertTrue(line, time >= previous && time <= 2000);
+            previous = time;
+        }
+    }
+}
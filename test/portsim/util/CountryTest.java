@@ -0,0 +1,37 @@
+package portsim.util;
+
+import org.junit.Test;
+import portsim.cargo.Cargo;
+import portsim.cargo.Container;
+import portsim.cargo.ContainerType;
+import portsim.ship.ContainerShip;
+import portsim.ship.NauticalFlag;
+import portsim.ship.Ship;
+
+import static org.junit.Assert.*;
+
+public class CountryTest {
+
+    @Test
+    public void equalNamesShareCodeAndInstance() {
+        int code = Country.code(new String("Valparaiso"));
+        assertEquals(code, Country.code(new String("Valparaiso")));
+        assertNotEquals(code, Country.code("Callao"));
+        assertSame(Country.name(code), Country.name(Country.code(new String("Valparaiso"))));
+        assertTrue(code < Country.count());
+        assertEquals(Country.NONE, Country.code(null));
+        assertNull(Country.name(Country.NONE));
+    }
+
+    @Test
+    public void cargoMatchesShipByCode() {
+        Cargo.resetCargoRegistry();
+        Ship.resetShipRegistry();
+        Container box = new Container(1, new String("Valparaiso"), ContainerType.STANDARD);
+        ContainerShip ship = new ContainerShip(1234567, "Ship", new String("Valparaiso"),
+                NauticalFlag.NOVEMBER, 10);
+        assertEquals(box.getDestinationCode(), ship.getOriginCode());
+        assertSame(box.getDestination(), ship.getOriginFlag());
+        assertTrue(ship.canLoad(box));
+    }
+}